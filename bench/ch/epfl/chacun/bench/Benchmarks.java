@@ -0,0 +1,41 @@
+package ch.epfl.chacun.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks :
+ * point d'entrée des bancs d'essai JMH du moteur. Lance tous les bancs de ce paquetage avec le profileur
+ * d'allocations (équivalent de -prof gc) ; les options JMH usuelles (-f, -wi, -i, expression régulière de
+ * sélection, ...) peuvent être passées en arguments.
+ *
+ * @author Rayan Berrada (378940)
+ * @author Jens Cancio (379510)
+ */
+public final class Benchmarks {
+    /**
+     * Constructeur vide (classe non instantiable)
+     */
+    private Benchmarks() {}
+
+    /**
+     * lance les bancs d'essai
+     * @param args les options JMH
+     * @throws CommandLineOptionException si les options sont invalides
+     * @throws RunnerException si un banc d'essai échoue
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLineOptions);
+        if (commandLineOptions.getIncludes().isEmpty()) {
+            options.include(Benchmarks.class.getPackageName() + ".");
+        }
+        options.addProfiler(GCProfiler.class);
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,58 @@
+package ch.epfl.chacun.bench;
+
+import ch.epfl.chacun.Board;
+import ch.epfl.chacun.PlacedTile;
+import ch.epfl.chacun.Pos;
+import ch.epfl.chacun.Tile;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BoardBenchmark :
+ * bancs d'essai des opérations de Board utilisées à chaque tour.
+ *
+ * @author Rayan Berrada (378940)
+ * @author Jens Cancio (379510)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class BoardBenchmark {
+    @Param
+    public GamePositions.Stage stage;
+
+    private Board board;
+    private PlacedTile placedTile;
+    private Tile tileToPlace;
+
+    /**
+     * prépare le plateau de la position et la tuile qui y est posée ensuite
+     */
+    @Setup
+    public void setUp() {
+        GamePositions.Position position = GamePositions.at(stage);
+        board = position.state().board();
+        tileToPlace = position.state().tileToPlace();
+        placedTile = position.next().board().lastPlacedTile().withNoOccupant();
+    }
+
+    @Benchmark
+    public Board withNewTile() {
+        return board.withNewTile(placedTile);
+    }
+
+    @Benchmark
+    public Set<Pos> insertionPositions() {
+        return board.insertionPositions();
+    }
+
+    @Benchmark
+    public boolean couldPlaceTile() {
+        return board.couldPlaceTile(tileToPlace);
+    }
+}
@@ -0,0 +1,37 @@
+package ch.epfl.chacun.bench;
+
+import ch.epfl.chacun.ActionEncoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EndOfGameBenchmark :
+ * banc d'essai du décompte final (GameState.withFinalPointsCounted), déclenché en jouant la dernière action
+ * d'une partie réelle.
+ *
+ * @author Rayan Berrada (378940)
+ * @author Jens Cancio (379510)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class EndOfGameBenchmark {
+    private GamePositions.Position position;
+
+    /**
+     * prépare la dernière position de la partie
+     */
+    @Setup
+    public void setUp() {
+        position = GamePositions.last();
+    }
+
+    @Benchmark
+    public ActionEncoder.StateAction withFinalPointsCounted() {
+        return ActionEncoder.decodeAndApply(position.state(), position.nextAction());
+    }
+}
@@ -0,0 +1,97 @@
+package ch.epfl.chacun.bench;
+
+import ch.epfl.chacun.ActionEncoder;
+import ch.epfl.chacun.GameState;
+import ch.epfl.chacun.sim.MovePolicy;
+import ch.epfl.chacun.sim.Simulator;
+
+import java.util.List;
+
+/**
+ * GamePositions :
+ * positions de jeu réelles utilisées par les bancs d'essai, obtenues en rejouant le journal d'actions d'une
+ * partie simulée avec une graine fixe.
+ *
+ * @author Rayan Berrada (378940)
+ * @author Jens Cancio (379510)
+ */
+public final class GamePositions {
+    // nombre de joueurs et graine de la partie de référence
+    static final int PLAYERS = 3;
+    static final long SEED = 2024;
+
+    /**
+     * Stage :
+     * moment de la partie auquel la position est prise, exprimé en fraction du journal d'actions
+     * (public car utilisé comme paramètre par le code généré par JMH)
+     */
+    public enum Stage {
+        EARLY(0.1),
+        MID(0.5),
+        LATE(0.9);
+
+        private final double fraction;
+
+        Stage(double fraction) {
+            this.fraction = fraction;
+        }
+    }
+
+    /**
+     * Position :
+     * état de jeu dont la prochaine action est PLACE_TILE, avec l'action (encodée) jouée à partir de lui
+     * @param state l'état de jeu
+     * @param nextAction l'action suivante, en base32
+     */
+    record Position(GameState state, String nextAction) {
+        /**
+         * retourne l'état obtenu en jouant l'action suivante
+         * @return l'état suivant
+         */
+        GameState next() {
+            return ActionEncoder.decodeAndApply(state, nextAction).gameState();
+        }
+    }
+
+    /**
+     * Constructeur vide (classe non instantiable)
+     */
+    private GamePositions() {}
+
+    /**
+     * retourne le journal d'actions de la partie de référence
+     * @return le journal d'actions
+     */
+    private static List<String> actions() {
+        return Simulator.playGame(PLAYERS, SEED, MovePolicy.RANDOM).actions();
+    }
+
+    /**
+     * retourne la première position de la partie de référence, au moment donné, où une tuile doit être posée
+     * @param stage le moment de la partie
+     * @return la position correspondante
+     */
+    static Position at(Stage stage) {
+        List<String> actions = actions();
+        GameState state = Simulator.initialState(PLAYERS, SEED);
+        int i = 0;
+        while (i < actions.size() * stage.fraction || state.nextAction() != GameState.Action.PLACE_TILE) {
+            state = ActionEncoder.decodeAndApply(state, actions.get(i)).gameState();
+            i += 1;
+        }
+        return new Position(state, actions.get(i));
+    }
+
+    /**
+     * retourne la dernière position de la partie de référence, dont l'action suivante termine la partie
+     * @return la dernière position
+     */
+    static Position last() {
+        List<String> actions = actions();
+        GameState state = Simulator.initialState(PLAYERS, SEED);
+        for (String action : actions.subList(0, actions.size() - 1)) {
+            state = ActionEncoder.decodeAndApply(state, action).gameState();
+        }
+        return new Position(state, actions.getLast());
+    }
+}
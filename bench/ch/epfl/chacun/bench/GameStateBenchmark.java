@@ -0,0 +1,48 @@
+package ch.epfl.chacun.bench;
+
+import ch.epfl.chacun.ActionEncoder;
+import ch.epfl.chacun.GameState;
+import ch.epfl.chacun.PlacedTile;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameStateBenchmark :
+ * bancs d'essai des transitions de GameState et du décodage des actions.
+ *
+ * @author Rayan Berrada (378940)
+ * @author Jens Cancio (379510)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class GameStateBenchmark {
+    @Param
+    public GamePositions.Stage stage;
+
+    private GamePositions.Position position;
+    private PlacedTile placedTile;
+
+    /**
+     * prépare la position et la tuile qui y est posée ensuite
+     */
+    @Setup
+    public void setUp() {
+        position = GamePositions.at(stage);
+        placedTile = position.next().board().lastPlacedTile().withNoOccupant();
+    }
+
+    @Benchmark
+    public GameState withPlacedTile() {
+        return position.state().withPlacedTile(placedTile);
+    }
+
+    @Benchmark
+    public ActionEncoder.StateAction decodeAndApply() {
+        return ActionEncoder.decodeAndApply(position.state(), position.nextAction());
+    }
+}
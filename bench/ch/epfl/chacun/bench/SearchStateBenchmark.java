@@ -0,0 +1,56 @@
+package ch.epfl.chacun.bench;
+
+import ch.epfl.chacun.GameState;
+import ch.epfl.chacun.PlayerColor;
+import ch.epfl.chacun.sim.SearchState;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SearchStateBenchmark :
+ * banc d'essai d'un coup joué puis annulé sur place au moyen de SearchState, tel qu'effectué à chaque nœud
+ * d'une recherche. Lancé avec le profileur d'allocations (voir Benchmarks), il mesure la mémoire allouée par
+ * coup (gc.alloc.rate.norm), qui se limite à quelques petits objets (action retenue, tuile occupée, tas tirés)
+ * et ne croît pas avec le nombre de tuiles posées.
+ *
+ * @author Rayan Berrada (378940)
+ * @author Jens Cancio (379510)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class SearchStateBenchmark {
+    @Param
+    public GamePositions.Stage stage;
+
+    private SearchState searchState;
+    private List<GameState.Move> moves;
+    private PlayerColor player;
+    private int nextMove;
+
+    /**
+     * prépare l'état de recherche de la position et ses coups légaux
+     */
+    @Setup
+    public void setUp() {
+        GameState state = GamePositions.at(stage).state();
+        searchState = SearchState.of(state);
+        moves = searchState.legalMoves();
+        player = state.currentPlayer();
+    }
+
+    @Benchmark
+    public int playAndUndo() {
+        GameState.Move move = moves.get(nextMove);
+        nextMove = (nextMove + 1) % moves.size();
+        searchState.play(move);
+        int points = searchState.points(player);
+        searchState.undo();
+        return points;
+    }
+}
@@ -0,0 +1,54 @@
+package ch.epfl.chacun.bench;
+
+import ch.epfl.chacun.Area;
+import ch.epfl.chacun.Zone;
+import ch.epfl.chacun.ZonePartition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ZonePartitionBenchmark :
+ * banc d'essai de l'union d'aires, sur la partition des prés d'une position réelle. Chaque invocation crée un
+ * bâtisseur à partir de la partition, réunit en chaîne toutes ses aires ayant au moins deux connexions ouvertes
+ * (afin que chaque union reste valide), puis bâtit le résultat.
+ *
+ * @author Rayan Berrada (378940)
+ * @author Jens Cancio (379510)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ZonePartitionBenchmark {
+    @Param
+    public GamePositions.Stage stage;
+
+    private ZonePartition<Zone.Meadow> meadows;
+    private List<Zone.Meadow> representatives;
+
+    /**
+     * prépare la partition des prés de la position et une zone de chacune de ses aires à réunir
+     */
+    @Setup
+    public void setUp() {
+        meadows = new ZonePartition<>(GamePositions.at(stage).state().board().meadowAreas());
+        representatives = meadows.areas().stream()
+                .filter(area -> area.openConnections() >= 2)
+                .map(Area::zones)
+                .map(zones -> zones.iterator().next())
+                .toList();
+    }
+
+    @Benchmark
+    public ZonePartition<Zone.Meadow> union() {
+        ZonePartition.Builder<Zone.Meadow> builder = new ZonePartition.Builder<>(meadows);
+        for (int i = 1; i < representatives.size(); i += 1) {
+            builder.union(representatives.get(i - 1), representatives.get(i));
+        }
+        return builder.build();
+    }
+}
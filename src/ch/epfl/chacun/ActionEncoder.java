@@ -1,5 +1,6 @@
 package ch.epfl.chacun;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
@@ -39,18 +40,6 @@ public final class ActionEncoder {
     public record StateAction(GameState gameState, String base32Action){}
 
 
-    /**
-     * retourne la liste ordonnée des positions
-     * triées dans l'ordre croissant, d'abord par leur coordonnée x, puis par leur coordonnée y
-     * @param insertionPositions le set avec les positions
-     * @return la liste ordonnée des positions
-     */
-    private static List<Pos> getOrderedPositions (Set<Pos> insertionPositions) {
-        return insertionPositions.stream()
-                .sorted(Comparator.comparingInt(Pos::x).thenComparingInt(Pos::y))
-                .toList();
-    }
-
     /**
      * retourne la liste des occupants triés par leur zone ID
      * @param occupants le set des occupants
@@ -71,8 +60,9 @@ public final class ActionEncoder {
      * @return objet StateAction (voir ci-dessus)
      */
     public static StateAction withPlacedTile(GameState gameState, PlacedTile tileToPlace) {
-        int positionOfTileToPlace= getOrderedPositions(gameState.board().
-                insertionPositions()).indexOf(tileToPlace.pos());
+        // les positions compactées sont triées dans l'ordre de l'encodage : recherche dichotomique
+        int positionOfTileToPlace= Arrays.binarySearch(gameState.board().packedInsertionPositions(),
+                tileToPlace.pos().packed());
         int rotation= tileToPlace.rotation().ordinal();
         int encodedAction= positionOfTileToPlace << 2 | rotation;
         return new StateAction(gameState.withPlacedTile(tileToPlace),Base32.encodeBits10(encodedAction));
@@ -153,9 +143,9 @@ public final class ActionEncoder {
                 if (base32EncodedAction.length() != 2)  throw new StateActionDecodeAndApplyException();
                 Tile getTile= gameState.tileToPlace();
                 int position = decodedAction>>2;
-                List<Pos> orderedPositions = getOrderedPositions(gameState.board().insertionPositions());
-                if (position + 1 > orderedPositions.size())  throw new StateActionDecodeAndApplyException();
-                Pos tilePosition = orderedPositions.get(position);
+                int[] orderedPositions = gameState.board().packedInsertionPositions();
+                if (position + 1 > orderedPositions.length)  throw new StateActionDecodeAndApplyException();
+                Pos tilePosition = Pos.unpacked(orderedPositions[position]);
                 int rotation= decodedAction & 0b11;
                 PlacedTile placedTile = new PlacedTile(getTile,gameState.currentPlayer(),
                         Rotation.ROTATIONSArray[rotation],tilePosition,null);
@@ -23,20 +23,461 @@ public record Area<Z extends Zone>(Set<Z> zones, List<PlayerColor> occupants, in
         if (openConnections<0){
             throw new IllegalArgumentException();
         }
-        zones = Set.copyOf(zones);
-        List<PlayerColor> occupantsCopy = new ArrayList<>();
-        occupantsCopy.addAll(occupants);
-        Collections.sort(occupantsCopy);
-        occupants = List.copyOf(occupantsCopy);
+        zones = ZoneSet.copyOf(zones);
+        occupants = OccupantList.copyOf(occupants);
 
     }
 
+    /**
+     * ZoneSet :
+     * ensemble immuable de zones, indexé par leur identifiant (tileId * 10 + localId, soit moins de 1000 pour les
+     * tuiles du jeu) : un bit par identifiant, et les zones elles-mêmes rangées par identifiant croissant, la
+     * zone d'un identifiant se trouvant au rang de son bit. L'union, l'appartenance et les identités des tuiles
+     * se calculent ainsi mot par mot sur les bits, sans hacher les zones (dont l'égalité parcourt les animaux).
+     * L'ensemble porte aussi les statistiques de ses zones utilisées pour le décompte (champignons, menhirs,
+     * poissons, lacs), additionnées lors de l'union sans parcourir les zones ; les identités des tuiles et les
+     * animaux sont calculés une seule fois, au besoin.
+     *
+     * @param <Z> le type des zones
+     */
+    private static final class ZoneSet<Z extends Zone> extends AbstractSet<Z> {
+        // au-delà de cet identifiant, les zones sont gardées dans un ensemble ordinaire (voir copyOf)
+        private static final int MAX_ID = 1 << 16;
+        // nombre de zones par tuile, qui partagent le même identifiant de tuile
+        private static final int ZONES_PER_TILE = 10;
+
+        private static final Zone.Lake[] NO_LAKES = new Zone.Lake[0];
+
+        private final long[] bits;
+        private final Zone[] zones;
+        // nombre de forêts à champignons, de forêts à menhir et de lacs, poissons des zones aquatiques, et
+        // poissons des rivières et des lacs (distincts) à leurs extrémités, ainsi que ces lacs
+        private final int mushroomGroups;
+        private final int menhirs;
+        private final int lakes;
+        private final int waterFish;
+        private final int riverFish;
+        private final Zone.Lake[] riverLakes;
+        // somme des hachages des zones, identités des tuiles et animaux, calculés au besoin
+        private int hash;
+        private Set<Integer> tileIds;
+        private Set<Animal> animals;
+
+        /**
+         * crée l'ensemble de bits et de zones (rangées par identifiant) et les statistiques données, qui ne
+         * doivent plus être modifiés
+         */
+        private ZoneSet(long[] bits, Zone[] zones, int mushroomGroups, int menhirs, int lakes, int waterFish,
+                        int riverFish, Zone.Lake[] riverLakes) {
+            this.bits = bits;
+            this.zones = zones;
+            this.mushroomGroups = mushroomGroups;
+            this.menhirs = menhirs;
+            this.lakes = lakes;
+            this.waterFish = waterFish;
+            this.riverFish = riverFish;
+            this.riverLakes = riverLakes;
+        }
+
+        /**
+         * crée l'ensemble de bits et de zones (rangées par identifiant) donnés, dont les statistiques sont
+         * calculées en parcourant une fois les zones
+         */
+        private static <Z extends Zone> ZoneSet<Z> of(long[] bits, Zone[] zones) {
+            int mushroomGroups = 0;
+            int menhirs = 0;
+            int lakes = 0;
+            int waterFish = 0;
+            int riverFish = 0;
+            Zone.Lake[] riverLakes = NO_LAKES;
+            for (Zone zone : zones) {
+                switch (zone) {
+                    case Zone.Forest forest -> {
+                        if (forest.kind() == Zone.Forest.Kind.WITH_MUSHROOMS) mushroomGroups += 1;
+                        if (forest.kind() == Zone.Forest.Kind.WITH_MENHIR) menhirs += 1;
+                    }
+                    case Zone.Lake lake -> {
+                        lakes += 1;
+                        waterFish += lake.fishCount();
+                    }
+                    case Zone.River river -> {
+                        waterFish += river.fishCount();
+                        riverFish += river.fishCount();
+                        if (river.hasLake() && !contains(riverLakes, river.lake())) {
+                            riverLakes = Arrays.copyOf(riverLakes, riverLakes.length + 1);
+                            riverLakes[riverLakes.length - 1] = river.lake();
+                            riverFish += river.lake().fishCount();
+                        }
+                    }
+                    default -> { }
+                }
+            }
+            return new ZoneSet<>(bits, zones, mushroomGroups, menhirs, lakes, waterFish, riverFish, riverLakes);
+        }
+
+        /**
+         * retourne vrai ssi le tableau de lacs donné contient le lac donné
+         */
+        private static boolean contains(Zone.Lake[] lakes, Zone.Lake lake) {
+            for (Zone.Lake l : lakes) {
+                if (l == lake || l.equals(lake)) return true;
+            }
+            return false;
+        }
+
+        /**
+         * retourne un ensemble immuable contenant les zones données : l'ensemble donné lui-même s'il est déjà de
+         * ce type, sinon un nouvel ensemble indexé, ou un ensemble ordinaire (Set.copyOf) si un identifiant est
+         * hors de l'index ou partagé par deux zones différentes
+         * @param zones les zones
+         * @return l'ensemble immuable des zones
+         * @throws NullPointerException si les zones ou l'une d'elles sont nulles
+         */
+        private static <Z extends Zone> Set<Z> copyOf(Collection<Z> zones) {
+            if (zones instanceof ZoneSet<Z> zoneSet) {
+                return zoneSet;
+            }
+            Zone[] sorted = zones.toArray(new Zone[0]);
+            int maxId = -1;
+            for (Zone zone : sorted) {
+                int id = zone.id();
+                if (id < 0 || id >= MAX_ID) {
+                    return Set.copyOf(zones);
+                }
+                maxId = Math.max(maxId, id);
+            }
+            Arrays.sort(sorted, Comparator.comparingInt(Zone::id));
+            long[] bits = new long[maxId / Long.SIZE + 1];
+            int count = 0;
+            for (Zone zone : sorted) {
+                int id = zone.id();
+                if ((bits[id / Long.SIZE] & (1L << id)) != 0) {
+                    if (!zone.equals(sorted[count - 1])) {
+                        return Set.copyOf(zones);
+                    }
+                    continue;
+                }
+                bits[id / Long.SIZE] |= 1L << id;
+                sorted[count++] = zone;
+            }
+            return of(bits, count == sorted.length ? sorted : Arrays.copyOf(sorted, count));
+        }
+
+        /**
+         * retourne l'union (immuable) des ensembles de zones donnés ; si ce sont deux ensembles indexés sans zone
+         * commune, les bits sont réunis mot par mot et les zones interclassées selon les bits de l'union
+         * @param zones1 le premier ensemble
+         * @param zones2 le second ensemble
+         * @return l'union des deux ensembles
+         */
+        private static <Z extends Zone> Set<Z> union(Set<Z> zones1, Set<Z> zones2) {
+            if (zones1 instanceof ZoneSet<Z> set1 && zones2 instanceof ZoneSet<Z> set2 && set1.isDisjointFrom(set2)) {
+                long[] longer = set1.bits.length >= set2.bits.length ? set1.bits : set2.bits;
+                long[] shorter = longer == set1.bits ? set2.bits : set1.bits;
+                long[] bits = longer.clone();
+                for (int i = 0; i < shorter.length; i += 1) {
+                    bits[i] |= shorter[i];
+                }
+                Zone[] zones = new Zone[set1.zones.length + set2.zones.length];
+                int i1 = 0;
+                int i2 = 0;
+                for (int i = 0; i < zones.length; i += 1) {
+                    // les deux ensembles sont rangés par identifiant : on prend le plus petit des deux suivants
+                    if (i2 == set2.zones.length
+                            || i1 < set1.zones.length && set1.zones[i1].id() < set2.zones[i2].id()) {
+                        zones[i] = set1.zones[i1++];
+                    } else {
+                        zones[i] = set2.zones[i2++];
+                    }
+                }
+                // les statistiques s'additionnent, seuls les lacs communs aux deux ensembles de rivières étant
+                // retirés (une rivière ne touche au plus que deux lacs)
+                Zone.Lake[] riverLakes = set1.riverLakes;
+                int riverFish = set1.riverFish + set2.riverFish;
+                for (Zone.Lake lake : set2.riverLakes) {
+                    if (contains(riverLakes, lake)) {
+                        riverFish -= lake.fishCount();
+                    } else {
+                        riverLakes = Arrays.copyOf(riverLakes, riverLakes.length + 1);
+                        riverLakes[riverLakes.length - 1] = lake;
+                    }
+                }
+                return new ZoneSet<>(bits, zones, set1.mushroomGroups + set2.mushroomGroups,
+                        set1.menhirs + set2.menhirs, set1.lakes + set2.lakes, set1.waterFish + set2.waterFish,
+                        riverFish, riverLakes);
+            }
+            Set<Z> union = new HashSet<>(zones1);
+            union.addAll(zones2);
+            return copyOf(union);
+        }
+
+        /**
+         * retourne vrai ssi cet ensemble et celui donné n'ont aucun identifiant de zone en commun
+         */
+        private boolean isDisjointFrom(ZoneSet<?> that) {
+            for (int i = 0; i < Math.min(bits.length, that.bits.length); i += 1) {
+                if ((bits[i] & that.bits[i]) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * retourne le rang, parmi les zones de l'ensemble, de la zone d'identifiant donné, ou -1 s'il n'y en a pas
+         */
+        private int rank(int id) {
+            if (id < 0 || id / Long.SIZE >= bits.length || (bits[id / Long.SIZE] & (1L << id)) == 0) {
+                return -1;
+            }
+            int rank = Long.bitCount(bits[id / Long.SIZE] & ((1L << id) - 1));
+            for (int i = 0; i < id / Long.SIZE; i += 1) {
+                rank += Long.bitCount(bits[i]);
+            }
+            return rank;
+        }
+
+        /**
+         * retourne l'ensemble (non modifiable) des identités des tuiles des zones, calculé une seule fois
+         */
+        private Set<Integer> tileIds() {
+            if (tileIds == null) {
+                Set<Integer> ids = new HashSet<>();
+                int id = nextId(0);
+                while (id >= 0) {
+                    int tileId = id / ZONES_PER_TILE;
+                    ids.add(tileId);
+                    // les autres zones de la même tuile sont sautées
+                    id = nextId((tileId + 1) * ZONES_PER_TILE);
+                }
+                tileIds = Set.copyOf(ids);
+            }
+            return tileIds;
+        }
+
+        /**
+         * retourne l'ensemble (non modifiable) des animaux des prés de l'ensemble, calculé une seule fois
+         */
+        private Set<Animal> animals() {
+            if (animals == null) {
+                Set<Animal> all = new HashSet<>();
+                for (Zone zone : zones) {
+                    if (zone instanceof Zone.Meadow meadow) all.addAll(meadow.animals());
+                }
+                animals = Set.copyOf(all);
+            }
+            return animals;
+        }
+
+        /**
+         * retourne le plus petit identifiant de zone de l'ensemble supérieur ou égal à celui donné, ou -1
+         */
+        private int nextId(int from) {
+            int i = from / Long.SIZE;
+            if (i >= bits.length) {
+                return -1;
+            }
+            long word = bits[i] & (-1L << from);
+            while (word == 0) {
+                i += 1;
+                if (i == bits.length) {
+                    return -1;
+                }
+                word = bits[i];
+            }
+            return i * Long.SIZE + Long.numberOfTrailingZeros(word);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Zone zone)) {
+                return false;
+            }
+            int rank = rank(zone.id());
+            return rank >= 0 && (zones[rank] == zone || zones[rank].equals(zone));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Iterator<Z> iterator() {
+            return (Iterator<Z>) Collections.unmodifiableList(Arrays.asList(zones)).iterator();
+        }
+
+        @Override
+        public int size() {
+            return zones.length;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o instanceof ZoneSet<?> that) {
+                return Arrays.equals(this.zones, that.zones);
+            }
+            return super.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            if (hash == 0) {
+                hash = super.hashCode();
+            }
+            return hash;
+        }
+    }
+
+    /**
+     * OccupantList :
+     * liste immuable, triée par couleur, des occupants d'une aire, stockée sous la forme du nombre d'occupants
+     * de chaque couleur, compactés dans un seul entier de type long (BITS_PER_COLOR bits par couleur). Les
+     * éléments de la liste sont déduits de ces nombres à la demande ; réunir, ajouter ou retirer des occupants
+     * se fait par des additions sur l'entier compacté, sans copie ni tri. L'ensemble des occupants
+     * majoritaires est calculé une seule fois, sous la forme d'un masque d'un bit par couleur.
+     */
+    private static final class OccupantList extends AbstractList<PlayerColor> implements RandomAccess {
+        private static final int BITS_PER_COLOR = 12;
+        private static final int MAX_COUNT = (1 << BITS_PER_COLOR) - 1;
+        private static final OccupantList EMPTY = new OccupantList(0L, 0);
+
+        private final long counts;
+        private final int size;
+        // masque des couleurs majoritaires, calculé au besoin (-1 tant qu'il ne l'est pas)
+        private int majorityMask = -1;
+
+        /**
+         * crée la liste dont les nombres d'occupants compactés et le nombre total d'occupants sont donnés
+         */
+        private OccupantList(long counts, int size) {
+            this.counts = counts;
+            this.size = size;
+        }
+
+        /**
+         * retourne une liste immuable et triée des occupants donnés : la liste donnée elle-même si elle est déjà
+         * de ce type, sinon une nouvelle liste compactée, ou une liste ordinaire triée si une couleur est
+         * présente plus de MAX_COUNT fois
+         * @param occupants les occupants
+         * @return la liste immuable et triée des occupants
+         * @throws NullPointerException si la liste ou l'un des occupants est nul
+         */
+        private static List<PlayerColor> copyOf(List<PlayerColor> occupants) {
+            if (occupants instanceof OccupantList occupantList) {
+                return occupantList;
+            }
+            if (occupants.isEmpty()) {
+                return EMPTY;
+            }
+            int[] counts = new int[PlayerColor.ALL.size()];
+            for (PlayerColor color : occupants) {
+                counts[color.ordinal()] += 1;
+            }
+            long packed = 0;
+            for (int i = 0; i < counts.length; i += 1) {
+                if (counts[i] > MAX_COUNT) {
+                    List<PlayerColor> sorted = new ArrayList<>(occupants);
+                    Collections.sort(sorted);
+                    return List.copyOf(sorted);
+                }
+                packed |= (long) counts[i] << (i * BITS_PER_COLOR);
+            }
+            return new OccupantList(packed, occupants.size());
+        }
+
+        /**
+         * retourne la liste réunissant les occupants des deux listes données
+         * @param occupants1 la première liste
+         * @param occupants2 la seconde liste
+         * @return la liste immuable et triée réunissant leurs occupants
+         */
+        private static List<PlayerColor> union(List<PlayerColor> occupants1, List<PlayerColor> occupants2) {
+            if (occupants1.isEmpty()) return copyOf(occupants2);
+            if (occupants2.isEmpty()) return copyOf(occupants1);
+            if (occupants1 instanceof OccupantList list1 && occupants2 instanceof OccupantList list2) {
+                boolean fits = true;
+                for (PlayerColor color : PlayerColor.ALL) {
+                    fits &= list1.count(color) + list2.count(color) <= MAX_COUNT;
+                }
+                // aucun nombre ne déborde sur la couleur suivante : les nombres s'additionnent d'un bloc
+                if (fits) return new OccupantList(list1.counts + list2.counts, list1.size + list2.size);
+            }
+            List<PlayerColor> union = new ArrayList<>(occupants1);
+            union.addAll(occupants2);
+            return copyOf(union);
+        }
+
+        /**
+         * retourne le nombre d'occupants de la couleur donnée
+         */
+        private int count(PlayerColor color) {
+            return (int) (counts >>> (color.ordinal() * BITS_PER_COLOR)) & MAX_COUNT;
+        }
+
+        /**
+         * retourne la liste privée d'un occupant de la couleur donnée, qui doit y figurer
+         */
+        private OccupantList without(PlayerColor color) {
+            return new OccupantList(counts - (1L << (color.ordinal() * BITS_PER_COLOR)), size - 1);
+        }
+
+        /**
+         * retourne le masque des couleurs majoritaires (bit i pour la couleur d'ordinal i), nul si la liste est vide
+         */
+        private int majorityMask() {
+            if (majorityMask < 0) {
+                int max = 0;
+                int mask = 0;
+                for (PlayerColor color : PlayerColor.ALL) {
+                    int count = count(color);
+                    if (count > max) {
+                        max = count;
+                        mask = 0;
+                    }
+                    if (count == max && count > 0) {
+                        mask |= 1 << color.ordinal();
+                    }
+                }
+                majorityMask = mask;
+            }
+            return majorityMask;
+        }
+
+        @Override
+        public PlayerColor get(int index) {
+            Objects.checkIndex(index, size);
+            for (PlayerColor color : PlayerColor.ALL) {
+                index -= count(color);
+                if (index < 0) return color;
+            }
+            throw new AssertionError();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof PlayerColor color && count(color) > 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o instanceof OccupantList that) {
+                return this.counts == that.counts;
+            }
+            return super.equals(o);
+        }
+    }
+
     /**
      * retourne vrai si et seulement si la forêt donnée contient au moins un menhir
      * @param forest la forêt donnée
      * @return vrai si et seulement si la forêt donnée contient au moins un menhir
      */
     public static boolean hasMenhir(Area<Zone.Forest> forest) {
+        if (forest.zones() instanceof ZoneSet<?> zoneSet) {
+            return zoneSet.menhirs > 0;
+        }
         for (Zone.Forest zf: forest.zones()) {
           if(zf.kind()== Zone.Forest.Kind.WITH_MENHIR){
                 return true;
@@ -51,6 +492,9 @@ public record Area<Z extends Zone>(Set<Z> zones, List<PlayerColor> occupants, in
       * @return le nombre de groupes de champignons que contient la forêt donnée
       */
     public static int mushroomGroupCount(Area<Zone.Forest> forest){
+        if (forest.zones() instanceof ZoneSet<?> zoneSet) {
+            return zoneSet.mushroomGroups;
+        }
         int mushroomCount =0;
         for (Zone.Forest zf: forest.zones()) {
             if (zf.kind() != null && zf.kind().equals(Zone.Forest.Kind.WITH_MUSHROOMS)) {
@@ -67,6 +511,11 @@ public record Area<Z extends Zone>(Set<Z> zones, List<PlayerColor> occupants, in
       * @return l'ensemble des animaux se trouvant dans le pré donné mais qui ne font pas partie de l'ensemble des animaux annulés donné
       */
     public static Set<Animal> animals(Area<Zone.Meadow> meadow, Set<Animal> cancelledAnimals){
+        if (meadow.zones() instanceof ZoneSet<?> zoneSet) {
+            Set<Animal> animalSet = new HashSet<>(zoneSet.animals());
+            animalSet.removeAll(cancelledAnimals);
+            return animalSet;
+        }
         Set<Animal> animalSet= new HashSet<>();
         for (Zone.Meadow zf:  meadow.zones()) {
             for (Animal animal: zf.animals()){
@@ -84,6 +533,9 @@ public record Area<Z extends Zone>(Set<Z> zones, List<PlayerColor> occupants, in
       * @return le nombre de poissons nageant dans la rivière donnée ou dans l'un des éventuels lacs se trouvant à ses extrémités
       */
     public static int riverFishCount(Area<Zone.River> river){
+        if (river.zones() instanceof ZoneSet<?> zoneSet) {
+            return zoneSet.riverFish;
+        }
         int fishCount =0;
         Set<Zone.Lake> lakes = new HashSet<>();
         for (Zone.River rz: river.zones()) {
@@ -103,6 +555,9 @@ public record Area<Z extends Zone>(Set<Z> zones, List<PlayerColor> occupants, in
       * @return le nombre de poissons nageant dans le réseau hydrographique donné
       */
     public static int riverSystemFishCount(Area<Zone.Water> riverSystem){
+        if (riverSystem.zones() instanceof ZoneSet<?> zoneSet) {
+            return zoneSet.waterFish;
+        }
         int fishcount = 0;
         for (Zone.Water zf: riverSystem.zones()){
             fishcount+= zf.fishCount();
@@ -117,6 +572,9 @@ public record Area<Z extends Zone>(Set<Z> zones, List<PlayerColor> occupants, in
       * @return le nombre de lacs du réseau hydrographique donné
       */
     public static int lakeCount(Area<Zone.Water> riverSystem){
+        if (riverSystem.zones() instanceof ZoneSet<?> zoneSet) {
+            return zoneSet.lakes;
+        }
         int lakeCount = 0;
         for (Zone.Water zf: riverSystem.zones()){
             if (zf instanceof Zone.Lake){
@@ -126,6 +584,23 @@ public record Area<Z extends Zone>(Set<Z> zones, List<PlayerColor> occupants, in
         return  lakeCount;
     }
 
+     /**
+      * retourne le plus petit identifiant des zones de l'aire donnée, qui identifie l'aire parmi celles d'une
+      * même partition (leurs zones étant disjointes) ; il est lu en O(1) lorsque les zones sont indexées
+      * @param area: l'aire, qui doit contenir au moins une zone
+      * @return le plus petit identifiant de ses zones
+      */
+    static int firstZoneId(Area<?> area) {
+        if (area.zones() instanceof ZoneSet<?> zoneSet && zoneSet.zones.length > 0) {
+            return zoneSet.zones[0].id();
+        }
+        int firstId = Integer.MAX_VALUE;
+        for (Zone zone : area.zones()) {
+            firstId = Math.min(firstId, zone.id());
+        }
+        return firstId;
+    }
+
      /**
       * retourne vrai si et seulement si (ssi) l'aire est fermée
       * @return  vrai si et seulement si (ssi) l'aire est fermée
@@ -147,27 +622,28 @@ public record Area<Z extends Zone>(Set<Z> zones, List<PlayerColor> occupants, in
       * @return l'ensemble des occupants majoritaires de l'aire
       */
     public Set<PlayerColor> majorityOccupants(){
-        if (!this.occupants.isEmpty()) {
-            int[] ordinalofColorOfPLayersArray = {0, 0, 0, 0, 0};
-            for (PlayerColor o: this.occupants()) {
-                ordinalofColorOfPLayersArray[o.ordinal()]++;
-            }
-            int maximumElement = ordinalofColorOfPLayersArray[0];
-            for (int i = 0; i < ordinalofColorOfPLayersArray.length; i++) {
-                if (ordinalofColorOfPLayersArray[i] > maximumElement) {
-                    maximumElement = ordinalofColorOfPLayersArray[i];
-                }
-            }
-            Set<PlayerColor> majorityOccupantColorSet = new HashSet<>();
-            for (int a = 0; a < ordinalofColorOfPLayersArray.length; a++) {
-                if (ordinalofColorOfPLayersArray[a] == maximumElement) {
-                    majorityOccupantColorSet.add(PlayerColor.ALL.get(a));
+        Set<PlayerColor> majorityOccupantColorSet = EnumSet.noneOf(PlayerColor.class);
+        if (occupants instanceof OccupantList occupantList) {
+            // masque calculé une seule fois par liste d'occupants
+            int mask = occupantList.majorityMask();
+            for (PlayerColor color : PlayerColor.ALL) {
+                if ((mask & (1 << color.ordinal())) != 0) {
+                    majorityOccupantColorSet.add(color);
                 }
             }
             return majorityOccupantColorSet;
-        } else {
-            return new HashSet<>();
         }
+        int[] ordinalofColorOfPLayersArray = new int[PlayerColor.ALL.size()];
+        int maximumElement = 0;
+        for (PlayerColor o: this.occupants()) {
+            maximumElement = Math.max(maximumElement, ++ordinalofColorOfPLayersArray[o.ordinal()]);
+        }
+        for (int a = 0; a < ordinalofColorOfPLayersArray.length; a++) {
+            if (maximumElement > 0 && ordinalofColorOfPLayersArray[a] == maximumElement) {
+                majorityOccupantColorSet.add(PlayerColor.ALL.get(a));
+            }
+        }
+        return majorityOccupantColorSet;
     }
 
 
@@ -179,13 +655,11 @@ public record Area<Z extends Zone>(Set<Z> zones, List<PlayerColor> occupants, in
     public Area<Z> connectTo(Area<Z> that){
         if(this==that) return new Area<>(this.zones,this.occupants,this.openConnections-2);
 
-        Set<Z> biggerAreaZones=new HashSet<>();
-        biggerAreaZones.addAll(this.zones);
-        biggerAreaZones.addAll(that.zones);
+        // union des zones mot par mot sur leurs bits (voir ZoneSet)
+        Set<Z> biggerAreaZones=ZoneSet.union(this.zones, that.zones);
 
-        List<PlayerColor> biggerAreaOccupants=new ArrayList<>();
-        biggerAreaOccupants.addAll(this.occupants);
-        biggerAreaOccupants.addAll(that.occupants);
+        // les nombres d'occupants de chaque couleur s'additionnent (voir OccupantList)
+        List<PlayerColor> biggerAreaOccupants=OccupantList.union(this.occupants, that.occupants);
 
         return new Area<>(biggerAreaZones,biggerAreaOccupants,this.openConnections+that.openConnections-2);
     }
@@ -200,9 +674,7 @@ public record Area<Z extends Zone>(Set<Z> zones, List<PlayerColor> occupants, in
         if (!this.occupants.isEmpty()){
             throw new IllegalArgumentException();
         }
-        List<PlayerColor> initialOccupant = new ArrayList<>();
-        initialOccupant.add(occupant);
-        return new Area<>(this.zones,initialOccupant,this.openConnections);
+        return new Area<>(this.zones,List.of(occupant),this.openConnections);
     }
 
      /**
@@ -215,6 +687,9 @@ public record Area<Z extends Zone>(Set<Z> zones, List<PlayerColor> occupants, in
         if (!this.occupants.contains(occupant)){
             throw new IllegalArgumentException();
         }
+        if (this.occupants instanceof OccupantList occupantList) {
+            return new Area<>(this.zones,occupantList.without(occupant),this.openConnections);
+        }
         List<PlayerColor> newPlayerColors = new ArrayList<>();
         int i =0;
         for (PlayerColor color: this.occupants) {
@@ -233,20 +708,22 @@ public record Area<Z extends Zone>(Set<Z> zones, List<PlayerColor> occupants, in
       * @return une aire identique au récepteur, mais totalement dénuée d'occupants
       */
     public Area<Z> withoutOccupants(){
-        List<PlayerColor> emptyOccupants = new ArrayList<>();
-        return new Area<>(this.zones,emptyOccupants,this.openConnections);
+        return new Area<>(this.zones,OccupantList.EMPTY,this.openConnections);
     }
 
      /**
-      * retourne l'ensemble de l'identité des tuiles contenant l'aire
+      * retourne l'ensemble (non modifiable) de l'identité des tuiles contenant l'aire
       * @return l'ensemble de l'identité des tuiles contenant l'aire
       */
     public Set<Integer> tileIds(){
+        if (zones instanceof ZoneSet<Z> zoneSet) {
+            return zoneSet.tileIds();
+        }
         Set<Integer> tileIds = new HashSet<>();
         for(Z zone: zones){
             tileIds.add(zone.tileId());
         }
-        return tileIds;
+        return Set.copyOf(tileIds);
     }
 
      /**
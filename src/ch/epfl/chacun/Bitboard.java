@@ -0,0 +1,270 @@
+package ch.epfl.chacun;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Bitboard :
+ * ensemble immuable de cases du plateau borné (de portée Board.REACH), représenté par 625 bits répartis dans
+ * 10 entiers de type long. Les cases sont numérotées colonne par colonne (d'abord par x, puis par y), de sorte
+ * que parcourir les bits dans l'ordre croissant parcourt les positions dans l'ordre utilisé par ActionEncoder.
+ * Les voisines de toutes les cases d'un ensemble s'obtiennent par quelques décalages et masques, sans boucle
+ * sur les cases ni sur les directions.
+ *
+ * @author Rayan Berrada (378940)
+ * @author Jens Cancio (379510)
+ */
+final class Bitboard {
+    // nombre de cases d'une colonne (ou d'une ligne) du plateau
+    private static final int SIZE = 2 * Board.REACH + 1;
+    private static final int BIT_COUNT = SIZE * SIZE;
+    private static final int WORDS = (BIT_COUNT + Long.SIZE - 1) / Long.SIZE;
+    // toutes les cases du plateau, et les cases de la première (y = -REACH) et de la dernière (y = REACH) ligne
+    private static final long[] ALL = mask(0, 1);
+    private static final long[] FIRST_ROW = mask(0, SIZE);
+    private static final long[] LAST_ROW = mask(SIZE - 1, SIZE);
+
+    // la position de chaque case, partagée par tous les ensembles pour qu'aucun parcours n'en alloue
+    private static final Pos[] POSITIONS = new Pos[BIT_COUNT];
+    static {
+        for (int i = 0; i < BIT_COUNT; i += 1) {
+            POSITIONS[i] = new Pos(x(i), y(i));
+        }
+    }
+
+    static final Bitboard EMPTY = new Bitboard(new long[WORDS]);
+
+    private final long[] words;
+
+    /**
+     * crée l'ensemble de bits donnés, qui ne doivent plus être modifiés
+     * @param words les bits de l'ensemble
+     */
+    private Bitboard(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * retourne les bits des cases d'index first, first + step, first + 2 * step, etc.
+     * @param first l'index de la première case
+     * @param step l'écart entre deux cases
+     * @return les bits de ces cases
+     */
+    private static long[] mask(int first, int step) {
+        long[] mask = new long[WORDS];
+        for (int i = first; i < BIT_COUNT; i += step) {
+            mask[i / Long.SIZE] |= 1L << i;
+        }
+        return mask;
+    }
+
+    /**
+     * retourne l'index de la case de position donnée, qui doit être à la portée Board.REACH
+     * @param pos la position
+     * @return l'index de la case
+     */
+    static int index(Pos pos) {
+        return index(pos.x(), pos.y());
+    }
+
+    /**
+     * retourne l'index de la case de position compactée donnée (voir Pos.pack), qui doit être à la portée
+     * Board.REACH
+     * @param pos la position compactée
+     * @return l'index de la case
+     */
+    static int index(int pos) {
+        return index(Pos.packedX(pos), Pos.packedY(pos));
+    }
+
+    private static int index(int x, int y) {
+        return (x + Board.REACH) * SIZE + y + Board.REACH;
+    }
+
+    /**
+     * retourne la coordonnée x de la case d'index donné
+     * @param index l'index de la case
+     * @return sa coordonnée x
+     */
+    static int x(int index) {
+        return index / SIZE - Board.REACH;
+    }
+
+    /**
+     * retourne la coordonnée y de la case d'index donné
+     * @param index l'index de la case
+     * @return sa coordonnée y
+     */
+    static int y(int index) {
+        return index % SIZE - Board.REACH;
+    }
+
+    /**
+     * retourne la position (partagée) de la case d'index donné
+     * @param index l'index de la case
+     * @return sa position
+     */
+    static Pos pos(int index) {
+        return POSITIONS[index];
+    }
+
+    /**
+     * retourne la position compactée (voir Pos.pack) de la case d'index donné
+     * @param index l'index de la case
+     * @return sa position compactée
+     */
+    static int packed(int index) {
+        return Pos.pack(x(index), y(index));
+    }
+
+    /**
+     * retourne vrai ssi l'ensemble contient la case d'index donné
+     * @param index l'index de la case
+     * @return vrai ssi l'ensemble contient la case
+     */
+    boolean contains(int index) {
+        return (words[index / Long.SIZE] & (1L << index)) != 0;
+    }
+
+    /**
+     * retourne un ensemble identique à celui-ci, si ce n'est qu'il contient la case d'index donné
+     * @param index l'index de la case
+     * @return le nouvel ensemble
+     */
+    Bitboard with(int index) {
+        long[] newWords = words.clone();
+        newWords[index / Long.SIZE] |= 1L << index;
+        return new Bitboard(newWords);
+    }
+
+    /**
+     * retourne l'ensemble des cases qui ne sont pas dans celui-ci mais dont au moins une voisine y est ; pour
+     * l'ensemble des cases occupées, c'est la frange du plateau
+     * @return la frange de l'ensemble
+     */
+    Bitboard fringe() {
+        // cases ayant une voisine d'index + 1 (resp. - 1) dans la même colonne
+        long[] belowLastRow = new long[WORDS];
+        long[] aboveFirstRow = new long[WORDS];
+        for (int i = 0; i < WORDS; i += 1) {
+            belowLastRow[i] = words[i] & ~LAST_ROW[i];
+            aboveFirstRow[i] = words[i] & ~FIRST_ROW[i];
+        }
+        long[] fringe = new long[WORDS];
+        for (int i = 0; i < WORDS; i += 1) {
+            long neighbors = shiftedUp(belowLastRow, i, 1) | shiftedDown(aboveFirstRow, i, 1)
+                    | shiftedUp(words, i, SIZE) | shiftedDown(words, i, SIZE);
+            fringe[i] = neighbors & ~words[i] & ALL[i];
+        }
+        return new Bitboard(fringe);
+    }
+
+    /**
+     * retourne le mot d'index donné des bits donnés décalés vers les index supérieurs
+     * @param bits les bits
+     * @param i l'index du mot
+     * @param n le décalage, compris entre 1 et 63
+     * @return le mot décalé
+     */
+    private static long shiftedUp(long[] bits, int i, int n) {
+        return bits[i] << n | (i > 0 ? bits[i - 1] >>> (Long.SIZE - n) : 0);
+    }
+
+    /**
+     * retourne le mot d'index donné des bits donnés décalés vers les index inférieurs
+     * @param bits les bits
+     * @param i l'index du mot
+     * @param n le décalage, compris entre 1 et 63
+     * @return le mot décalé
+     */
+    private static long shiftedDown(long[] bits, int i, int n) {
+        return bits[i] >>> n | (i < WORDS - 1 ? bits[i + 1] << (Long.SIZE - n) : 0);
+    }
+
+    /**
+     * retourne le nombre de cases de l'ensemble
+     * @return le nombre de cases
+     */
+    int size() {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    /**
+     * retourne l'index de la première case de l'ensemble dont l'index est supérieur ou égal à celui donné,
+     * ou -1 s'il n'y en a aucune
+     * @param from l'index à partir duquel chercher
+     * @return l'index de la case, ou -1
+     */
+    int nextIndex(int from) {
+        if (from >= BIT_COUNT) {
+            return -1;
+        }
+        int i = from / Long.SIZE;
+        long word = words[i] & (-1L << from);
+        while (word == 0) {
+            i += 1;
+            if (i == WORDS) {
+                return -1;
+            }
+            word = words[i];
+        }
+        return i * Long.SIZE + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * retourne les positions compactées (voir Pos.pack) des cases de l'ensemble, triées d'abord par x, puis par y
+     * @return le tableau des positions compactées
+     */
+    int[] packedPositions() {
+        int[] positions = new int[size()];
+        int count = 0;
+        for (int i = nextIndex(0); i >= 0; i = nextIndex(i + 1)) {
+            positions[count++] = packed(i);
+        }
+        return positions;
+    }
+
+    /**
+     * retourne les positions (partagées) des cases de l'ensemble, triées d'abord par x, puis par y
+     * @return la liste (non modifiable) des positions
+     */
+    List<Pos> positions() {
+        Pos[] positions = new Pos[size()];
+        int count = 0;
+        for (int i = nextIndex(0); i >= 0; i = nextIndex(i + 1)) {
+            positions[count++] = POSITIONS[i];
+        }
+        return List.of(positions);
+    }
+
+    /**
+     * retourne un itérateur sur les positions (partagées) des cases de l'ensemble, triées d'abord par x, puis
+     * par y, qui parcourt les bits au fur et à mesure sans rien allouer d'autre que lui-même
+     * @return un itérateur sur les positions
+     */
+    Iterator<Pos> iterator() {
+        return new Iterator<>() {
+            private int next = nextIndex(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public Pos next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                Pos pos = POSITIONS[next];
+                next = nextIndex(next + 1);
+                return pos;
+            }
+        };
+    }
+}
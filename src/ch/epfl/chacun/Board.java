@@ -1,6 +1,7 @@
 package ch.epfl.chacun;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Board :
@@ -13,50 +14,304 @@ import java.util.*;
 public class Board {
     // portée du plateau, qui est le nombre de cases qui séparent la case centrale de l'un des bords du plateau, soit 12
     public static final int REACH = 12;
-    // numero de champs (625)
-    private static final int numberFields = (REACH * 2 + 1) * (REACH * 2 + 1);
+    // portée du plateau non borné : la plus grande qui permette de compacter les positions (voir Pos.pack), soit
+    // plus d'un milliard de cases
+    private static final int UNBOUNDED_REACH = Short.MAX_VALUE;
+    // nombre de sortes d'occupants, pour l'index des compteurs d'occupants
+    private static final int OCCUPANT_KINDS = Occupant.Kind.values().length;
+    // masque des bits d'une direction dans une signature de côtés
+    private static final int SIDE_MASK = 0b11;
+    // décalage du masque des côtés contraints dans une contrainte de case
+    private static final int MASK_SHIFT = 8;
     // le plateau vide, qui ne contient absolument aucune tuile, même pas celle de départ:
-    public static final Board EMPTY = new Board(new PlacedTile[numberFields], new int[0], ZonePartitions.EMPTY,
-            Collections.emptySet());
-    private final PlacedTile[] placedTiles;
-    private final int[] indexPlacedTiles;
+    public static final Board EMPTY = empty(REACH);
+    // le plateau vide non borné, qui peut s'étendre dans toutes les directions (p. ex. pour des variantes utilisant
+    // plus de tuiles) et offre les mêmes opérations que EMPTY
+    public static final Board EMPTY_UNBOUNDED = empty(UNBOUNDED_REACH);
+    // portée de ce plateau (REACH ou UNBOUNDED_REACH)
+    private final int reach;
+    // tuiles placées, indexées par leur position compactée (voir pack)
+    private final IntMap<PlacedTile> placedTiles;
+    // positions des tuiles dans l'ordre de pose, la dernière en tête ; null si le plateau est vide
+    private final Placement lastPlacement;
+    // tuile placée de chaque identifiant (null si elle n'est pas sur le plateau) ; les identifiants étant bornés
+    // par la taille du catalogue et non par celle du plateau, la table est dense, et copiée à chaque modification
+    private final PlacedTile[] tilesById;
     private final ZonePartitions zonePartitions;
     private final Set<Animal> cancelledAnimals;
+    // cases occupées et frange (positions d'insertion) du plateau borné, sous forme d'ensembles de bits ; null
+    // pour le plateau non borné
+    private final Bitboard occupancy;
+    private final Bitboard fringe;
+    // la frange du plateau non borné, indexée par position compactée et maintenue incrémentalement par
+    // withNewTile (vide pour le plateau borné), ainsi que la vue de la frange sous forme d'ensemble
+    private final IntMap<Pos> insertionPositions;
+    private final Set<Pos> insertionPositionSet;
+    // positions d'insertion triées (voir orderedInsertionPositions), calculées au premier appel
+    private List<Pos> orderedInsertionPositions;
+    // contrainte de chaque case de la frange : sortes de côtés exigées (bits 0 à 7) et masque des côtés contraints
+    // par une voisine (bits 8 à 15), au format de Tile.sideSignature ; une case qui reçoit une tuile est retirée
+    private final IntIntMap sideRequirements;
+    // clef de Zobrist du plateau (tuiles placées, occupants et animaux annulés), maintenue incrémentalement
+    private final long zobristKey;
+    // aires forêts et rivières fermées par la dernière tuile, calculées une seule fois par withNewTile puis mises à
+    // jour lorsque leurs occupants changent
+    private final Set<Area<Zone.Forest>> closedForests;
+    private final Set<Area<Zone.River>> closedRivers;
+    // occupants du plateau, indexés par l'identifiant de leur zone (une zone a au plus un occupant), et leur vue
+    // sous forme d'ensemble, ainsi que le nombre d'occupants de chaque sorte posés par chaque joueur (à l'index
+    // joueur * OCCUPANT_KINDS + sorte), maintenus à chaque ajout ou retrait d'occupant
+    private final IntMap<Occupant> occupants;
+    private final Set<Occupant> occupantSet;
+    private final int[] occupantCounts;
+    // projection des points de fin de partie, obtenue avant la construction du plateau à partir de celle du
+    // plateau d'origine, en remplaçant les aires modifiées
+    private final ScoreProjection projection;
+
+    /**
+     * Placement :
+     * maillon de la liste (persistante) des positions des tuiles, de la dernière posée à la première
+     *
+     * @param pos: la position de la tuile
+     * @param previous: le maillon de la tuile posée juste avant, ou null
+     */
+    private record Placement(Pos pos, Placement previous) {}
+
+    /**
+     * PositionSet :
+     * vue non modifiable, sous forme d'ensemble, des positions d'une table indexée par position compactée
+     */
+    private static final class PositionSet extends AbstractSet<Pos> {
+        private final IntMap<Pos> positions;
+        private final int reach;
+
+        private PositionSet(IntMap<Pos> positions, int reach) {
+            this.positions = positions;
+            this.reach = reach;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Pos pos && inReach(pos, reach) && positions.get(pos.packed()) != null;
+        }
+
+        @Override
+        public Iterator<Pos> iterator() {
+            return positions.values();
+        }
+
+        @Override
+        public int size() {
+            return positions.size();
+        }
+    }
+
+    /**
+     * OccupantSet :
+     * vue non modifiable, sous forme d'ensemble, des occupants d'une table indexée par identifiant de zone
+     */
+    private static final class OccupantSet extends AbstractSet<Occupant> {
+        private final IntMap<Occupant> occupants;
+
+        private OccupantSet(IntMap<Occupant> occupants) {
+            this.occupants = occupants;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Occupant occupant && occupant.equals(occupants.get(occupant.zoneId()));
+        }
+
+        @Override
+        public Iterator<Occupant> iterator() {
+            return occupants.values();
+        }
+
+        @Override
+        public int size() {
+            return occupants.size();
+        }
+    }
+
+    /**
+     * FringeSet :
+     * vue non modifiable, sous forme d'ensemble, de la frange du plateau borné
+     */
+    private static final class FringeSet extends AbstractSet<Pos> {
+        private final Bitboard fringe;
+        private final int size;
+
+        private FringeSet(Bitboard fringe) {
+            this.fringe = fringe;
+            this.size = fringe.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Pos pos && inReach(pos, REACH) && fringe.contains(Bitboard.index(pos));
+        }
+
+        @Override
+        public Iterator<Pos> iterator() {
+            return fringe.iterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
 
     /**
      * Constructeur de la classe Board
      *
-     * @param placedTiles:      tableau de tuiles placées
-     * @param indexPlacedTiles: tableau d'entiers contenant les index, dans le premier tableau
+     * @param reach: la portée du plateau
+     * @param placedTiles: les tuiles placées, indexées par position compactée
+     * @param lastPlacement: les positions des tuiles dans l'ordre de pose, la dernière en tête
+     * @param tilesById: la tuile placée de chaque identifiant (jamais modifiée une fois partagée)
      * @param zonePartitions:   instance de ZonePartitions, dont le contenu correspond à celui du plateau
      * @param cancelledAnimals: l'ensemble des animaux annulés
+     * @param occupancy: les cases occupées du plateau borné, ou null
+     * @param fringe: la frange du plateau borné, ou null
+     * @param insertionPositions: les positions d'insertion du plateau non borné, indexées par position compactée
+     * @param sideRequirements: les contraintes de côtés des cases de la frange, indexées par position compactée
+     * @param zobristKey: la clef de Zobrist du plateau
+     * @param closedForests: les aires forêts (non modifiables) fermées par la dernière tuile
+     * @param closedRivers: les aires rivières (non modifiables) fermées par la dernière tuile
+     * @param occupants: les occupants du plateau, indexés par identifiant de zone
+     * @param occupantCounts: le nombre d'occupants de chaque sorte de chaque joueur (jamais modifié une fois partagé)
+     * @param projection: la projection des points de fin de partie du plateau
      */
-    private Board(PlacedTile[] placedTiles, int[] indexPlacedTiles, ZonePartitions zonePartitions,
-                  Set<Animal> cancelledAnimals) {
+    private Board(int reach, IntMap<PlacedTile> placedTiles, Placement lastPlacement, PlacedTile[] tilesById,
+                  ZonePartitions zonePartitions, Set<Animal> cancelledAnimals, Bitboard occupancy,
+                  Bitboard fringe, IntMap<Pos> insertionPositions, IntIntMap sideRequirements, long zobristKey, Set<Area<Zone.Forest>> closedForests,
+                  Set<Area<Zone.River>> closedRivers, IntMap<Occupant> occupants, int[] occupantCounts,
+                  ScoreProjection projection) {
+        this.reach = reach;
         this.placedTiles = placedTiles;
-        this.indexPlacedTiles = indexPlacedTiles;
+        this.lastPlacement = lastPlacement;
+        this.tilesById = tilesById;
         this.zonePartitions = zonePartitions;
         this.cancelledAnimals = cancelledAnimals;
+        this.occupancy = occupancy;
+        this.fringe = fringe;
+        this.insertionPositions = insertionPositions;
+        this.insertionPositionSet = fringe == null
+                ? new PositionSet(insertionPositions, reach)
+                : new FringeSet(fringe);
+        this.sideRequirements = sideRequirements;
+        this.zobristKey = zobristKey;
+        this.closedForests = closedForests;
+        this.closedRivers = closedRivers;
+        this.occupants = occupants;
+        this.occupantSet = new OccupantSet(occupants);
+        this.occupantCounts = occupantCounts;
+        this.projection = projection;
+    }
+
+    /**
+     * retourne le plateau vide de portée donnée
+     *
+     * @param reach: la portée du plateau
+     * @return le plateau vide
+     */
+    private static Board empty(int reach) {
+        Bitboard cells = reach == REACH ? Bitboard.EMPTY : null;
+        return new Board(reach, IntMap.empty(), null, new PlacedTile[Tiles.TILES.size()], ZonePartitions.EMPTY,
+                Collections.emptySet(), cells, cells, IntMap.empty(), IntIntMap.EMPTY, 0L, Set.of(), Set.of(),
+                IntMap.empty(), new int[PlayerColor.ALL.size() * OCCUPANT_KINDS], ScoreProjection.EMPTY);
+    }
+
+    /**
+     * retourne un plateau identique au récepteur, si ce n'est que ses tuiles placées, ses occupants et les
+     * attributs qui en dépendent sont ceux donnés ; seules les aires de la zone donnée (si elle n'est pas nulle)
+     * sont réévaluées dans la projection des points de fin de partie
+     */
+    private Board withOccupants(IntMap<PlacedTile> newPlacedTiles, PlacedTile[] newTilesById,
+                                ZonePartitions newZonePartitions, long newZobristKey, IntMap<Occupant> newOccupants,
+                                int[] newOccupantCounts, Zone changedZone) {
+        ScoreProjection newProjection = projection;
+        if (changedZone != null) {
+            ScoreProjection.Builder projectionBuilder = new ScoreProjection.Builder(projection);
+            removeProjectedAreas(projectionBuilder, List.of(changedZone));
+            newProjection = projectedWith(projectionBuilder, newZonePartitions, cancelledAnimals, newTilesById,
+                    List.of(changedZone));
+        }
+        return new Board(reach, newPlacedTiles, lastPlacement, newTilesById, newZonePartitions,
+                cancelledAnimals, occupancy, fringe, insertionPositions, sideRequirements, newZobristKey,
+                currentAreas(closedForests, newZonePartitions.forests()),
+                currentAreas(closedRivers, newZonePartitions.rivers()),
+                newOccupants, newOccupantCounts, newProjection);
+    }
+
+    /**
+     * retire de la projection en cours de construction les prés et réseaux hydrographiques du récepteur
+     * contenant l'une des zones données, que la transition en cours remplace
+     *
+     * @param projectionBuilder: le bâtisseur de la projection du nouveau plateau
+     * @param zones: les zones dont les aires sont remplacées
+     */
+    private void removeProjectedAreas(ScoreProjection.Builder projectionBuilder, List<? extends Zone> zones) {
+        for (Zone zone : zones) {
+            switch (zone) {
+                case Zone.Meadow meadow -> projectionBuilder.remove(meadowArea(meadow));
+                case Zone.Water water -> projectionBuilder.remove(riverSystemArea(water));
+                default -> { }
+            }
+        }
+    }
+
+    /**
+     * ajoute à la projection en cours de construction les prés et réseaux hydrographiques du nouveau plateau
+     * contenant l'une des zones données, et retourne la projection obtenue ; le nouveau plateau n'étant pas encore
+     * construit, ses partitions, ses animaux annulés et ses tuiles sont donnés
+     *
+     * @param projectionBuilder: le bâtisseur de la projection du nouveau plateau
+     * @param zonePartitions: les partitions du nouveau plateau
+     * @param cancelledAnimals: les animaux annulés du nouveau plateau
+     * @param tilesById: les tuiles placées du nouveau plateau, indexées par identifiant
+     * @param zones: les zones dont les aires ont été créées ou modifiées
+     * @return la projection du nouveau plateau
+     */
+    private static ScoreProjection projectedWith(ScoreProjection.Builder projectionBuilder,
+                                                 ZonePartitions zonePartitions, Set<Animal> cancelledAnimals,
+                                                 PlacedTile[] tilesById, Iterable<? extends Zone> zones) {
+        for (Zone zone : zones) {
+            switch (zone) {
+                case Zone.Meadow meadow -> projectionBuilder.addMeadow(
+                        zonePartitions.meadows().areaContaining(meadow), cancelledAnimals, tilesById);
+                case Zone.Water water -> projectionBuilder.addRiverSystem(
+                        zonePartitions.riverSystems().areaContaining(water));
+                default -> { }
+            }
+        }
+        return projectionBuilder.build();
     }
 
     /**
-     * retourne l'index dans le tableau de tuiles placées pour la position pos
+     * retourne la clef de Zobrist du plateau, qui ne dépend que des tuiles placées (tuile, placeur, rotation,
+     * position), de leurs occupants et des animaux annulés ; deux plateaux égaux ont la même clef
      *
-     * @param pos: la position
-     * @return l'index dans le tableau de tuiles placées
+     * @return la clef de Zobrist du plateau
      */
-    private int pos2Index(Pos pos) {
-        return (pos.y() + REACH) * (REACH * 2 + 1) + pos.x() + REACH;
+    public long zobristKey() {
+        return zobristKey;
     }
 
     /**
-     * retourne la position pour l'index dans le tableau de tuiles placées donnée
+     * returne vrai ssi la position est à la portée donnée de la case centrale
      *
-     * @param index : l'index donnée
-     * @return position pour l'index dans le tableau de tuiles placées donnée
+     * @param pos la position donnée
+     * @param reach la portée
+     * @return vrai ssi la position est à la portée donnée
      */
-    private Pos index2Pos(int index) {
-        return new Pos(index % (REACH * 2 + 1) - REACH, index / (REACH * 2 + 1) - REACH);
+    private static boolean inReach(Pos pos, int reach) {
+        return inReach(pos.x(), pos.y(), reach);
+    }
+
+    private static boolean inReach(int x, int y, int reach) {
+        return (y >= -reach && y <= reach &&
+                x >= -reach && x <= reach);
     }
 
     /**
@@ -66,8 +321,11 @@ public class Board {
      * @return vrai ssi la position est dans le tableau
      */
     private boolean posInBoard(Pos pos) {
-        return (pos.y() >= -REACH && pos.y() <= REACH &&
-                pos.x() >= -REACH && pos.x() <= REACH);
+        return inReach(pos, reach);
+    }
+
+    private boolean posInBoard(int pos) {
+        return inReach(Pos.packedX(pos), Pos.packedY(pos), reach);
     }
 
     /**
@@ -77,10 +335,21 @@ public class Board {
      * @return la tuile à la position donnée, ou null s'il n'y en a aucune ou si la position se trouve hors du plateau
      */
     public PlacedTile tileAt(Pos pos) {
-        if (posInBoard(pos)) {
-            return placedTiles[pos2Index(pos)];
+        return posInBoard(pos) ? tileAt(pos.packed()) : null;
+    }
+
+    /**
+     * retourne la tuile à la position compactée donnée (voir Pos.pack), ou null s'il n'y en a aucune ou si la
+     * position se trouve hors du plateau ; cette variante évite d'allouer des positions dans les boucles
+     *
+     * @param pos: la position compactée donnée
+     * @return la tuile à la position donnée, ou null s'il n'y en a aucune ou si la position se trouve hors du plateau
+     */
+    public PlacedTile tileAt(int pos) {
+        if (!posInBoard(pos) || occupancy != null && !occupancy.contains(Bitboard.index(pos))) {
+            return null;
         }
-        return null;
+        return placedTiles.get(pos);
     }
 
     /**
@@ -91,12 +360,22 @@ public class Board {
      * @throws IllegalArgumentException si cette tuile ne se trouve pas sur le plateau,
      */
     public PlacedTile tileWithId(int tileId) {
-        for (PlacedTile placedTile : placedTiles) {
-            if (placedTile != null && placedTile.id() == tileId) {
-                return placedTile;
-            }
-        }
-        throw new IllegalArgumentException();
+        PlacedTile tile = tileId >= 0 && tileId < tilesById.length ? tilesById[tileId] : null;
+        Preconditions.checkArgument(tile != null);
+        return tile;
+    }
+
+    /**
+     * retourne une copie de la table des tuiles par identifiant, dans laquelle la tuile donnée remplace celle de
+     * même identifiant (la table est agrandie si l'identifiant dépasse le catalogue)
+     *
+     * @param tile: la tuile placée
+     * @return la nouvelle table
+     */
+    private PlacedTile[] tilesByIdWith(PlacedTile tile) {
+        PlacedTile[] newTilesById = Arrays.copyOf(tilesById, Math.max(tilesById.length, tile.id() + 1));
+        newTilesById[tile.id()] = tile;
+        return newTilesById;
     }
 
     /**
@@ -109,18 +388,13 @@ public class Board {
     }
 
     /**
-     * retourne la totalité des occupants se trouvant sur les tuiles du plateau
+     * retourne la totalité des occupants se trouvant sur les tuiles du plateau (maintenue lors de chaque ajout ou
+     * retrait d'occupant, cette méthode ne fait donc aucun calcul)
      *
      * @return la totalité des occupants se trouvant sur les tuiles du plateau
      */
     public Set<Occupant> occupants() {
-        Set<Occupant> occupants = new HashSet<>();
-        for (PlacedTile placedTile : placedTiles) {
-            if (placedTile != null && placedTile.occupant() != null) {
-                occupants.add(placedTile.occupant());
-            }
-        }
-        return occupants;
+        return occupantSet;
     }
 
 
@@ -197,9 +471,8 @@ public class Board {
         Set<Zone.Meadow> adjacentMeadowZones = new HashSet<>();
         for (int ix = pos.x() - 1; ix <= pos.x() + 1; ix++) {       // chercher toutes les positions entourant "pos"
             for (int iy = pos.y() - 1; iy <= pos.y() + 1; iy++) {
-                Pos tempPos = new Pos(ix, iy);
-                if (posInBoard(tempPos)) { // ignorer positions hors plateau
-                    PlacedTile pt = tileAt(tempPos);
+                if (inReach(ix, iy, reach)) { // ignorer positions hors plateau
+                    PlacedTile pt = tileAt(Pos.pack(ix, iy));
                     if (pt != null) { // ssi il y a un PlacedTile posé à cet emplacement
                         for (Zone.Meadow mZone : pt.meadowZones()) {  // pour toutes les meadows dans le PlacedTile:
                             if (areaMeadow.zones().contains(mZone)) { // sont-ils dans le Area?
@@ -214,6 +487,17 @@ public class Board {
         return new Area<>(adjacentMeadowZones, areaMeadow.occupants(), 0);
     }
 
+    /**
+     * retourne les points que rapporteraient à chaque joueur les prés et les réseaux hydrographiques du plateau
+     * si la partie se terminait maintenant, selon les règles du décompte final (feu, grande fosse à pieux et
+     * radeau compris). Les totaux sont maintenus à chaque transition, qui ne réévalue que les aires qu'elle modifie.
+     *
+     * @return la table (non modifiable) des points projetés, sans les joueurs qui n'en obtiendraient aucun
+     */
+    public Map<PlayerColor, Integer> projectedEndGamePoints() {
+        return projection.points();
+    }
+
 
     /**
      * retourne le nombre d'occupants de la sorte donnée appartenant au joueur donné et se trouvant sur le plateau
@@ -223,35 +507,130 @@ public class Board {
      * @return le nombre d'occupants de la sorte donnée appartenant au joueur donné et se trouvant sur le plateau
      */
     public int occupantCount(PlayerColor player, Occupant.Kind occupantKind) {
-        int occupantCount = 0;
-        for (PlacedTile placedTile : placedTiles) {
-            if (placedTile != null && placedTile.placer() != null &&
-                    placedTile.placer().equals(player) &&
-                    placedTile.occupant() != null && placedTile.occupant().kind().equals(occupantKind)) {
-                occupantCount += 1;
-            }
+        return occupantCounts[player.ordinal() * OCCUPANT_KINDS + occupantKind.ordinal()];
+    }
+
+    /**
+     * retourne une copie des compteurs d'occupants où celui du placeur et de la sorte donnés a varié de delta
+     *
+     * @param placer: le placeur de la tuile de l'occupant, éventuellement null
+     * @param kind: la sorte de l'occupant
+     * @param delta: la variation du compteur
+     * @return les nouveaux compteurs
+     */
+    private int[] occupantCountsWith(PlayerColor placer, Occupant.Kind kind, int delta) {
+        int[] newOccupantCounts = occupantCounts.clone();
+        countOccupant(newOccupantCounts, placer, kind, delta);
+        return newOccupantCounts;
+    }
+
+    /**
+     * fait varier de delta le compteur du placeur et de la sorte donnés, sauf si la tuile n'a pas de placeur
+     *
+     * @param counts: les compteurs à modifier
+     * @param placer: le placeur de la tuile de l'occupant, éventuellement null
+     * @param kind: la sorte de l'occupant
+     * @param delta: la variation du compteur
+     */
+    private static void countOccupant(int[] counts, PlayerColor placer, Occupant.Kind kind, int delta) {
+        if (placer != null) {
+            counts[placer.ordinal() * OCCUPANT_KINDS + kind.ordinal()] += delta;
         }
-        return occupantCount;
     }
 
     /**
      * retourne l'ensemble des positions d'insertions du plateau
+     * (la frange est maintenue par withNewTile, cette méthode ne fait donc aucun calcul)
      *
-     * @return l'ensemble des positions d'insertions du plateau
+     * @return l'ensemble non modifiable des positions d'insertions du plateau
      */
     public Set<Pos> insertionPositions() {
-        Set<Pos> insertPos = new HashSet<>();
-        for (int i = 0; i < numberFields; i++) {
-            if (placedTiles[i] == null) {
-                Pos currentPos = index2Pos(i);
-                for (Direction direction : Direction.ALL) {
-                    if (posInBoard(currentPos.neighbor(direction)) && tileAt(currentPos.neighbor(direction)) != null) {
-                        insertPos.add(currentPos);
-                    }
-                }
+        return insertionPositionSet;
+    }
+
+    /**
+     * retourne les positions d'insertion du plateau, triées d'abord par leur coordonnée x, puis par leur
+     * coordonnée y (l'ordre utilisé par ActionEncoder) ; sur le plateau borné, elles sont lues dans l'ordre
+     * directement dans la frange, sans tri. La liste est calculée au premier appel, puis réutilisée.
+     *
+     * @return la liste non modifiable des positions d'insertion triées
+     */
+    public List<Pos> orderedInsertionPositions() {
+        List<Pos> positions = orderedInsertionPositions;
+        if (positions == null) {
+            // la frange d'un plateau ne change jamais : la liste est calculée une seule fois
+            positions = fringe != null
+                    ? fringe.positions()
+                    : insertionPositionSet.stream()
+                            .sorted(Comparator.comparingInt(Pos::x).thenComparingInt(Pos::y))
+                            .toList();
+            orderedInsertionPositions = positions;
+        }
+        return positions;
+    }
+
+    /**
+     * retourne la frange du plateau non borné obtenu en posant une tuile à la position donnée : la position
+     * est retirée de la frange actuelle, et ses voisines libres (et dans le plateau) y sont ajoutées
+     *
+     * @param pos : la position de la nouvelle tuile
+     * @return la nouvelle frange (non modifiable)
+     */
+    private IntMap<Pos> insertionPositionsWith(Pos pos) {
+        IntMap<Pos> newInsertionPositions = insertionPositions.without(pos.packed());
+        for (Direction direction : Direction.ALL) {
+            int neighbor = Pos.packedNeighbor(pos.packed(), direction);
+            if (posInBoard(neighbor) && tileAt(neighbor) == null) {
+                newInsertionPositions = newInsertionPositions.with(neighbor, Pos.unpacked(neighbor));
+            }
+        }
+        return newInsertionPositions;
+    }
+
+    /**
+     * retourne les contraintes de côtés du plateau obtenu en posant la tuile donnée : la case de la tuile n'est
+     * plus contrainte, et chaque case libre voisine exige, du côté faisant face à la tuile, la sorte du côté
+     * correspondant de la tuile
+     *
+     * @param tile : la nouvelle tuile
+     * @return les nouvelles contraintes de côtés
+     */
+    private IntIntMap sideRequirementsWith(PlacedTile tile) {
+        IntIntMap newSideRequirements = sideRequirements.without(tile.pos().packed());
+        int signature = tile.sideSignature();
+        for (Direction direction : Direction.ALL) {
+            int neighbor = Pos.packedNeighbor(tile.pos().packed(), direction);
+            if (posInBoard(neighbor) && tileAt(neighbor) == null) {
+                int kindCode = (signature >>> (2 * direction.ordinal())) & SIDE_MASK;
+                int shift = 2 * direction.opposite().ordinal();
+                int key = neighbor;
+                newSideRequirements = newSideRequirements.with(key, requirement(key)
+                        | (kindCode << shift) | (SIDE_MASK << (MASK_SHIFT + shift)));
             }
         }
-        return insertPos;
+        return newSideRequirements;
+    }
+
+    /**
+     * retourne la contrainte de côtés de la case de position compactée donnée, nulle si elle n'est pas contrainte
+     *
+     * @param key : la position compactée de la case
+     * @return sa contrainte de côtés
+     */
+    private int requirement(int key) {
+        return sideRequirements.get(key);
+    }
+
+    /**
+     * retourne vrai ssi la signature de côtés donnée satisfait la contrainte de la case d'index donné, qui doit
+     * être dans la frange
+     *
+     * @param requirement : la contrainte de la case
+     * @param signature : la signature de côtés de la tuile tournée
+     * @return vrai ssi les côtés contraints de la signature sont de la sorte exigée
+     */
+    private static boolean satisfies(int requirement, int signature) {
+        return (signature & (requirement >>> MASK_SHIFT)) == (requirement & 0xFF);
     }
 
     /**
@@ -261,49 +640,80 @@ public class Board {
      * @return la dernière tuile posée (voir ci-dessus)
      */
     public PlacedTile lastPlacedTile() {
-        if (indexPlacedTiles.length > 0) {
-            Pos lastPlacedTile = index2Pos(indexPlacedTiles[indexPlacedTiles.length - 1]);
-            return tileAt(lastPlacedTile);
-        }
-        return null;
+        return lastPlacement == null ? null : tileAt(lastPlacement.pos());
     }
 
     /**
      * retourne l'ensemble de toutes les aires forêts qui ont été fermées suite à la pose de la dernière tuile,
-     * ou un ensemble vide si le plateau est vide,
+     * ou un ensemble vide si le plateau est vide ; cet ensemble est calculé lors de la pose de la tuile
      *
-     * @return l'ensemble de toutes les aires forêts fermées (voir ci-dessus)
+     * @return l'ensemble (non modifiable) de toutes les aires forêts fermées (voir ci-dessus)
      */
     public Set<Area<Zone.Forest>> forestsClosedByLastTile() {
-        Set<Area<Zone.Forest>> forestSet = new HashSet<>();
-        if (lastPlacedTile() == null) {
-            return forestSet;
-        }
-        for (Zone.Forest forest : lastPlacedTile().forestZones()) {
-            if (forestArea(forest).openConnections() == 0) {
-                forestSet.add(forestArea(forest));
-            }
-        }
-        return forestSet;
+        return closedForests;
     }
 
     /**
      * retourne l'ensemble de toutes les aires rivières qui ont été fermées suite à la pose de la dernière tuile,
-     * ou un ensemble vide si le plateau est vide,
+     * ou un ensemble vide si le plateau est vide ; cet ensemble est calculé lors de la pose de la tuile
      *
-     * @return l'ensemble de toutes les aires rivières fermées (voir ci-dessus)
+     * @return l'ensemble (non modifiable) de toutes les aires rivières fermées (voir ci-dessus)
      */
     public Set<Area<Zone.River>> riversClosedByLastTile() {
-        Set<Area<Zone.River>> riverSet = new HashSet<>();
-        if (lastPlacedTile() == null) {
-            return riverSet;
-        }
-        for (Zone.River river : lastPlacedTile().riverZones()) {
-            if (riverArea(river).openConnections() == 0) {
-                riverSet.add(riverArea(river));
+        return closedRivers;
+    }
+
+    /**
+     * retourne l'ensemble des aires fermées de la partition donnée qui contiennent l'une des zones données
+     *
+     * @param zones: les zones de la dernière tuile posée
+     * @param partition: la partition contenant ces zones
+     * @return l'ensemble (non modifiable) des aires fermées contenant ces zones
+     */
+    private static <Z extends Zone> Set<Area<Z>> closedAreas(Set<Z> zones, ZonePartition<Z> partition) {
+        Set<Area<Z>> closed = new HashSet<>();
+        for (Z zone : zones) {
+            Area<Z> area = partition.areaContaining(zone);
+            if (area.isClosed()) {
+                closed.add(area);
             }
         }
-        return riverSet;
+        return closed.isEmpty() ? Set.of() : Collections.unmodifiableSet(closed);
+    }
+
+    /**
+     * retourne les aires de la partition donnée correspondant aux aires données, qui ont les mêmes zones mais
+     * dont les occupants ont pu changer
+     *
+     * @param areas: les aires
+     * @param partition: la partition actuelle
+     * @return l'ensemble (non modifiable) des aires correspondantes de la partition
+     */
+    private static <Z extends Zone> Set<Area<Z>> currentAreas(Set<Area<Z>> areas, ZonePartition<Z> partition) {
+        if (areas.isEmpty()) {
+            return areas;
+        }
+        Set<Area<Z>> current = new HashSet<>();
+        for (Area<Z> area : areas) {
+            current.add(partition.areaContaining(area.zones().iterator().next()));
+        }
+        return Collections.unmodifiableSet(current);
+    }
+
+
+    /**
+     * retourne les positions d'insertion du plateau compactées (voir Pos.pack), triées d'abord par leur coordonnée
+     * x, puis par leur coordonnée y, c.-à-d. par ordre croissant ; cette variante n'alloue aucune position
+     *
+     * @return le tableau (propre à l'appelant) des positions d'insertion compactées triées
+     */
+    public int[] packedInsertionPositions() {
+        if (fringe != null) {
+            return fringe.packedPositions();
+        }
+        int[] positions = insertionPositions.keys();
+        Arrays.sort(positions);
+        return positions;
     }
 
 
@@ -314,22 +724,13 @@ public class Board {
      * @return vrai ssi la tuile placée donnée pourrait être ajoutée au plateau
      */
     public boolean canAddTile(PlacedTile tile) {
-        // verifier que la position est bien dans les insertionPositions()
-        if (!insertionPositions().contains(tile.pos())) {
+        // une case est dans la frange ssi elle est libre et qu'au moins un de ses côtés est contraint
+        if (!posInBoard(tile.pos())) {
             return false;
         }
-        // pour toutes les directions, regarder si le cote des cellules placées est compatible
-        for (Direction dir : Direction.ALL) {
-            if (posInBoard(tile.pos().neighbor(dir))) { // ne regarder hors tableau
-                PlacedTile neighbor = tileAt(tile.pos().neighbor(dir));
-                // si la cellulle est occupée et PAS compatible, on ne peut pas ajouter la tuile
-                if (neighbor != null &&
-                        !neighbor.side(dir.opposite()).isSameKindAs(tile.side(dir))) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        int key = tile.pos().packed();
+        int requirement = requirement(key);
+        return placedTiles.get(key) == null && requirement != 0 && satisfies(requirement, tile.sideSignature());
     }
 
 
@@ -341,18 +742,63 @@ public class Board {
      * @return vrai ssi la tuile donnée pourrait être posée (voir ci-dessus)
      */
     public boolean couldPlaceTile(Tile tile) {
-        // s'il y a au moins une position compatible pour une des insertionPositions(), retourner true
-        for (Pos p : insertionPositions()) {
-            for (Rotation r : Rotation.ALL) { // essayer toutes les rotations
-                if (canAddTile(new PlacedTile(tile, null, r, p))) {
+        // s'il y a au moins une position compatible pour une des insertionPositions(), retourner true ; sur le
+        // plateau borné, les cases de la frange sont lues directement dans ses bits
+        if (fringe != null) {
+            for (int i = fringe.nextIndex(0); i >= 0; i = fringe.nextIndex(i + 1)) {
+                if (couldPlaceAt(Bitboard.packed(i), tile)) {
                     return true;
                 }
             }
+            return false;
+        }
+        for (Pos p : insertionPositions()) {
+            if (couldPlaceAt(p.packed(), tile)) {
+                return true;
+            }
         }
         // aucune combination marche
         return false;
     }
 
+    /**
+     * retourne vrai ssi la tuile donnée pourrait être posée, après une éventuelle rotation, sur la case de la
+     * frange de position compactée donnée
+     *
+     * @param key la position compactée de la case
+     * @param tile la tuile donnée
+     * @return vrai ssi la tuile pourrait y être posée
+     */
+    private boolean couldPlaceAt(int key, Tile tile) {
+        int requirement = requirement(key);
+        for (Rotation r : Rotation.ALL) { // essayer toutes les rotations
+            if (satisfies(requirement, tile.sideSignature(r))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * retourne tous les placements légaux de la tuile donnée, c.-à-d. toutes les tuiles placées (sans occupant)
+     * qui pourraient être ajoutées au plateau, ordonnées par position (d'abord x, puis y, comme dans
+     * ActionEncoder) puis par rotation. La contrainte de chaque position d'insertion n'est lue qu'une fois.
+     *
+     * @param tile la tuile à placer
+     * @param placer le placeur de la tuile
+     * @return le flot des placements légaux
+     */
+    public Stream<PlacedTile> legalPlacements(Tile tile, PlayerColor placer) {
+        return orderedInsertionPositions().stream()
+                .flatMap(pos -> {
+                    int requirement = requirement(pos.packed());
+                    return Rotation.ALL.stream()
+                            .filter(r -> satisfies(requirement, tile.sideSignature(r)))
+                            .map(r -> new PlacedTile(tile, placer, r, pos));
+                });
+    }
+
 
     /**
      * retourne un plateau identique au récepteur, mais avec la tuile donnée en plus
@@ -360,41 +806,60 @@ public class Board {
      * @param tile : la tuile donnée
      * @return un plateau identique au récepteur, mais avec la tuile donnée en plus
      * @throws IllegalArgumentException si le plateau n'est pas vide et la tuile donnée ne peut pas être ajoutée
-     *         au plateau
+     *         au plateau, ou si sa position est hors de la portée du plateau
      */
     public Board withNewTile(PlacedTile tile) {
-        if (indexPlacedTiles.length != 0 && !canAddTile(tile)) {
+        if (lastPlacement != null && !canAddTile(tile)) {
             // plateau pas vide et pas possible d'ajouter la tuile? Lever exception
             throw new IllegalArgumentException();
         }
 
-        // faire des copies des attributs pour bien assurer la immuabilité
-        PlacedTile[] newPlacedTiles = placedTiles.clone();
-        int newIndex = pos2Index(tile.pos());
-        newPlacedTiles[newIndex] = tile;
-        // ajouter une position au index des placed tiles copié
-        int[] newIndexPlacedTiles = Arrays.copyOf(indexPlacedTiles, indexPlacedTiles.length + 1);
-        newIndexPlacedTiles[indexPlacedTiles.length] = newIndex;
+        // les tables persistantes ne copient que le chemin menant à la nouvelle tuile
+        Preconditions.checkArgument(posInBoard(tile.pos()));
+        IntMap<PlacedTile> newPlacedTiles = placedTiles.with(tile.pos().packed(), tile);
         Set<Animal> newCancelledAnimals = Collections.unmodifiableSet(cancelledAnimals);
 
         // generer une nouvelle partition avec le builder, en utilisant l'ancienne
         ZonePartitions.Builder newZonePartitionsBuilder = new ZonePartitions.Builder(zonePartitions);
         newZonePartitionsBuilder.addTile(tile.tile());
+        ScoreProjection.Builder projectionBuilder = new ScoreProjection.Builder(projection);
 
         // maintenant il faut connecter la nouvelle tuile avec les autres existantes!
 
         for (Direction dir : Direction.ALL) { // regarder dans toutes les directions
-            Pos otherTilePos = tile.pos().neighbor(dir);
-            if (tileAt(otherTilePos) != null) {
+            PlacedTile otherTile = tileAt(Pos.packedNeighbor(tile.pos().packed(), dir));
+            if (otherTile != null) {
                 // il y a une autre tuile à cet endroit:
                 // il faut connecter les deux cotes opposes des deux tuiles
-                newZonePartitionsBuilder.connectSides(tile.side(dir), tileAt(otherTilePos).side(dir.opposite()));
+                newZonePartitionsBuilder.connectSides(tile.side(dir), otherTile.side(dir.opposite()));
+                // les aires du côté voisin sont fusionnées avec celles de la nouvelle tuile
+                removeProjectedAreas(projectionBuilder, otherTile.side(dir.opposite()).zones());
             }
         }
 
         ZonePartitions newZonePartitions = newZonePartitionsBuilder.build();
 
-        return new Board(newPlacedTiles, newIndexPlacedTiles, newZonePartitions, newCancelledAnimals);
+        // la frange du plateau borné est recalculée d'un bloc à partir de ses cases occupées
+        Bitboard newOccupancy = occupancy == null ? null : occupancy.with(Bitboard.index(tile.pos()));
+
+        // toute aire modifiée contient désormais une zone de la nouvelle tuile
+        PlacedTile[] newTilesById = tilesByIdWith(tile);
+        ScoreProjection newProjection = projectedWith(projectionBuilder, newZonePartitions, newCancelledAnimals,
+                newTilesById, tile.tile().zones());
+
+        return new Board(reach, newPlacedTiles, new Placement(tile.pos(), lastPlacement),
+                newTilesById, newZonePartitions, newCancelledAnimals,
+                newOccupancy, newOccupancy == null ? null : newOccupancy.fringe(),
+                newOccupancy == null ? insertionPositionsWith(tile.pos()) : insertionPositions,
+                sideRequirementsWith(tile),
+                zobristKey ^ Zobrist.tileKey(tile) ^ (tile.occupant() == null ? 0 : Zobrist.occupantKey(tile.occupant())),
+                closedAreas(tile.forestZones(), newZonePartitions.forests()),
+                closedAreas(tile.riverZones(), newZonePartitions.rivers()),
+                tile.occupant() == null ? occupants : occupants.with(tile.occupant().zoneId(), tile.occupant()),
+                tile.occupant() == null
+                        ? occupantCounts
+                        : occupantCountsWith(tile.placer(), tile.occupant().kind(), 1),
+                newProjection);
     }
 
     /**
@@ -424,20 +889,13 @@ public class Board {
         newZonePartitionsBuilder.addInitialOccupant(newTile.placer(), occupant.kind(),
                 newTile.zoneWithId(occupant.zoneId()));
 
-        // créer un nouveau array pour les tuiles placées et remplacer l'ancienne tuile par la nouvelle
-        PlacedTile[] newPlacedTiles = placedTiles.clone();
-        newPlacedTiles[pos2Index(currentTile.pos())] = newTile;
-
-        // pas de changement dans cet index: clone OK
-        int[] newIndexPlacedTiles = indexPlacedTiles.clone();
-
-        // nouvelle partition prête
-        ZonePartitions newZonePartitions = newZonePartitionsBuilder.build();
+        // remplacer l'ancienne tuile par la nouvelle
+        IntMap<PlacedTile> newPlacedTiles = placedTiles.with(currentTile.pos().packed(), newTile);
 
-
-        Set<Animal> newCancelledAnimals = Set.copyOf(cancelledAnimals);
-
-        return new Board(newPlacedTiles, newIndexPlacedTiles, newZonePartitions, newCancelledAnimals);
+        return withOccupants(newPlacedTiles, tilesByIdWith(newTile), newZonePartitionsBuilder.build(),
+                zobristKey ^ Zobrist.occupantKey(occupant),
+                occupants.with(occupant.zoneId(), occupant), occupantCountsWith(newTile.placer(), occupant.kind(), 1),
+                newTile.zoneWithId(occupant.zoneId()));
 
     }
 
@@ -463,16 +921,12 @@ public class Board {
         // dans ce cas, l'occupant est toujours un pawn (les huttes sont jamais enlevées)
         newZonePartitionsBuilder.removePawn(currentTile.placer(), currentTile.zoneWithId(occupant.zoneId()));
 
-        PlacedTile[] newPlacedTiles = placedTiles.clone();
-        newPlacedTiles[pos2Index(currentTile.pos())] = newTile;
+        IntMap<PlacedTile> newPlacedTiles = placedTiles.with(currentTile.pos().packed(), newTile);
 
-        int[] newIndexPlacedTiles = indexPlacedTiles.clone();
-
-        Set<Animal> newCancelledAnimals = Set.copyOf(cancelledAnimals);
-
-        ZonePartitions newZonePartitions = newZonePartitionsBuilder.build();
-
-        return new Board(newPlacedTiles, newIndexPlacedTiles, newZonePartitions, newCancelledAnimals);
+        return withOccupants(newPlacedTiles, tilesByIdWith(newTile), newZonePartitionsBuilder.build(),
+                zobristKey ^ Zobrist.occupantKey(occupant),
+                occupants.without(occupant.zoneId()), occupantCountsWith(currentTile.placer(), occupant.kind(), -1),
+                currentTile.zoneWithId(occupant.zoneId()));
     }
 
     /**
@@ -493,33 +947,53 @@ public class Board {
         }
 
 
-        PlacedTile[] newPlacedTiles = placedTiles.clone();
-        for (PlacedTile placedTile : this.placedTiles) {
-            if (placedTile != null) {
-                for (Zone z : placedTile.forestZones()) {
-                    for (Area<Zone.Forest> forestArea : forests) {
-                        if (placedTile.occupant() != null && forestArea.zones().contains(z) &&
-                                placedTile.occupant().zoneId() == z.id()) {
-                            PlacedTile newPlacedTile = placedTile.withNoOccupant();
-                            newPlacedTiles[pos2Index(placedTile.pos())] = newPlacedTile;
-                        }
-                    }
-                }
-                for (Zone z : placedTile.riverZones()) {
-                    for (Area<Zone.River> riverArea : rivers) {
-                        if (placedTile.occupant() != null && riverArea.zones().contains(z)
-                                && placedTile.occupant().zoneId() == z.id()
-                                && placedTile.occupant().kind() != Occupant.Kind.HUT) {
-                            PlacedTile newPlacedTile = placedTile.withNoOccupant();
-                            newPlacedTiles[pos2Index(placedTile.pos())] = newPlacedTile;
-                        }
-                    }
-                }
+        // seuls des pions peuvent occuper une forêt ou être des pêcheurs : il suffit de chercher, pour chaque zone
+        // des aires données, le pion qui l'occuperait dans l'ensemble des occupants, sans parcourir les tuiles
+        Set<Occupant> removedOccupants = new HashSet<>();
+        for (Area<Zone.Forest> forestArea : forests) {
+            addPawnsIn(forestArea, removedOccupants);
+        }
+        for (Area<Zone.River> riverArea : rivers) {
+            addPawnsIn(riverArea, removedOccupants);
+        }
+
+        IntMap<PlacedTile> newPlacedTiles = placedTiles;
+        PlacedTile[] newTilesById = tilesById;
+        long newZobristKey = zobristKey;
+        IntMap<Occupant> newOccupants = occupants;
+        int[] newOccupantCounts = occupantCounts;
+        if (!removedOccupants.isEmpty()) {
+            newTilesById = tilesById.clone();
+            newOccupantCounts = occupantCounts.clone();
+            for (Occupant occupant : removedOccupants) {
+                PlacedTile placedTile = tileWithId(Zone.tileId(occupant.zoneId()));
+                PlacedTile emptiedTile = placedTile.withNoOccupant();
+                newPlacedTiles = newPlacedTiles.with(placedTile.pos().packed(), emptiedTile);
+                newTilesById[placedTile.id()] = emptiedTile;
+                newZobristKey ^= Zobrist.occupantKey(occupant);
+                newOccupants = newOccupants.without(occupant.zoneId());
+                countOccupant(newOccupantCounts, placedTile.placer(), occupant.kind(), -1);
             }
         }
 
-        int[] newIndexPlacedTiles = indexPlacedTiles.clone();
-        return new Board(newPlacedTiles, newIndexPlacedTiles, zonePartitionBuilder.build(), cancelledAnimals());
+        // les forêts et les rivières ne font pas partie de la projection, qui est donc inchangée
+        return withOccupants(newPlacedTiles, newTilesById, zonePartitionBuilder.build(), newZobristKey,
+                newOccupants, newOccupantCounts, null);
+    }
+
+    /**
+     * ajoute à l'ensemble donné les pions du plateau occupant l'une des zones de l'aire donnée
+     *
+     * @param area: l'aire
+     * @param pawns: l'ensemble auquel ajouter les pions
+     */
+    private void addPawnsIn(Area<? extends Zone> area, Set<Occupant> pawns) {
+        for (Zone zone : area.zones()) {
+            Occupant occupant = occupants.get(zone.id());
+            if (occupant != null && occupant.kind() == Occupant.Kind.PAWN) {
+                pawns.add(occupant);
+            }
+        }
     }
 
 
@@ -533,8 +1007,22 @@ public class Board {
      */
     public Board withMoreCancelledAnimals(Set<Animal> newlyCancelledAnimals) {
         Set<Animal> allCanceledAnimals = new HashSet<>(cancelledAnimals);
-        allCanceledAnimals.addAll(newlyCancelledAnimals);
-        return new Board(this.placedTiles, this.indexPlacedTiles, this.zonePartitions, allCanceledAnimals);
+        long newZobristKey = zobristKey;
+        // seuls les prés contenant un animal nouvellement annulé sont réévalués (leurs aires sont inchangées)
+        List<Zone> changedZones = new ArrayList<>();
+        for (Animal animal : newlyCancelledAnimals) {
+            if (allCanceledAnimals.add(animal)) {
+                newZobristKey ^= Zobrist.cancelledAnimalKey(animal);
+                if (animal.tileId() < tilesById.length && tilesById[animal.tileId()] != null) {
+                    changedZones.add(tilesById[animal.tileId()].zoneWithId(animal.id() / 10));
+                }
+            }
+        }
+        ScoreProjection newProjection = projectedWith(new ScoreProjection.Builder(projection), zonePartitions,
+                allCanceledAnimals, tilesById, changedZones);
+        return new Board(this.reach, this.placedTiles, this.lastPlacement, this.tilesById, this.zonePartitions,
+                allCanceledAnimals, this.occupancy, this.fringe, this.insertionPositions, this.sideRequirements, newZobristKey, this.closedForests,
+                this.closedRivers, this.occupants, this.occupantCounts, newProjection);
     }
 
     /**
@@ -548,26 +1036,32 @@ public class Board {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Board board = (Board) o;
+        // des clefs différentes garantissent des plateaux différents
+        if (this.zobristKey != board.zobristKey) return false;
         if (this.cancelledAnimals.size() != board.cancelledAnimals.size()) return false;
         for (Animal animal : this.cancelledAnimals) {
             if (!board.cancelledAnimals.contains(animal)) return false;
         }
-        return Arrays.equals(placedTiles, board.placedTiles) && Arrays.equals(indexPlacedTiles, board.indexPlacedTiles)
-                && Objects.equals(zonePartitions, board.zonePartitions);
+        if (this.reach != board.reach || this.placedTiles.size() != board.placedTiles.size()) return false;
+        // mêmes tuiles, posées dans le même ordre
+        Placement p1 = this.lastPlacement;
+        Placement p2 = board.lastPlacement;
+        while (p1 != null) {
+            if (!p1.pos().equals(p2.pos()) || !tileAt(p1.pos()).equals(board.tileAt(p2.pos()))) return false;
+            p1 = p1.previous();
+            p2 = p2.previous();
+        }
+        return Objects.equals(zonePartitions, board.zonePartitions);
     }
 
     /**
-     * redefinition de hashCode pour Board
+     * redefinition de hashCode pour Board, dérivé de la clef de Zobrist (cohérent avec equals, car deux plateaux
+     * égaux ont la même clef)
      *
      * @return nouveau hashCode pour Board
      */
     @Override
     public int hashCode() {
-        int firstInt = Arrays.hashCode(placedTiles);
-        int secondInt = Arrays.hashCode(indexPlacedTiles);
-        return Objects.hash(firstInt, secondInt, zonePartitions, cancelledAnimals);
+        return Long.hashCode(zobristKey);
     }
 }
-
-
-
@@ -1,6 +1,7 @@
 package ch.epfl.chacun;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * L'enregistrement GameState: représente l'état complet d'une partie de ChaCuN.
@@ -23,6 +24,35 @@ public record GameState(List<PlayerColor> players, TileDecks tileDecks, Tile til
         END_GAME
     }
 
+    /**
+     * Move : un coup complet, c.-à-d. le placement de la tuile à placer, suivi du pion éventuellement repris si
+     * elle contient le chaman, puis de l'éventuel occupant posé dessus
+     * @param placedTile: la tuile placée (sans occupant)
+     * @param retakenPawn: le pion repris grâce au chaman, ou null si le joueur n'en reprend pas
+     * @param occupant: l'occupant posé sur la tuile, ou null si le joueur n'en pose pas
+     */
+    public record Move(PlacedTile placedTile, Occupant retakenPawn, Occupant occupant) {
+        /**
+         * Constructeur compact de Move, vérifie que la tuile placée n'est pas nulle et que l'occupant repris est
+         * un pion
+         * @throws NullPointerException si la tuile placée est nulle
+         * @throws IllegalArgumentException si l'occupant repris n'est ni null, ni un pion
+         */
+        public Move {
+            Objects.requireNonNull(placedTile);
+            Preconditions.checkArgument(retakenPawn == null || retakenPawn.kind() == Occupant.Kind.PAWN);
+        }
+
+        /**
+         * crée un coup ne reprenant aucun pion
+         * @param placedTile: la tuile placée (sans occupant)
+         * @param occupant: l'occupant posé sur la tuile, ou null si le joueur n'en pose pas
+         */
+        public Move(PlacedTile placedTile, Occupant occupant) {
+            this(placedTile, null, occupant);
+        }
+    }
+
     /**
      * Constructeur compact de GameState, se charge de garantir l'immuabilité de la classe et de valider les arguments
      * @param players: la liste de tous les joueurs de la partie, dans l'ordre dans lequel ils doivent jouer donc avec le joueur courant en tête de liste.
@@ -73,6 +103,31 @@ public record GameState(List<PlayerColor> players, TileDecks tileDecks, Tile til
         return players.getFirst();
     }
 
+    /**
+     * retourne la clef de Zobrist (64 bits) de l'état, qui combine celle du plateau (tuiles placées avec leur
+     * rotation et leur position, occupants, animaux annulés) avec le joueur courant et la prochaine action ;
+     * elle est calculée en O(1) et peut servir de clef de table de transpositions. Deux états égaux ont la
+     * même clef, mais des états différents peuvent exceptionnellement en partager une.
+     * @return la clef de Zobrist de l'état
+     */
+    public long zobristKey() {
+        return board.zobristKey() ^ Zobrist.currentPlayerKey(currentPlayer()) ^ Zobrist.nextActionKey(nextAction);
+    }
+
+    /**
+     * retourne les points qu'obtiendrait chaque joueur si la partie se terminait maintenant : ceux déjà
+     * remportés, plus ceux que rapporteraient les prés et les réseaux hydrographiques lors du décompte final
+     * (voir Board.projectedEndGamePoints). Une fois la partie terminée, ce sont les points finaux.
+     * @return la table des points projetés, sans les joueurs qui n'en obtiendraient aucun
+     */
+    public Map<PlayerColor, Integer> projectedPoints() {
+        Map<PlayerColor, Integer> points = messageBoard.points();
+        if (nextAction != Action.END_GAME) {
+            board.projectedEndGamePoints().forEach((player, p) -> points.merge(player, p, Integer::sum));
+        }
+        return points;
+    }
+
     /**
      * freeOccupantsCount: retourne le nombre d'occupants libres.
      * @param player: joueur donné
@@ -91,7 +146,7 @@ public record GameState(List<PlayerColor> players, TileDecks tileDecks, Tile til
      * @throws IllegalArgumentException si le plateau est vide.
      */
     public Set<Occupant> lastTilePotentialOccupants() {
-        if (board.equals(Board.EMPTY)) {
+        if (board.lastPlacedTile() == null) {
             throw new IllegalArgumentException();
         }
         Set<Occupant> lastTilePotentialOccupants = new HashSet<>();
@@ -124,6 +179,90 @@ public record GameState(List<PlayerColor> players, TileDecks tileDecks, Tile til
         return lastTilePotentialOccupants;
     }
 
+    /**
+     * retourne tous les placements légaux de la tuile à placer par le joueur courant, ordonnés par position
+     * (d'abord x, puis y) puis par rotation
+     * @return le flot des placements légaux (tuiles placées sans occupant)
+     * @throws IllegalArgumentException si la prochaine action n'est pas PLACE_TILE
+     */
+    public Stream<PlacedTile> legalPlacements() {
+        Preconditions.checkArgument(nextAction == Action.PLACE_TILE);
+        return board.legalPlacements(tileToPlace, currentPlayer());
+    }
+
+    /**
+     * retourne l'ensemble des occupants que le joueur courant pourrait poser sur la tuile donnée juste après
+     * l'avoir placée, c.-à-d. l'ensemble que retournerait lastTilePotentialOccupants après ce placement ;
+     * le plateau résultant n'est pas construit. Si la tuile contient le chaman, ce sont les occupants possibles
+     * lorsque le joueur ne reprend pas de pion.
+     * @param placedTile: la tuile placée, sans occupant
+     * @return l'ensemble des occupants possibles
+     * @throws IllegalArgumentException si la prochaine action n'est pas PLACE_TILE, ou si le placement n'est pas légal
+     */
+    public Set<Occupant> legalOccupants(PlacedTile placedTile) {
+        Preconditions.checkArgument(nextAction == Action.PLACE_TILE && placedTile.occupant() == null
+                && placedTile.tile().equals(tileToPlace) && board.canAddTile(placedTile));
+        return LegalMoves.potentialOccupants(board, placedTile,
+                freeOccupantsCount(currentPlayer(), Occupant.Kind.PAWN),
+                freeOccupantsCount(currentPlayer(), Occupant.Kind.HUT));
+    }
+
+    /**
+     * retourne tous les coups légaux du joueur courant : chaque placement légal (voir legalPlacements), suivi
+     * d'abord de l'absence d'occupant puis de chacun des occupants possibles, par identifiant de zone croissant.
+     * Si la tuile contient le chaman et que le joueur a au moins un pion sur le plateau, ces coups sont énumérés
+     * pour chaque choix de reprise : d'abord sans reprendre de pion, puis en reprenant chacun de ses pions, par
+     * identifiant de zone croissant. Les occupants possibles après une reprise dépendent du pion repris ; ils
+     * sont donc obtenus en jouant les transitions correspondantes, ce qui ne concerne que la tuile du chaman.
+     * @return le flot des coups légaux
+     * @throws IllegalArgumentException si la prochaine action n'est pas PLACE_TILE
+     */
+    public Stream<Move> legalMoves() {
+        Stream<PlacedTile> placements = legalPlacements();
+        int freePawns = freeOccupantsCount(currentPlayer(), Occupant.Kind.PAWN);
+        int freeHuts = freeOccupantsCount(currentPlayer(), Occupant.Kind.HUT);
+        boolean canRetake = tileToPlace.specialPowerZone() != null
+                && tileToPlace.specialPowerZone().specialPower() == Zone.SpecialPower.SHAMAN
+                && board.occupantCount(currentPlayer(), Occupant.Kind.PAWN) > 0;
+        return placements.flatMap(placedTile -> {
+            Set<Occupant> occupants = LegalMoves.potentialOccupants(board, placedTile, freePawns, freeHuts);
+            Stream<Move> withoutRetake = movesOf(placedTile, null, occupants);
+            if (!canRetake) return withoutRetake;
+            GameState placed = withPlacedTile(placedTile);
+            return Stream.concat(withoutRetake, retakablePawns().stream().flatMap(pawn -> {
+                GameState retaken = placed.withOccupantRemoved(pawn);
+                return movesOf(placedTile, pawn, retaken.nextAction() == Action.OCCUPY_TILE
+                        ? retaken.lastTilePotentialOccupants()
+                        : Set.of());
+            }));
+        });
+    }
+
+    /**
+     * retourne les coups formés du placement et de la reprise donnés, suivis d'abord de l'absence d'occupant puis
+     * de chacun des occupants donnés, par identifiant de zone croissant
+     */
+    private static Stream<Move> movesOf(PlacedTile placedTile, Occupant retakenPawn, Set<Occupant> occupants) {
+        return Stream.concat(
+                Stream.of(new Move(placedTile, retakenPawn, null)),
+                occupants.stream()
+                        .sorted(Comparator.comparingInt(Occupant::zoneId))
+                        .map(occupant -> new Move(placedTile, retakenPawn, occupant)));
+    }
+
+    /**
+     * retourne les pions du joueur courant se trouvant sur le plateau, c.-à-d. ceux qu'il pourrait reprendre
+     * grâce au chaman, par identifiant de zone croissant
+     * @return la liste des pions du joueur courant
+     */
+    public List<Occupant> retakablePawns() {
+        return board.occupants().stream()
+                .filter(occupant -> occupant.kind() == Occupant.Kind.PAWN
+                        && board.tileWithId(Zone.tileId(occupant.zoneId())).placer() == currentPlayer())
+                .sorted(Comparator.comparingInt(Occupant::zoneId))
+                .toList();
+    }
+
     /**
      * - gère la transition de START_GAME à PLACE_TILE en plaçant la tuile de départ au centre
      *   du plateau et en tirant la première tuile du tas des tuiles normales, qui devient la
@@ -295,21 +434,25 @@ public record GameState(List<PlayerColor> players, TileDecks tileDecks, Tile til
      */
     private GameState withTurnFinished(Board newBoard, MessageBoard newMessageBoard) {
 
-        // determiner forets et rivieres, attribuer les points
-        for (Area<Zone.Forest> forest : newBoard.forestsClosedByLastTile()) {
+        // determiner forets et rivieres (calculées par le plateau lors de la pose), attribuer les points
+        Set<Area<Zone.Forest>> closedForests = newBoard.forestsClosedByLastTile();
+        Set<Area<Zone.River>> closedRivers = newBoard.riversClosedByLastTile();
+        for (Area<Zone.Forest> forest : closedForests) {
             newMessageBoard = newMessageBoard.withScoredForest(forest);
         }
-        for (Area<Zone.River> river : newBoard.riversClosedByLastTile()) {
+        for (Area<Zone.River> river : closedRivers) {
             newMessageBoard = newMessageBoard.withScoredRiver(river);
         }
 
         // retirer les pions des forêts et rivières fermées
-        newBoard = newBoard.withoutGatherersOrFishersIn(newBoard.forestsClosedByLastTile(), newBoard.riversClosedByLastTile());
+        if (!closedForests.isEmpty() || !closedRivers.isEmpty()) {
+            newBoard = newBoard.withoutGatherersOrFishersIn(closedForests, closedRivers);
+        }
 
         // déterminer si le joueur courant devrait pouvoir jouer un second tour, car il a fermé au moins une
         // forêt contenant un menhir au moyen d'une tuile normale
         boolean canPlaySecondRound = false;
-        if (!newBoard.forestsClosedByLastTile().isEmpty() && newBoard.lastPlacedTile().kind().equals(Tile.Kind.NORMAL)) {
+        if (!closedForests.isEmpty() && newBoard.lastPlacedTile().kind().equals(Tile.Kind.NORMAL)) {
             for (Area<Zone.Forest> forest : newBoard.forestsClosedByLastTile()) {
                 if (Area.hasMenhir(forest) && !tileDecks.menhirTiles().isEmpty()) {
                     // trouvée une forêt fermée contentant un menhir
@@ -440,9 +583,10 @@ public record GameState(List<PlayerColor> players, TileDecks tileDecks, Tile til
         // décompte des points finaux :
         int maxScore;
         Set<PlayerColor> winners = new HashSet<>();
-        if (!newMessageBoard.points().isEmpty()){
-            maxScore = newMessageBoard.points().values().stream().sorted().toList().getLast();
-            newMessageBoard.points().forEach((k,v) -> {if (v==maxScore) winners.add(k);});
+        Map<PlayerColor, Integer> points = newMessageBoard.points();
+        if (!points.isEmpty()){
+            maxScore = points.values().stream().sorted().toList().getLast();
+            points.forEach((k,v) -> {if (v==maxScore) winners.add(k);});
         } else {
             maxScore = 0;
             winners.addAll(players);
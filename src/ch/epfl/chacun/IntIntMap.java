@@ -0,0 +1,197 @@
+package ch.epfl.chacun;
+
+import static ch.epfl.chacun.IntMap.BITS;
+import static ch.epfl.chacun.IntMap.MASK;
+import static ch.epfl.chacun.IntMap.bit;
+import static ch.epfl.chacun.IntMap.hash;
+import static ch.epfl.chacun.IntMap.index;
+import static ch.epfl.chacun.IntMap.inserted;
+import static ch.epfl.chacun.IntMap.removed;
+
+/**
+ * IntIntMap :
+ * variante de IntMap dont les valeurs sont des entiers, stockés tels quels dans les nœuds : modifier une valeur
+ * ne crée aucun objet en dehors des nœuds du chemin menant à sa clef. La structure de l'arbre (et le mélange des
+ * clefs) est la même que celle de IntMap.
+ *
+ * @author Rayan Berrada (378940)
+ * @author Jens Cancio (379510)
+ */
+final class IntIntMap {
+    static final IntIntMap EMPTY = new IntIntMap(Node.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    /**
+     * Node :
+     * nœud de l'arbre (voir IntMap.Node), dont les valeurs des associations sont des entiers
+     */
+    private static final class Node {
+        private static final Node EMPTY = new Node(0, 0, new int[0], new int[0], new Node[0]);
+
+        private final int dataMap;
+        private final int nodeMap;
+        private final int[] keys;
+        private final int[] values;
+        private final Node[] children;
+
+        private Node(int dataMap, int nodeMap, int[] keys, int[] values, Node[] children) {
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.keys = keys;
+            this.values = values;
+            this.children = children;
+        }
+    }
+
+    /**
+     * crée la table de racine et de taille données
+     * @param root la racine de l'arbre
+     * @param size le nombre d'associations
+     */
+    private IntIntMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * retourne le nombre d'associations de la table
+     * @return le nombre d'associations
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * retourne vrai ssi la clef donnée est associée à une valeur
+     * @param key la clef
+     * @return vrai ssi la table contient la clef
+     */
+    boolean containsKey(int key) {
+        int hash = hash(key);
+        Node node = root;
+        for (int shift = 0; ; shift += BITS) {
+            int bit = bit(hash, shift);
+            if ((node.dataMap & bit) != 0) {
+                return node.keys[index(node.dataMap, bit)] == key;
+            }
+            if ((node.nodeMap & bit) == 0) {
+                return false;
+            }
+            node = node.children[index(node.nodeMap, bit)];
+        }
+    }
+
+    /**
+     * retourne la valeur associée à la clef donnée, ou 0 s'il n'y en a aucune
+     * @param key la clef
+     * @return la valeur associée à la clef, ou 0
+     */
+    int get(int key) {
+        int hash = hash(key);
+        Node node = root;
+        for (int shift = 0; ; shift += BITS) {
+            int bit = bit(hash, shift);
+            if ((node.dataMap & bit) != 0) {
+                int i = index(node.dataMap, bit);
+                return node.keys[i] == key ? node.values[i] : 0;
+            }
+            if ((node.nodeMap & bit) == 0) {
+                return 0;
+            }
+            node = node.children[index(node.nodeMap, bit)];
+        }
+    }
+
+    /**
+     * retourne une table identique à celle-ci, si ce n'est que la clef donnée y est associée à la valeur donnée
+     * @param key la clef
+     * @param value la valeur
+     * @return la nouvelle table
+     */
+    IntIntMap with(int key, int value) {
+        int newSize = containsKey(key) ? size : size + 1;
+        return new IntIntMap(with(root, key, hash(key), value, 0), newSize);
+    }
+
+    /**
+     * retourne une table identique à celle-ci, si ce n'est que la clef donnée n'y est associée à aucune valeur
+     * @param key la clef
+     * @return la nouvelle table, ou celle-ci si la clef n'y figurait pas
+     */
+    IntIntMap without(int key) {
+        if (!containsKey(key)) {
+            return this;
+        }
+        return new IntIntMap(without(root, key, hash(key), 0), size - 1);
+    }
+
+    /**
+     * retourne le nœud donné dans lequel la clef donnée est associée à la valeur donnée (voir IntMap.with)
+     */
+    private static Node with(Node node, int key, int hash, int value, int shift) {
+        int bit = bit(hash, shift);
+        if ((node.dataMap & bit) != 0) {
+            int i = index(node.dataMap, bit);
+            if (node.keys[i] == key) {
+                int[] values = node.values.clone();
+                values[i] = value;
+                return new Node(node.dataMap, node.nodeMap, node.keys, values, node.children);
+            }
+            // deux clefs dans la même case : elles descendent dans un nouveau sous-arbre
+            Node child = pair(node.keys[i], hash(node.keys[i]), node.values[i], key, hash, value, shift + BITS);
+            int j = index(node.nodeMap, bit);
+            return new Node(node.dataMap ^ bit, node.nodeMap | bit,
+                    removed(node.keys, i), removed(node.values, i), inserted(node.children, j, child));
+        }
+        if ((node.nodeMap & bit) != 0) {
+            int j = index(node.nodeMap, bit);
+            Node[] children = node.children.clone();
+            children[j] = with(children[j], key, hash, value, shift + BITS);
+            return new Node(node.dataMap, node.nodeMap, node.keys, node.values, children);
+        }
+        int i = index(node.dataMap, bit);
+        return new Node(node.dataMap | bit, node.nodeMap,
+                inserted(node.keys, i, key), inserted(node.values, i, value), node.children);
+    }
+
+    /**
+     * retourne le sous-arbre contenant les deux associations données, dont les clefs sont différentes
+     */
+    private static Node pair(int key1, int hash1, int value1, int key2, int hash2, int value2, int shift) {
+        int bit1 = bit(hash1, shift);
+        int bit2 = bit(hash2, shift);
+        if (bit1 == bit2) {
+            return new Node(0, bit1, new int[0], new int[0],
+                    new Node[]{pair(key1, hash1, value1, key2, hash2, value2, shift + BITS)});
+        }
+        return ((hash1 >>> shift) & MASK) < ((hash2 >>> shift) & MASK)
+                ? new Node(bit1 | bit2, 0, new int[]{key1, key2}, new int[]{value1, value2}, new Node[0])
+                : new Node(bit1 | bit2, 0, new int[]{key2, key1}, new int[]{value2, value1}, new Node[0]);
+    }
+
+    /**
+     * retourne le nœud donné privé de l'association de clef donnée, qui doit y figurer (voir IntMap.without)
+     */
+    private static Node without(Node node, int key, int hash, int shift) {
+        int bit = bit(hash, shift);
+        if ((node.dataMap & bit) != 0) {
+            int i = index(node.dataMap, bit);
+            return new Node(node.dataMap ^ bit, node.nodeMap,
+                    removed(node.keys, i), removed(node.values, i), node.children);
+        }
+        int j = index(node.nodeMap, bit);
+        Node child = without(node.children[j], key, hash, shift + BITS);
+        if (child.nodeMap == 0 && Integer.bitCount(child.dataMap) == 1) {
+            // un sous-arbre réduit à une association remonte dans ce nœud
+            int i = index(node.dataMap, bit);
+            return new Node(node.dataMap | bit, node.nodeMap ^ bit,
+                    inserted(node.keys, i, child.keys[0]), inserted(node.values, i, child.values[0]),
+                    removed(node.children, j));
+        }
+        Node[] children = node.children.clone();
+        children[j] = child;
+        return new Node(node.dataMap, node.nodeMap, node.keys, node.values, children);
+    }
+}
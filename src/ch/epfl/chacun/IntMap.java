@@ -0,0 +1,361 @@
+package ch.epfl.chacun;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * IntMap :
+ * table associative persistante et immuable dont les clefs sont des entiers, représentée par un arbre préfixe
+ * à tables de hachage (HAMT) de degré 32. Ajouter, remplacer ou retirer une association ne copie que les nœuds
+ * du chemin menant à la clef, en O(log n), tous les autres nœuds étant partagés avec la table d'origine.
+ * Les clefs sont d'abord mélangées par une bijection, ce qui répartit uniformément des clefs proches (p. ex.
+ * des positions voisines) et garantit que deux clefs différentes finissent toujours par se séparer.
+ *
+ * @author Rayan Berrada (378940)
+ * @author Jens Cancio (379510)
+ *
+ * @param <V> le type des valeurs, jamais nulles
+ */
+final class IntMap<V> {
+    // nombre de bits de la clef mélangée consommés par niveau de l'arbre
+    static final int BITS = 5;
+    static final int MASK = (1 << BITS) - 1;
+    // profondeur maximale de l'arbre : 32 bits par tranches de 5
+    private static final int MAX_DEPTH = (Integer.SIZE + BITS - 1) / BITS;
+    private static final IntMap<?> EMPTY = new IntMap<>(Node.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    /**
+     * Node :
+     * nœud de l'arbre ; chacune de ses 32 cases contient soit une association (bit dans dataMap), soit un
+     * sous-arbre (bit dans nodeMap), soit rien. Les associations et les sous-arbres sont stockés de manière
+     * compacte, dans l'ordre de leurs cases. Un nœud n'est jamais modifié une fois partagé.
+     */
+    private static final class Node {
+        private static final Node EMPTY = new Node(0, 0, new int[0], new Object[0], new Node[0]);
+
+        private final int dataMap;
+        private final int nodeMap;
+        private final int[] keys;
+        private final Object[] values;
+        private final Node[] children;
+
+        private Node(int dataMap, int nodeMap, int[] keys, Object[] values, Node[] children) {
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.keys = keys;
+            this.values = values;
+            this.children = children;
+        }
+    }
+
+    /**
+     * crée la table de racine et de taille données
+     * @param root la racine de l'arbre
+     * @param size le nombre d'associations
+     */
+    private IntMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * retourne la table vide
+     * @return la table vide
+     * @param <V> le type des valeurs
+     */
+    @SuppressWarnings("unchecked")
+    static <V> IntMap<V> empty() {
+        return (IntMap<V>) EMPTY;
+    }
+
+    /**
+     * retourne le nombre d'associations de la table
+     * @return le nombre d'associations
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * retourne la valeur associée à la clef donnée, ou null s'il n'y en a aucune
+     * @param key la clef
+     * @return la valeur associée à la clef, ou null
+     */
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        int hash = hash(key);
+        Node node = root;
+        for (int shift = 0; ; shift += BITS) {
+            int bit = bit(hash, shift);
+            if ((node.dataMap & bit) != 0) {
+                int i = index(node.dataMap, bit);
+                return node.keys[i] == key ? (V) node.values[i] : null;
+            }
+            if ((node.nodeMap & bit) == 0) {
+                return null;
+            }
+            node = node.children[index(node.nodeMap, bit)];
+        }
+    }
+
+    /**
+     * retourne une table identique à celle-ci, si ce n'est que la clef donnée y est associée à la valeur donnée
+     * @param key la clef
+     * @param value la valeur
+     * @return la nouvelle table
+     * @throws NullPointerException si la valeur est nulle
+     */
+    IntMap<V> with(int key, V value) {
+        Objects.requireNonNull(value);
+        int newSize = get(key) == null ? size + 1 : size;
+        return new IntMap<>(with(root, key, hash(key), value, 0), newSize);
+    }
+
+    /**
+     * retourne une table identique à celle-ci, si ce n'est que la clef donnée n'y est associée à aucune valeur
+     * @param key la clef
+     * @return la nouvelle table, ou celle-ci si la clef n'y figurait pas
+     */
+    IntMap<V> without(int key) {
+        if (get(key) == null) {
+            return this;
+        }
+        return new IntMap<>(without(root, key, hash(key), 0), size - 1);
+    }
+
+    /**
+     * retourne un itérateur sur les valeurs de la table, dans un ordre quelconque mais déterministe
+     * @return un itérateur sur les valeurs
+     */
+    Iterator<V> values() {
+        return new ValueIterator<>(root);
+    }
+
+    /**
+     * retourne les clefs de la table, dans le même ordre que les valeurs
+     * @return le tableau (propre à l'appelant) des clefs
+     */
+    int[] keys() {
+        int[] keys = new int[size];
+        addKeys(root, keys, 0);
+        return keys;
+    }
+
+    /**
+     * copie les clefs du nœud donné, puis celles de ses sous-arbres, dans le tableau donné à partir de l'index donné
+     * @return l'index suivant la dernière clef copiée
+     */
+    private static int addKeys(Node node, int[] keys, int from) {
+        System.arraycopy(node.keys, 0, keys, from, node.keys.length);
+        int next = from + node.keys.length;
+        for (Node child : node.children) {
+            next = addKeys(child, keys, next);
+        }
+        return next;
+    }
+
+    /**
+     * bijection mélangeant les bits d'une clef (multiplication par une constante impaire)
+     * @param key la clef
+     * @return la clef mélangée
+     */
+    static int hash(int key) {
+        return key * 0x9E37_79B9;
+    }
+
+    /**
+     * retourne le bit de la case correspondant à la clef mélangée donnée au niveau donné
+     * @param hash la clef mélangée
+     * @param shift le décalage correspondant au niveau
+     * @return le bit de la case
+     */
+    static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * retourne l'index compact de la case de bit donné parmi les cases occupées de la table de bits donnée
+     * @param bitmap la table de bits
+     * @param bit le bit de la case
+     * @return l'index compact
+     */
+    static int index(int bitmap, int bit) {
+        return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    /**
+     * retourne le nœud donné dans lequel la clef donnée est associée à la valeur donnée
+     * @param node le nœud
+     * @param key la clef
+     * @param hash la clef mélangée
+     * @param value la valeur
+     * @param shift le décalage correspondant au niveau du nœud
+     * @return le nouveau nœud
+     */
+    private static Node with(Node node, int key, int hash, Object value, int shift) {
+        int bit = bit(hash, shift);
+        if ((node.dataMap & bit) != 0) {
+            int i = index(node.dataMap, bit);
+            if (node.keys[i] == key) {
+                Object[] values = node.values.clone();
+                values[i] = value;
+                return new Node(node.dataMap, node.nodeMap, node.keys, values, node.children);
+            }
+            // deux clefs dans la même case : elles descendent dans un nouveau sous-arbre
+            Node child = pair(node.keys[i], hash(node.keys[i]), node.values[i], key, hash, value, shift + BITS);
+            int j = index(node.nodeMap, bit);
+            return new Node(node.dataMap ^ bit, node.nodeMap | bit,
+                    removed(node.keys, i), removed(node.values, i), inserted(node.children, j, child));
+        }
+        if ((node.nodeMap & bit) != 0) {
+            int j = index(node.nodeMap, bit);
+            Node[] children = node.children.clone();
+            children[j] = with(children[j], key, hash, value, shift + BITS);
+            return new Node(node.dataMap, node.nodeMap, node.keys, node.values, children);
+        }
+        int i = index(node.dataMap, bit);
+        return new Node(node.dataMap | bit, node.nodeMap,
+                inserted(node.keys, i, key), inserted(node.values, i, value), node.children);
+    }
+
+    /**
+     * retourne le sous-arbre contenant les deux associations données, dont les clefs sont différentes
+     * @param shift le décalage correspondant au niveau du sous-arbre
+     * @return le sous-arbre
+     */
+    private static Node pair(int key1, int hash1, Object value1, int key2, int hash2, Object value2, int shift) {
+        int bit1 = bit(hash1, shift);
+        int bit2 = bit(hash2, shift);
+        if (bit1 == bit2) {
+            return new Node(0, bit1, new int[0], new Object[0],
+                    new Node[]{pair(key1, hash1, value1, key2, hash2, value2, shift + BITS)});
+        }
+        // les cases sont rangées par numéro (le bit de la case 31 est négatif, il ne faut pas comparer les bits)
+        return ((hash1 >>> shift) & MASK) < ((hash2 >>> shift) & MASK)
+                ? new Node(bit1 | bit2, 0, new int[]{key1, key2}, new Object[]{value1, value2}, new Node[0])
+                : new Node(bit1 | bit2, 0, new int[]{key2, key1}, new Object[]{value2, value1}, new Node[0]);
+    }
+
+    /**
+     * retourne le nœud donné privé de l'association de clef donnée, qui doit y figurer
+     * @param node le nœud
+     * @param key la clef
+     * @param hash la clef mélangée
+     * @param shift le décalage correspondant au niveau du nœud
+     * @return le nouveau nœud
+     */
+    private static Node without(Node node, int key, int hash, int shift) {
+        int bit = bit(hash, shift);
+        if ((node.dataMap & bit) != 0) {
+            int i = index(node.dataMap, bit);
+            return new Node(node.dataMap ^ bit, node.nodeMap,
+                    removed(node.keys, i), removed(node.values, i), node.children);
+        }
+        int j = index(node.nodeMap, bit);
+        Node child = without(node.children[j], key, hash, shift + BITS);
+        if (child.nodeMap == 0 && Integer.bitCount(child.dataMap) == 1) {
+            // un sous-arbre réduit à une association remonte dans ce nœud
+            int i = index(node.dataMap, bit);
+            return new Node(node.dataMap | bit, node.nodeMap ^ bit,
+                    inserted(node.keys, i, child.keys[0]), inserted(node.values, i, child.values[0]),
+                    removed(node.children, j));
+        }
+        Node[] children = node.children.clone();
+        children[j] = child;
+        return new Node(node.dataMap, node.nodeMap, node.keys, node.values, children);
+    }
+
+    /**
+     * retourne une copie du tableau donné dans laquelle l'élément donné a été inséré à l'index donné
+     */
+    static int[] inserted(int[] array, int index, int element) {
+        int[] result = new int[array.length + 1];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = element;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+
+    static <T> T[] inserted(T[] array, int index, T element) {
+        T[] result = Arrays.copyOf(array, array.length + 1);
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        result[index] = element;
+        return result;
+    }
+
+    /**
+     * retourne une copie du tableau donné privée de l'élément d'index donné
+     */
+    static int[] removed(int[] array, int index) {
+        int[] result = new int[array.length - 1];
+        System.arraycopy(array, 0, result, 0, index);
+        System.arraycopy(array, index + 1, result, index, result.length - index);
+        return result;
+    }
+
+    static <T> T[] removed(T[] array, int index) {
+        T[] result = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, index + 1, result, index, result.length - index);
+        return result;
+    }
+
+    /**
+     * ValueIterator :
+     * parcours en profondeur de l'arbre, les associations d'un nœud avant ses sous-arbres
+     */
+    private static final class ValueIterator<V> implements Iterator<V> {
+        private final Node[] nodes = new Node[MAX_DEPTH + 1];
+        // prochaine association, puis prochain sous-arbre, à visiter dans chaque nœud de la pile
+        private final int[] nextValue = new int[MAX_DEPTH + 1];
+        private final int[] nextChild = new int[MAX_DEPTH + 1];
+        private int depth = 0;
+
+        private ValueIterator(Node root) {
+            nodes[0] = root;
+            advance();
+        }
+
+        /**
+         * descend jusqu'au prochain nœud ayant une association non visitée, ou vide la pile s'il n'y en a plus
+         */
+        private void advance() {
+            while (depth >= 0) {
+                Node node = nodes[depth];
+                if (nextValue[depth] < node.values.length) {
+                    return;
+                }
+                if (nextChild[depth] < node.children.length) {
+                    Node child = node.children[nextChild[depth]++];
+                    depth += 1;
+                    nodes[depth] = child;
+                    nextValue[depth] = 0;
+                    nextChild[depth] = 0;
+                } else {
+                    nodes[depth] = null;
+                    depth -= 1;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return depth >= 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            V value = (V) nodes[depth].values[nextValue[depth]++];
+            advance();
+            return value;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package ch.epfl.chacun;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * LegalMoves :
+ * détermine les occupants qu'il serait possible de poser sur une tuile si elle était placée, sans construire
+ * le plateau résultant : l'occupation de chaque aire de la tuile est déduite des aires voisines auxquelles ses
+ * zones seraient connectées.
+ *
+ * @author Rayan Berrada (378940)
+ * @author Jens Cancio (379510)
+ */
+final class LegalMoves {
+    // nombre maximum de zones sur une tuile (identifiants locaux de 0 à 9)
+    private static final int MAX_ZONES = 10;
+    // nombre maximum de connexions d'une sorte : 4 côtés, 2 prés par côté rivière
+    private static final int MAX_CONNECTIONS = 8;
+
+    /**
+     * Constructeur vide (classe non instantiable)
+     */
+    private LegalMoves() {}
+
+    /**
+     * Occupancy :
+     * partition, pour une sorte d'aire, des zones de la tuile à placer selon les aires du plateau auxquelles elles
+     * seraient connectées, avec l'occupation de chaque groupe
+     */
+    private static final class Occupancy {
+        private final int[] parent = new int[MAX_ZONES];
+        private final boolean[] occupied = new boolean[MAX_ZONES];
+        private final Area<?>[] areas = new Area<?>[MAX_CONNECTIONS];
+        private final int[] areaZones = new int[MAX_CONNECTIONS];
+        private int connectionCount = 0;
+
+        /**
+         * crée une partition où chaque zone est seule et inoccupée
+         */
+        private Occupancy() {
+            for (int i = 0; i < MAX_ZONES; i += 1) parent[i] = i;
+        }
+
+        /**
+         * retourne le représentant du groupe de la zone d'identifiant local donné
+         * @param localId l'identifiant local
+         * @return le représentant de son groupe
+         */
+        private int root(int localId) {
+            while (parent[localId] != localId) localId = parent[localId];
+            return localId;
+        }
+
+        /**
+         * réunit les groupes des deux zones données
+         * @param z1 la première zone de la tuile
+         * @param z2 la seconde zone de la tuile
+         */
+        private void union(Zone z1, Zone z2) {
+            union(z1.localId(), z2.localId());
+        }
+
+        private void union(int localId1, int localId2) {
+            int r1 = root(localId1);
+            int r2 = root(localId2);
+            if (r1 != r2) {
+                parent[r2] = r1;
+                occupied[r1] |= occupied[r2];
+            }
+        }
+
+        /**
+         * connecte la zone donnée de la tuile à l'aire donnée du plateau ; les zones de la tuile connectées à une
+         * même aire appartiennent au même groupe
+         * @param zone la zone de la tuile
+         * @param area l'aire du plateau
+         */
+        private void connect(Zone zone, Area<?> area) {
+            int localId = zone.localId();
+            for (int i = 0; i < connectionCount; i += 1) {
+                // les aires d'une partition sont uniques, l'identité suffit
+                if (areas[i] == area) union(areaZones[i], localId);
+            }
+            areas[connectionCount] = area;
+            areaZones[connectionCount] = localId;
+            connectionCount += 1;
+            if (area.isOccupied()) occupied[root(localId)] = true;
+        }
+
+        /**
+         * retourne vrai ssi l'aire qui contiendrait la zone donnée serait occupée
+         * @param zone la zone de la tuile
+         * @return vrai ssi cette aire serait occupée
+         */
+        private boolean isOccupied(Zone zone) {
+            return occupied[root(zone.localId())];
+        }
+    }
+
+    /**
+     * retourne l'ensemble des occupants que le joueur pourrait poser sur la tuile donnée juste après l'avoir
+     * placée sur le plateau donné, selon les mêmes règles que GameState.lastTilePotentialOccupants
+     * @param board le plateau avant le placement
+     * @param placedTile la tuile placée, dont le placement doit être légal
+     * @param freePawns le nombre de pions en main du placeur
+     * @param freeHuts le nombre de huttes en main du placeur
+     * @return l'ensemble des occupants possibles
+     */
+    static Set<Occupant> potentialOccupants(Board board, PlacedTile placedTile, int freePawns, int freeHuts) {
+        Set<Occupant> occupants = new HashSet<>();
+        if (freePawns <= 0 && freeHuts <= 0) return occupants;
+
+        Occupancy forests = new Occupancy();
+        Occupancy meadows = new Occupancy();
+        Occupancy rivers = new Occupancy();
+        Occupancy waters = new Occupancy();
+
+        for (Zone zone : placedTile.tile().zones()) {
+            if (zone instanceof Zone.River river && river.hasLake()) waters.union(river, river.lake());
+        }
+
+        for (Direction direction : Direction.ALL) {
+            PlacedTile neighbor = board.tileAt(Pos.packedNeighbor(placedTile.pos().packed(), direction));
+            if (neighbor == null) continue;
+            TileSide side = placedTile.side(direction);
+            TileSide neighborSide = neighbor.side(direction.opposite());
+            // mêmes connexions que ZonePartitions.Builder.connectSides
+            switch (side) {
+                case TileSide.Forest(Zone.Forest f1) when neighborSide instanceof TileSide.Forest(Zone.Forest f2) ->
+                        forests.connect(f1, board.forestArea(f2));
+                case TileSide.Meadow(Zone.Meadow m1) when neighborSide instanceof TileSide.Meadow(Zone.Meadow m2) ->
+                        meadows.connect(m1, board.meadowArea(m2));
+                case TileSide.River(Zone.Meadow m1, Zone.River r1, Zone.Meadow m2)
+                        when neighborSide instanceof TileSide.River(Zone.Meadow n1, Zone.River r2, Zone.Meadow n2) -> {
+                    meadows.connect(m1, board.meadowArea(n2));
+                    meadows.connect(m2, board.meadowArea(n1));
+                    rivers.connect(r1, board.riverArea(r2));
+                    waters.connect(r1, board.riverSystemArea(r2));
+                }
+                default -> throw new IllegalArgumentException();
+            }
+        }
+
+        for (Zone zone : placedTile.tile().zones()) {
+            switch (zone) {
+                case Zone.Forest forest -> {
+                    if (freePawns > 0 && !forests.isOccupied(forest))
+                        occupants.add(new Occupant(Occupant.Kind.PAWN, forest.id()));
+                }
+                case Zone.Meadow meadow -> {
+                    if (freePawns > 0 && !meadows.isOccupied(meadow))
+                        occupants.add(new Occupant(Occupant.Kind.PAWN, meadow.id()));
+                }
+                case Zone.Water water -> {
+                    if (water instanceof Zone.River river && freePawns > 0 && !rivers.isOccupied(river))
+                        occupants.add(new Occupant(Occupant.Kind.PAWN, river.id()));
+                    if (freeHuts > 0 && !waters.isOccupied(water)
+                            && !(water instanceof Zone.River river && river.hasLake()))
+                        occupants.add(new Occupant(Occupant.Kind.HUT, water.id()));
+                }
+            }
+        }
+        return occupants;
+    }
+}
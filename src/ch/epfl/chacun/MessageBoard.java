@@ -1,6 +1,7 @@
 package ch.epfl.chacun;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  *  MessageBoard :
@@ -14,28 +15,117 @@ import java.util.*;
 
 public record MessageBoard(TextMaker textMaker, List<Message> messages) {
     /**
-     * constructeur compact de MessageBoard garantit l'immuabilité de la classe
+     * constructeur compact de MessageBoard garantit l'immuabilité de la classe ; la liste reçue n'est copiée que si
+     * elle ne provient pas déjà d'un tableau d'affichage
      * @param messages:  la liste des messages affichés sur le tableau, du plus ancien au plus récent.
      */
     public MessageBoard {
-        messages = List.copyOf(messages);
+        messages = MessageLog.copyOf(messages);
     }
+
+    /**
+     * MessageLog :
+     * liste immuable des messages, vue sur le début d'un tableau partagé par tous les tableaux d'affichage qui en
+     * dérivent. Ajouter un message l'écrit directement à la suite dans le tableau si aucun autre ajout n'y a déjà
+     * été fait depuis cette vue, et ne copie le tableau que sinon, ou lorsqu'il est plein. Chaque vue connaît de
+     * plus le total des points de chaque joueur.
+     */
+    private static final class MessageLog extends AbstractList<Message> implements RandomAccess {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final Message[] messages;
+        // nombre de cases du tableau déjà attribuées, communes à toutes les vues qui le partagent
+        private final AtomicInteger used;
+        private final int size;
+        // points totaux de chaque joueur, indexés par PlayerColor.ordinal()
+        private final int[] points;
+
+        /**
+         * crée la vue sur les size premiers messages du tableau donné
+         * @param messages le tableau partagé
+         * @param used le nombre de cases attribuées de ce tableau
+         * @param size le nombre de messages de la vue
+         * @param points les points totaux de chaque joueur dans ces messages
+         */
+        private MessageLog(Message[] messages, AtomicInteger used, int size, int[] points) {
+            this.messages = messages;
+            this.used = used;
+            this.size = size;
+            this.points = points;
+        }
+
+        /**
+         * retourne une liste de messages contenant ceux de la liste donnée, qui n'est copiée que si elle n'est pas
+         * déjà une telle liste
+         * @param messages la liste de messages
+         * @return une liste immuable contenant ces messages
+         * @throws NullPointerException si la liste ou l'un de ses messages est nul
+         */
+        private static MessageLog copyOf(List<Message> messages) {
+            if (messages instanceof MessageLog log) return log;
+            Message[] array = messages.toArray(new Message[Math.max(INITIAL_CAPACITY, messages.size())]);
+            int[] points = new int[PlayerColor.ALL.size()];
+            for (int i = 0; i < messages.size(); i += 1) {
+                addPoints(points, Objects.requireNonNull(array[i]));
+            }
+            return new MessageLog(array, new AtomicInteger(messages.size()), messages.size(), points);
+        }
+
+        /**
+         * ajoute aux totaux donnés les points remportés par les gagnants du message donné
+         * @param points les totaux, indexés par PlayerColor.ordinal()
+         * @param message le message
+         */
+        private static void addPoints(int[] points, Message message) {
+            for (PlayerColor scorer : message.scorers()) points[scorer.ordinal()] += message.points();
+        }
+
+        /**
+         * retourne la liste des messages de cette liste suivis du message donné
+         * @param message le message ajouté
+         * @return la nouvelle liste
+         */
+        private MessageLog with(Message message) {
+            int[] newPoints = points.clone();
+            addPoints(newPoints, message);
+            if (size < messages.length && used.compareAndSet(size, size + 1)) {
+                messages[size] = message;
+                return new MessageLog(messages, used, size + 1, newPoints);
+            }
+            Message[] newMessages = new Message[Math.max(INITIAL_CAPACITY, size * 2)];
+            System.arraycopy(messages, 0, newMessages, 0, size);
+            newMessages[size] = message;
+            return new MessageLog(newMessages, new AtomicInteger(size + 1), size + 1, newPoints);
+        }
+
+        @Override
+        public Message get(int index) {
+            return messages[Objects.checkIndex(index, size)];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * retourne un tableau d'affichage identique au récepteur, si ce n'est que le message donné y a été ajouté
+     * @param message: le nouveau message
+     * @return le nouveau tableau d'affichage
+     */
+    private MessageBoard withMessage(Message message) {
+        return new MessageBoard(textMaker, ((MessageLog) messages).with(message));
+    }
+
     /**
      * @return une table associant à tous les joueurs figurant dans les gagnants (scorers) d'au moins un message, le nombre total de points obtenus
      */
     public Map<PlayerColor, Integer> points(){
-        Map<PlayerColor, Integer> p = new HashMap<>();
-        for (Message message: messages){
-            if (message.points>0){
-                for (PlayerColor scorer: message.scorers){
-                    if (!p.containsKey(scorer)) {
-                        p.put(scorer, message.points);
-                    }
-                    else {
-                        p.put(scorer, message.points()+p.get(scorer));
-                    }
-                }
-            }
+        int[] totals = ((MessageLog) messages).points;
+        Map<PlayerColor, Integer> p = new EnumMap<>(PlayerColor.class);
+        for (PlayerColor player : PlayerColor.ALL) {
+            if (totals[player.ordinal()] > 0) p.put(player, totals[player.ordinal()]);
         }
         return p;
     }
@@ -44,7 +134,7 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
      * @return retourne un tableau d'affichage identique au récepteur, sauf si la forêt donnée est occupée, auquel cas le tableau contient un nouveau message signalant que ses occupants majoritaires ont remporté les points associés à sa fermeture,
      */
     public MessageBoard withScoredForest(Area<Zone.Forest> forest){
-        if(!forest.isOccupied()) return new MessageBoard(textMaker, messages);
+        if(!forest.isOccupied()) return this;
 
         Set<PlayerColor> scorers=forest.majorityOccupants();
 
@@ -52,14 +142,11 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
         int pointsEarned=Points.forClosedForest(forest.tileIds().size(),mushroomCount);
         Set<Integer> tileIds=forest.tileIds();
 
-        String messageText=textMaker.playersScoredForest(scorers,pointsEarned,mushroomCount,tileIds.size());
+        Event event=new Event.PlayersScoredForest(scorers,pointsEarned,mushroomCount,tileIds.size());
 
-        List<Message> newMessagesHistory=new ArrayList<>(messages);
+        Message newMessage= new Message(textMaker,event,pointsEarned,scorers,tileIds);
 
-        Message newMessage= new Message(messageText,pointsEarned,scorers,tileIds);
-        newMessagesHistory.add(newMessage);
-
-        return new MessageBoard(textMaker, newMessagesHistory);
+        return withMessage(newMessage);
     }
     /**
      * @param forest: une aire de Forest
@@ -69,10 +156,8 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
     public MessageBoard withClosedForestWithMenhir(PlayerColor player, Area<Zone.Forest> forest){
         Set<PlayerColor> scorers= new HashSet<>();
         Set<Integer> tileIds=forest.tileIds();
-        Message message= new Message(textMaker.playerClosedForestWithMenhir(player),0,scorers,tileIds);
-        List<Message> newMessages= new ArrayList<>(this.messages);
-        newMessages.add(message);
-        return new MessageBoard(this.textMaker,newMessages);
+        Message message= new Message(textMaker,new Event.PlayerClosedForestWithMenhir(player),0,scorers,tileIds);
+        return withMessage(message);
 
     }
     /**
@@ -80,7 +165,7 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
      * @return retourne un tableau d'affichage identique au récepteur, sauf si la rivière donnée est occupée, auquel cas le tableau contient un nouveau message signalant que ses occupants majoritaires ont remporté les points associés à sa fermeture,
      */
     public MessageBoard withScoredRiver(Area<Zone.River> river){
-        if(!river.isOccupied()) return new MessageBoard(textMaker, messages);
+        if(!river.isOccupied()) return this;
 
         Set<PlayerColor> scorers=river.majorityOccupants();
 
@@ -88,14 +173,11 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
         int pointsEarned=Points.forClosedRiver(river.tileIds().size(),fishCount);
         Set<Integer> tileIds=river.tileIds();
 
-        String messageText=textMaker.playersScoredRiver(scorers,pointsEarned,fishCount,tileIds.size());
-
-        List<Message> newMessagesHistory=new ArrayList<>(messages);
+        Event event=new Event.PlayersScoredRiver(scorers,pointsEarned,fishCount,tileIds.size());
 
-        Message newMessage= new Message(messageText,pointsEarned,scorers,tileIds);
-        newMessagesHistory.add(newMessage);
+        Message newMessage= new Message(textMaker,event,pointsEarned,scorers,tileIds);
 
-        return new MessageBoard(textMaker, newMessagesHistory);
+        return withMessage(newMessage);
     }
     /**
      * @param adjacentMeadow: une aire de Meadow
@@ -121,17 +203,15 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
         }
         int pointsEarned= Points.forMeadow(mammothCount,aurochsCOunt,deerCount);
         if(pointsEarned<=0){
-            return new MessageBoard(textMaker,messages);
+            return this;
         }
         Set<Integer> tileIds=adjacentMeadow.tileIds();
         Map<Animal.Kind, Integer> animalMap= new HashMap<>();
         animalMap.put(Animal.Kind.MAMMOTH,mammothCount);
         animalMap.put(Animal.Kind.AUROCHS,aurochsCOunt);
         animalMap.put(Animal.Kind.DEER,deerCount);
-        Message newMessage= new Message(textMaker().playerScoredHuntingTrap(scorer,pointsEarned,animalMap),pointsEarned,Set.of(scorer),tileIds);
-        List<Message> newMessagesHistory=new ArrayList<>(messages);
-        newMessagesHistory.add(newMessage);
-        return new MessageBoard(textMaker,newMessagesHistory);
+        Message newMessage= new Message(textMaker,new Event.PlayerScoredHuntingTrap(scorer,pointsEarned,animalMap),pointsEarned,Set.of(scorer),tileIds);
+        return withMessage(newMessage);
     }
     /**
      * @param riverSystem: une aire de Water
@@ -140,27 +220,18 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
      */
 
     public MessageBoard withScoredLogboat(PlayerColor scorer, Area<Zone.Water> riverSystem){
-        int lakeCount = 0;
-
-        for (Zone.Water riverAndLakes: riverSystem.zones()){
-            if (riverAndLakes instanceof Zone.Lake){
-                lakeCount+=1;
-            }
-        }
+        int lakeCount = Area.lakeCount(riverSystem);
 
         int pointsEarned = Points.forLogboat(lakeCount);
         Set<Integer> tileIds=riverSystem.tileIds();
 
-        String messageText=textMaker.playerScoredLogboat(scorer,pointsEarned,lakeCount);
-        List<Message> newMessagesHistory=new ArrayList<>(messages);
-
+        Event event=new Event.PlayerScoredLogboat(scorer,pointsEarned,lakeCount);
         Set<PlayerColor> scorers = new HashSet<>();
         scorers.add(scorer);
 
-        Message newMessage= new Message(messageText,pointsEarned,scorers,tileIds);
-        newMessagesHistory.add(newMessage);
+        Message newMessage= new Message(textMaker,event,pointsEarned,scorers,tileIds);
 
-        return new MessageBoard(textMaker, newMessagesHistory);
+        return withMessage(newMessage);
 
     }
     /**
@@ -169,11 +240,11 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
      * @return retourne un tableau d'affichage identique au récepteur, sauf si le pré donné est occupé et que les points qu'il rapporte à ses occupants majoritaires — calculés en faisant comme si les animaux annulés donnés n'existaient pas — sont supérieurs à 0, auquel cas le tableau contient un nouveau message signalant que ces joueurs-là ont remporté les points en question,
      */
     public MessageBoard withScoredMeadow(Area<Zone.Meadow> meadow, Set<Animal> cancelledAnimals){
-        if(!meadow.isOccupied()) return new MessageBoard(textMaker, messages);
+        if(!meadow.isOccupied()) return this;
 
         Set<PlayerColor> scorers=meadow.majorityOccupants();
 
-        if(scorers.isEmpty()) return new MessageBoard(textMaker, messages);
+        if(scorers.isEmpty()) return this;
 
         Set<Animal> animalSet = Area.animals(meadow,cancelledAnimals);
         int mammothCount = 0;
@@ -190,7 +261,7 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
             }
         }
         int pointsEarned = Points.forMeadow(mammothCount,aurochsCount,deerCount);
-        if (pointsEarned==0){ return new MessageBoard(textMaker, messages);}
+        if (pointsEarned==0){ return this;}
         Set<Integer> tileIds=meadow.tileIds();
         Map<Animal.Kind,Integer> animalMap = new HashMap<>();
         animalMap.put(Animal.Kind.MAMMOTH,mammothCount);
@@ -198,31 +269,27 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
         animalMap.put(Animal.Kind.DEER,deerCount);
         animalMap.put(Animal.Kind.TIGER,tigerCount);
 
-        String messageText=textMaker.playersScoredMeadow(scorers,pointsEarned,animalMap);
-        List<Message> newMessagesHistory=new ArrayList<>(messages);
-        Message newMessage= new Message(messageText,pointsEarned,scorers,tileIds);
-        newMessagesHistory.add(newMessage);
+        Event event=new Event.PlayersScoredMeadow(scorers,pointsEarned,animalMap);
+        Message newMessage= new Message(textMaker,event,pointsEarned,scorers,tileIds);
 
-        return new MessageBoard(textMaker, newMessagesHistory);
+        return withMessage(newMessage);
     }
     /**
      * @param riverSystem: une aire de Water
      * @return  retourne un tableau d'affichage identique au récepteur, sauf si le réseau hydrographique donné est occupé et que les points qu'il rapporte à ses occupants majoritaires sont supérieurs à 0, auquel cas le tableau contient un nouveau message signalant que ces joueurs-là ont remporté les points en question
     */
     public MessageBoard withScoredRiverSystem(Area<Zone.Water> riverSystem){
-        if(!riverSystem.isOccupied() ||Area.riverSystemFishCount(riverSystem)==0 ) return new MessageBoard(textMaker, messages);
+        if(!riverSystem.isOccupied() ||Area.riverSystemFishCount(riverSystem)==0 ) return this;
 
         Set<PlayerColor> scorers=riverSystem.majorityOccupants();
         int fishCount = Area.riverSystemFishCount(riverSystem);
         int pointsEarned = Points.forRiverSystem(fishCount);
-        if(pointsEarned==0) return new MessageBoard(textMaker, messages);
+        if(pointsEarned==0) return this;
         Set<Integer> tileIds=riverSystem.tileIds();
-        String messageText=textMaker.playersScoredRiverSystem(scorers,pointsEarned,fishCount);
-        List<Message> newMessagesHistory=new ArrayList<>(messages);
-        Message newMessage= new Message(messageText,pointsEarned,scorers,tileIds);
-        newMessagesHistory.add(newMessage);
+        Event event=new Event.PlayersScoredRiverSystem(scorers,pointsEarned,fishCount);
+        Message newMessage= new Message(textMaker,event,pointsEarned,scorers,tileIds);
 
-        return new MessageBoard(textMaker, newMessagesHistory);
+        return withMessage(newMessage);
 
     }
     /**
@@ -232,7 +299,7 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
      */
     public MessageBoard withScoredPitTrap(Area<Zone.Meadow> adjacentMeadow, Set<Animal> cancelledAnimals){
         Set<PlayerColor> majorityOccupants= adjacentMeadow.majorityOccupants();
-        if(majorityOccupants.isEmpty()) return new MessageBoard(textMaker, messages);
+        if(majorityOccupants.isEmpty()) return this;
         Set<Animal> animalsSet= Area.animals(adjacentMeadow,cancelledAnimals);
         int mammothCount=0,aurochsCOunt=0,deerCount=0,tigerCount=0;
         for(Animal animal:animalsSet){
@@ -250,46 +317,36 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
             }
         }
         int pointsEarned= Points.forMeadow(mammothCount,aurochsCOunt,deerCount);
-        if (pointsEarned==0){ return new MessageBoard(textMaker, messages);}
+        if (pointsEarned==0){ return this;}
         Map<Animal.Kind, Integer> animalMap= new HashMap<>();
         animalMap.put(Animal.Kind.MAMMOTH,mammothCount);
         animalMap.put(Animal.Kind.AUROCHS,aurochsCOunt);
         animalMap.put(Animal.Kind.DEER,deerCount);
         animalMap.put(Animal.Kind.TIGER,tigerCount);
         Set<Integer> tileIds=adjacentMeadow.tileIds();
-        Message newMessage= new Message(textMaker.playersScoredPitTrap(majorityOccupants,pointsEarned,animalMap),pointsEarned,majorityOccupants,tileIds);
+        Message newMessage= new Message(textMaker,new Event.PlayersScoredPitTrap(majorityOccupants,pointsEarned,animalMap),pointsEarned,majorityOccupants,tileIds);
         if(pointsEarned<=0 || !adjacentMeadow.isOccupied()){
-            return new MessageBoard(textMaker,messages);
+            return this;
         }
-        List<Message> newMessagesHistory=new ArrayList<>(messages);
-        newMessagesHistory.add(newMessage);
-        return new MessageBoard(textMaker,newMessagesHistory);
+        return withMessage(newMessage);
     }
     /**
      * @param riverSystem: une aire de Water
      * @return  retourne un tableau d'affichage identique au récepteur, sauf si le réseau hydrographique donné, qui contient le radeau, est occupé, auquel cas le tableau contient un nouveau message signalant que ses occupants majoritaires ont remporté les points correspondants
      */
     public MessageBoard withScoredRaft(Area<Zone.Water> riverSystem){
-        if(!riverSystem.isOccupied()) return new MessageBoard(textMaker, messages);
+        if(!riverSystem.isOccupied()) return this;
 
         Set<PlayerColor> scorers=riverSystem.majorityOccupants();
-        int lakeCount = 0;
-
-        for (Zone.Water riverAndLakes: riverSystem.zones()){
-            if (riverAndLakes instanceof Zone.Lake){
-                lakeCount+=1;
-            }
-        }
+        int lakeCount = Area.lakeCount(riverSystem);
         int pointsEarned = Points.forRaft(lakeCount);
         Set<Integer> tileIds=riverSystem.tileIds();
 
-        String messageText=textMaker.playersScoredRaft(scorers,pointsEarned,lakeCount);
+        Event event=new Event.PlayersScoredRaft(scorers,pointsEarned,lakeCount);
 
-        List<Message> newMessagesHistory=new ArrayList<>(messages);
-        Message newMessage= new Message(messageText,pointsEarned,scorers,tileIds);
-        newMessagesHistory.add(newMessage);
+        Message newMessage= new Message(textMaker,event,pointsEarned,scorers,tileIds);
 
-        return new MessageBoard(textMaker, newMessagesHistory);
+        return withMessage(newMessage);
 
 
 
@@ -302,22 +359,216 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
     public MessageBoard withWinners(Set<PlayerColor> winners, int points){
         if(points<0) throw new IllegalArgumentException();
         if(points>0&& winners.isEmpty()) throw new IllegalArgumentException();
-        List<Message> newMessages = new ArrayList<>(messages);
-        String winnersMessageText = textMaker.playersWon(winners,points);
-        Message winnersMessage = new Message(winnersMessageText,0,Collections.emptySet(),Collections.emptySet());
-        newMessages.add(winnersMessage);
-        return new MessageBoard(textMaker,newMessages);
+        Event event = new Event.PlayersWon(winners,points);
+        Message winnersMessage = new Message(textMaker,event,0,Collections.emptySet(),Collections.emptySet());
+        return withMessage(winnersMessage);
     }
 
-    /*
+
+    /**
+     *  Event :
+     *  événement à l'origine d'un message, dont il contient toutes les données structurées. Le texte d'un événement
+     *  n'est produit par un TextMaker que lorsqu'on le demande, ce qui évite de construire des chaînes que personne
+     *  ne lit (simulation, recherche).
+     */
+    public sealed interface Event {
+        /**
+         * retourne le texte décrivant l'événement, produit par le TextMaker donné
+         * @param textMaker: le générateur de texte
+         * @return le texte de l'événement
+         */
+        String text(TextMaker textMaker);
+
+        /**
+         * le joueur donné a fermé une forêt contenant un menhir (voir TextMaker.playerClosedForestWithMenhir)
+         * @param player: le joueur
+         */
+        record PlayerClosedForestWithMenhir(PlayerColor player) implements Event {
+            @Override
+            public String text(TextMaker textMaker) {
+                return textMaker.playerClosedForestWithMenhir(player);
+            }
+        }
+
+        /**
+         * les joueurs donnés ont remporté les points d'une forêt fermée (voir TextMaker.playersScoredForest)
+         * @param scorers: les occupants majoritaires
+         * @param points: les points remportés
+         * @param mushroomGroupCount: le nombre de groupes de champignons
+         * @param tileCount: le nombre de tuiles de la forêt
+         */
+        record PlayersScoredForest(Set<PlayerColor> scorers, int points, int mushroomGroupCount, int tileCount)
+                implements Event {
+            public PlayersScoredForest {
+                scorers = Set.copyOf(scorers);
+            }
+
+            @Override
+            public String text(TextMaker textMaker) {
+                return textMaker.playersScoredForest(scorers, points, mushroomGroupCount, tileCount);
+            }
+        }
+
+        /**
+         * les joueurs donnés ont remporté les points d'une rivière fermée (voir TextMaker.playersScoredRiver)
+         * @param scorers: les occupants majoritaires
+         * @param points: les points remportés
+         * @param fishCount: le nombre de poissons
+         * @param tileCount: le nombre de tuiles de la rivière
+         */
+        record PlayersScoredRiver(Set<PlayerColor> scorers, int points, int fishCount, int tileCount)
+                implements Event {
+            public PlayersScoredRiver {
+                scorers = Set.copyOf(scorers);
+            }
+
+            @Override
+            public String text(TextMaker textMaker) {
+                return textMaker.playersScoredRiver(scorers, points, fishCount, tileCount);
+            }
+        }
+
+        /**
+         * le joueur donné a remporté les points de la fosse à pieux (voir TextMaker.playerScoredHuntingTrap)
+         * @param scorer: le joueur ayant posé la fosse
+         * @param points: les points remportés
+         * @param animals: le nombre d'animaux de chaque sorte
+         */
+        record PlayerScoredHuntingTrap(PlayerColor scorer, int points, Map<Animal.Kind, Integer> animals)
+                implements Event {
+            public PlayerScoredHuntingTrap {
+                animals = Map.copyOf(animals);
+            }
+
+            @Override
+            public String text(TextMaker textMaker) {
+                return textMaker.playerScoredHuntingTrap(scorer, points, animals);
+            }
+        }
+
+        /**
+         * le joueur donné a remporté les points de la pirogue (voir TextMaker.playerScoredLogboat)
+         * @param scorer: le joueur ayant posé la pirogue
+         * @param points: les points remportés
+         * @param lakeCount: le nombre de lacs du réseau hydrographique
+         */
+        record PlayerScoredLogboat(PlayerColor scorer, int points, int lakeCount) implements Event {
+            @Override
+            public String text(TextMaker textMaker) {
+                return textMaker.playerScoredLogboat(scorer, points, lakeCount);
+            }
+        }
+
+        /**
+         * les joueurs donnés ont remporté les points d'un pré (voir TextMaker.playersScoredMeadow)
+         * @param scorers: les occupants majoritaires
+         * @param points: les points remportés
+         * @param animals: le nombre d'animaux de chaque sorte
+         */
+        record PlayersScoredMeadow(Set<PlayerColor> scorers, int points, Map<Animal.Kind, Integer> animals)
+                implements Event {
+            public PlayersScoredMeadow {
+                scorers = Set.copyOf(scorers);
+                animals = Map.copyOf(animals);
+            }
+
+            @Override
+            public String text(TextMaker textMaker) {
+                return textMaker.playersScoredMeadow(scorers, points, animals);
+            }
+        }
+
+        /**
+         * les joueurs donnés ont remporté les points d'un réseau hydrographique
+         * (voir TextMaker.playersScoredRiverSystem)
+         * @param scorers: les occupants majoritaires
+         * @param points: les points remportés
+         * @param fishCount: le nombre de poissons
+         */
+        record PlayersScoredRiverSystem(Set<PlayerColor> scorers, int points, int fishCount) implements Event {
+            public PlayersScoredRiverSystem {
+                scorers = Set.copyOf(scorers);
+            }
+
+            @Override
+            public String text(TextMaker textMaker) {
+                return textMaker.playersScoredRiverSystem(scorers, points, fishCount);
+            }
+        }
+
+        /**
+         * les joueurs donnés ont remporté les points de la grande fosse à pieux
+         * (voir TextMaker.playersScoredPitTrap)
+         * @param scorers: les occupants majoritaires du pré contenant la fosse
+         * @param points: les points remportés
+         * @param animals: le nombre d'animaux de chaque sorte
+         */
+        record PlayersScoredPitTrap(Set<PlayerColor> scorers, int points, Map<Animal.Kind, Integer> animals)
+                implements Event {
+            public PlayersScoredPitTrap {
+                scorers = Set.copyOf(scorers);
+                animals = Map.copyOf(animals);
+            }
+
+            @Override
+            public String text(TextMaker textMaker) {
+                return textMaker.playersScoredPitTrap(scorers, points, animals);
+            }
+        }
+
+        /**
+         * les joueurs donnés ont remporté les points du radeau (voir TextMaker.playersScoredRaft)
+         * @param scorers: les occupants majoritaires du réseau hydrographique
+         * @param points: les points remportés
+         * @param lakeCount: le nombre de lacs du réseau hydrographique
+         */
+        record PlayersScoredRaft(Set<PlayerColor> scorers, int points, int lakeCount) implements Event {
+            public PlayersScoredRaft {
+                scorers = Set.copyOf(scorers);
+            }
+
+            @Override
+            public String text(TextMaker textMaker) {
+                return textMaker.playersScoredRaft(scorers, points, lakeCount);
+            }
+        }
+
+        /**
+         * les joueurs donnés ont remporté la partie (voir TextMaker.playersWon)
+         * @param winners: les gagnants
+         * @param points: leur nombre de points
+         */
+        record PlayersWon(Set<PlayerColor> winners, int points) implements Event {
+            public PlayersWon {
+                winners = Set.copyOf(winners);
+            }
+
+            @Override
+            public String text(TextMaker textMaker) {
+                return textMaker.playersWon(winners, points);
+            }
+        }
+    }
+
+    /**
      *  Message :
-     * enregistrement Message, imbriqué dans l'enregistrement MessageBoard
-     *  représente un message affiché sur le tableau d'affichage
+     *  classe Message, imbriquée dans l'enregistrement MessageBoard, immuable et se comportant comme un enregistrement
+     *  (text, points, scorers, tileIds). Un message créé par le tableau d'affichage mémorise l'événement qui l'a
+     *  produit et ne demande son texte au TextMaker qu'au premier appel de text().
      */
+    public static final class Message {
+        private final int points;
+        private final Set<PlayerColor> scorers;
+        private final Set<Integer> tileIds;
+        // événement et générateur du texte, nuls si le texte a été donné à la construction
+        private final Event event;
+        private final TextMaker textMaker;
+        // texte du message, calculé au premier appel de text() si nécessaire ; le calcul étant déterministe,
+        // une course entre fils d'exécution ne peut que le refaire
+        private String text;
 
-    public record Message(String text, int points, Set<PlayerColor> scorers,Set<Integer> tileIds){
         /**
-         * Constructeur compact de Message, qui vérifie que le texte passé n'est pas null, que les points ne sont pas inférieurs à 0, et copie les deux ensembles pour garantir l'immuabilité.
+         * Constructeur de Message, qui vérifie que le texte passé n'est pas null, que les points ne sont pas inférieurs à 0, et copie les deux ensembles pour garantir l'immuabilité.
          * @param text:  le texte du message
          * @param points: les points associés au message qui peuvent valoir 0, par exemple si le message ne signale pas un gain de points,
          * @param scorers: l'ensemble des joueurs ayant remportés les points, qui peut être vide si le message ne signale pas un gain de points
@@ -327,15 +578,108 @@ public record MessageBoard(TextMaker textMaker, List<Message> messages) {
          * @throws NullPointerException si les conditions suivantes ne se remplissant pas :
          *           - le text est null
          */
-        public Message{
-            if (text==null){
-                throw new NullPointerException();
+        public Message(String text, int points, Set<PlayerColor> scorers, Set<Integer> tileIds) {
+            this(null, null, Objects.requireNonNull(text), points, scorers, tileIds);
+        }
+
+        /**
+         * Constructeur de Message dont le texte sera produit à la demande, à partir de l'événement donné
+         * @param textMaker: le générateur de texte
+         * @param event: l'événement décrit par le message
+         * @param points: les points associés au message
+         * @param scorers: l'ensemble des joueurs ayant remporté les points
+         * @param tileIds: les identifiants des tuiles concernées par le message
+         */
+        private Message(TextMaker textMaker, Event event, int points, Set<PlayerColor> scorers, Set<Integer> tileIds) {
+            this(Objects.requireNonNull(textMaker), Objects.requireNonNull(event), null, points, scorers, tileIds);
+        }
+
+        private Message(TextMaker textMaker, Event event, String text, int points, Set<PlayerColor> scorers,
+                        Set<Integer> tileIds) {
+            Preconditions.checkArgument(points >= 0);
+            this.textMaker = textMaker;
+            this.event = event;
+            this.text = text;
+            this.points = points;
+            this.scorers = Set.copyOf(scorers);
+            this.tileIds = Set.copyOf(tileIds);
+        }
+
+        /**
+         * retourne le texte du message, produit lors du premier appel si le message a été créé à partir d'un événement
+         * @return le texte du message
+         */
+        public String text() {
+            String t = text;
+            if (t == null) {
+                t = event.text(textMaker);
+                text = t;
+            }
+            return t;
+        }
+
+        /**
+         * @return les points associés au message
+         */
+        public int points() {
+            return points;
+        }
+
+        /**
+         * @return l'ensemble des joueurs ayant remporté les points
+         */
+        public Set<PlayerColor> scorers() {
+            return scorers;
+        }
+
+        /**
+         * @return les identifiants des tuiles concernées par le message
+         */
+        public Set<Integer> tileIds() {
+            return tileIds;
+        }
+
+        /**
+         * retourne l'événement décrit par le message, ou null si le message a été créé à partir de son texte
+         * @return l'événement du message, éventuellement null
+         */
+        public Event event() {
+            return event;
+        }
+
+        /**
+         * deux messages sont égaux s'ils ont les mêmes points, joueurs et tuiles, et le même texte ; lorsqu'ils
+         * décrivent tous deux un événement à l'aide du même générateur de texte, leurs événements sont comparés
+         * à la place de leurs textes, qui ne sont alors pas produits
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Message that)
+                    || points != that.points
+                    || !scorers.equals(that.scorers)
+                    || !tileIds.equals(that.tileIds)) {
+                return false;
             }
-            if (points<0){
-                throw new IllegalArgumentException();
+            if (event != null && that.event != null && textMaker == that.textMaker) {
+                return event.equals(that.event);
             }
-            scorers = Set.copyOf(scorers);
-            tileIds = Set.copyOf(tileIds);
+            return text().equals(that.text());
+        }
+
+        /**
+         * le texte n'entre pas dans la valeur de hachage, afin de ne pas devoir le produire : un message créé à
+         * partir d'un événement peut être égal à un message créé à partir de son texte, et ne peut donc pas non
+         * plus hacher son événement
+         */
+        @Override
+        public int hashCode() {
+            return Objects.hash(points, scorers, tileIds);
+        }
+
+        @Override
+        public String toString() {
+            return "Message[text=" + text() + ", points=" + points + ", scorers=" + scorers
+                    + ", tileIds=" + tileIds + "]";
         }
     }
 }
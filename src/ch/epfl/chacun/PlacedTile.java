@@ -57,6 +57,13 @@ public record PlacedTile(Tile tile, PlayerColor placer, Rotation rotation, Pos p
     public TileSide side(Direction direction) {
         return tile.sides().get(direction.rotated(rotation.negated()).ordinal());
     }
+    /**
+     * retourne la signature des sortes de côtés de la tuile, en tenant compte de la rotation (voir Tile.sideSignature)
+     * @return la signature des sortes de côtés de la tuile placée
+     */
+    public int sideSignature() {
+        return tile.sideSignature(rotation);
+    }
     /**
      * retourne la zone de la tuile dont l'identifiant est celui donné, ou lève IllegalArgumentException si la tuile ne possède pas de zone avec cet identifiant
      * @param id: l'identifiant de la tuile
@@ -64,23 +71,17 @@ public record PlacedTile(Tile tile, PlayerColor placer, Rotation rotation, Pos p
      * @throws IllegalArgumentException: si la tuile ne possède pas de zone avec cet identifiant
      */
     public Zone zoneWithId(int id){
-        for(Zone zoneOfTile : tile().zones()) {
-            if(id==zoneOfTile.tileId()*10+zoneOfTile.localId()){
-                return zoneOfTile;
-            }
+        Zone zoneOfTile = tile.zoneWithLocalId(Zone.localId(id));
+        if (zoneOfTile == null || zoneOfTile.id() != id) {
+            throw new IllegalArgumentException();
         }
-        throw new IllegalArgumentException();
+        return zoneOfTile;
     }
     /** retourne a zone de la tuile ayant un pouvoir spécial, il y en a au plus une par tuile, ou null s'il n'y en a aucune
      * @return la zone de la tuile ayant un pouvoir spécial, il y en a au plus une par tuile, ou null s'il n'y en a aucune
      */
     public Zone specialPowerZone() {
-        for (Zone zoneOfTile : tile().zones()) {
-            if (zoneOfTile.specialPower() != null) {
-                return zoneOfTile;
-            }
-        }
-        return null;
+        return tile.specialPowerZone();
     }
     /**
      * retourne l'ensemble de tous les occupants potentiels de la tuile, ou un ensemble vide si la tuile est celle de départ qui se reconnaît au fait que son placeur est null
@@ -107,48 +108,21 @@ public record PlacedTile(Tile tile, PlayerColor placer, Rotation rotation, Pos p
      * @return l'ensemble, éventuellement vide, des zones forêts de la tuile
      */
     public Set<Zone.Forest> forestZones(){
-        Set<Zone.Forest> forestZones = new HashSet<>();
-        Set<Zone> zones = tile.zones();
-        for (Zone zonesOfTile: zones){
-            if (zonesOfTile instanceof Zone.Forest){
-                forestZones.add((Zone.Forest) zonesOfTile);
-            }
-
-        }
-        return forestZones;
-
+        return tile.forestZones();
     }
     /**
      * retourne l'ensemble, éventuellement vide, des zones prés de la tuile
      * @return l'ensemble, éventuellement vide, des zones prés de la tuile
      */
     public Set<Zone.Meadow> meadowZones(){
-        Set<Zone.Meadow> meadowZones = new HashSet<>();
-        Set<Zone> zones = tile.zones();
-        for (Zone zonesOfTile: zones){
-            if (zonesOfTile instanceof Zone.Meadow){
-                meadowZones.add((Zone.Meadow) zonesOfTile);
-            }
-
-        }
-        return meadowZones;
-
+        return tile.meadowZones();
     }
     /**
      * retourne l'ensemble, éventuellement vide, des zones rivières de la tuile
      * @return l'ensemble, éventuellement vide, des zones rivières de la tuile
      */
     public Set<Zone.River> riverZones(){
-        Set<Zone.River> riverZones = new HashSet<>();
-        Set<Zone> zones = tile.zones();
-        for (Zone zonesOfTile: zones){
-            if (zonesOfTile instanceof Zone.River){
-                riverZones.add((Zone.River) zonesOfTile);
-            }
-
-        }
-        return riverZones;
-
+        return tile.riverZones();
     }
     /**
      * qui retourne une tuile placée identique au récepteur (this), mais occupée par l'occupant donné, ou lève IllegalArgumentException si le récepteur est déjà occupé
@@ -47,7 +47,65 @@ public record Pos(int x, int y ) {
         }
     }
 
+    /**
+     * compacte la position de coordonnées données en un entier (x * 2^16 + y), qui permet aux boucles internes
+     * de manipuler des positions sans allouer d'objets. Les coordonnées doivent être comprises entre -32767 et
+     * 32767 ; l'ordre des entiers compactés est alors celui des positions triées d'abord par x, puis par y
+     * @param x: position sur l'axe X
+     * @param y: position sur l'axe Y
+     * @return la position compactée
+     */
+    public static int pack(int x, int y) {
+        return (x << Short.SIZE) + y;
+    }
 
+    /**
+     * retourne cette position compactée (voir pack)
+     * @return la position compactée
+     */
+    public int packed() {
+        return pack(x, y);
+    }
 
+    /**
+     * retourne la coordonnée x de la position compactée donnée
+     * @param packed: la position compactée
+     * @return sa coordonnée x
+     */
+    public static int packedX(int packed) {
+        return (packed - packedY(packed)) >> Short.SIZE;
+    }
 
-}
\ No newline at end of file
+    /**
+     * retourne la coordonnée y de la position compactée donnée
+     * @param packed: la position compactée
+     * @return sa coordonnée y
+     */
+    public static int packedY(int packed) {
+        return (short) packed;
+    }
+
+    /**
+     * retourne la position correspondant à la position compactée donnée
+     * @param packed: la position compactée
+     * @return la position
+     */
+    public static Pos unpacked(int packed) {
+        return new Pos(packedX(packed), packedY(packed));
+    }
+
+    /**
+     * retourne la position compactée du voisin, dans la direction donnée, de la position compactée donnée
+     * @param packed: la position compactée
+     * @param direction: direction
+     * @return la position compactée du voisin de la direction donnée
+     */
+    public static int packedNeighbor(int packed, Direction direction) {
+        return switch (direction) {
+            case N -> packed - 1;
+            case E -> packed + (1 << Short.SIZE);
+            case S -> packed + 1;
+            case W -> packed - (1 << Short.SIZE);
+        };
+    }
+}
@@ -0,0 +1,221 @@
+package ch.epfl.chacun;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ScoreProjection :
+ * points que rapporteraient les prés et les réseaux hydrographiques d'un plateau si la partie se terminait
+ * maintenant, selon les règles du décompte final (feu, grande fosse à pieux et radeau compris).
+ * La projection est persistante : les points de chaque aire qui en rapporte sont mémorisés, indexés par le plus
+ * petit identifiant de ses zones, avec leur somme par joueur. La projection d'un plateau est obtenue à partir de
+ * celle du plateau dont il est issu en retirant les points des aires que la transition remplace, puis en ajoutant
+ * ceux des aires qu'elle crée (voir Builder) ; les autres aires ne sont ni parcourues ni recalculées.
+ * La projection est calculée lors de chaque transition du plateau, même si elle n'est jamais lue : chaque aire
+ * occupée touchée coûte un parcours de ses zones (et, pour un pré, de leurs animaux), sans autre allocation que
+ * ses points et les nœuds modifiés de la table ; les aires inoccupées ne coûtent rien.
+ *
+ * @author Rayan Berrada (378940)
+ * @author Jens Cancio (379510)
+ */
+final class ScoreProjection {
+    private static final int PLAYERS = PlayerColor.ALL.size();
+    private static final int ANIMAL_KINDS = Animal.Kind.values().length;
+    // points d'une aire ne rapportant rien, qui n'est pas mémorisée
+    private static final int[] NO_POINTS = new int[PLAYERS];
+
+    /**
+     * la projection du plateau vide
+     */
+    static final ScoreProjection EMPTY = new ScoreProjection(IntMap.empty(), new int[PLAYERS]);
+
+    // points (indexés par joueur) de chaque aire en rapportant, indexés par le plus petit identifiant de ses zones
+    private final IntMap<int[]> areaPoints;
+    // somme des points de toutes les aires, indexée par joueur
+    private final int[] totals;
+
+    /**
+     * crée la projection donnée, dont les attributs ne doivent plus être modifiés
+     * @param areaPoints les points de chaque aire en rapportant
+     * @param totals la somme des points de toutes les aires
+     */
+    private ScoreProjection(IntMap<int[]> areaPoints, int[] totals) {
+        this.areaPoints = areaPoints;
+        this.totals = totals;
+    }
+
+    /**
+     * Builder :
+     * bâtisseur d'une projection à partir d'une projection existante, dont les aires remplacées sont retirées
+     * (avec les points du plateau d'origine) avant que les aires créées ne soient ajoutées (avec ceux du nouveau
+     * plateau). Les aires d'une même partition ayant des zones disjointes, le plus petit identifiant de ses zones
+     * identifie une aire ; retirer plusieurs fois la même aire n'a donc aucun effet.
+     */
+    static final class Builder {
+        private IntMap<int[]> areaPoints;
+        private final int[] totals;
+
+        /**
+         * crée un bâtisseur dont l'état initial est la projection donnée
+         * @param projection la projection initiale
+         */
+        Builder(ScoreProjection projection) {
+            this.areaPoints = projection.areaPoints;
+            this.totals = projection.totals.clone();
+        }
+
+        /**
+         * retire l'aire donnée de la projection, si elle y figure, et ses points des totaux
+         * @param area l'aire (pré ou réseau hydrographique) remplacée
+         */
+        void remove(Area<?> area) {
+            int key = Area.firstZoneId(area);
+            int[] points = areaPoints.get(key);
+            if (points == null) return;
+            for (int i = 0; i < PLAYERS; i += 1) {
+                totals[i] -= points[i];
+            }
+            areaPoints = areaPoints.without(key);
+        }
+
+        /**
+         * ajoute (ou remplace) le pré donné à la projection
+         * @param meadow le pré
+         * @param cancelledAnimals les animaux annulés du plateau
+         * @param tilesById les tuiles placées du plateau, indexées par identifiant
+         */
+        void addMeadow(Area<Zone.Meadow> meadow, Set<Animal> cancelledAnimals, PlacedTile[] tilesById) {
+            add(meadow, meadowPoints(meadow, cancelledAnimals, tilesById));
+        }
+
+        /**
+         * ajoute (ou remplace) le réseau hydrographique donné à la projection
+         * @param riverSystem le réseau hydrographique
+         */
+        void addRiverSystem(Area<Zone.Water> riverSystem) {
+            add(riverSystem, riverSystemPoints(riverSystem));
+        }
+
+        /**
+         * mémorise les points donnés de l'aire donnée, après en avoir retiré les éventuels points précédents
+         */
+        private void add(Area<?> area, int[] points) {
+            remove(area);
+            if (points == NO_POINTS) return;
+            for (int i = 0; i < PLAYERS; i += 1) {
+                totals[i] += points[i];
+            }
+            areaPoints = areaPoints.with(Area.firstZoneId(area), points);
+        }
+
+        /**
+         * retourne la projection en cours de construction
+         * @return la projection
+         */
+        ScoreProjection build() {
+            return new ScoreProjection(areaPoints, totals.clone());
+        }
+    }
+
+    /**
+     * retourne les points que rapporteraient en fin de partie le pré donné et, s'il la contient, la grande fosse
+     * à pieux, calculés comme dans GameState : le feu fait fuir les tigres, qui sinon dévorent chacun un cerf
+     * (de préférence hors de portée de la fosse). Les animaux sont comptés directement dans les zones du pré,
+     * sans construire d'ensemble ni d'aire intermédiaire.
+     * @param meadow le pré
+     * @param cancelledAnimals les animaux annulés du plateau
+     * @param tilesById les tuiles placées du plateau, indexées par identifiant
+     * @return les points de chaque joueur, indexés par couleur
+     */
+    private static int[] meadowPoints(Area<Zone.Meadow> meadow, Set<Animal> cancelledAnimals,
+                                      PlacedTile[] tilesById) {
+        if (!meadow.isOccupied()) return NO_POINTS;
+
+        Zone pitTrap = meadow.zoneWithSpecialPower(Zone.SpecialPower.PIT_TRAP);
+        Pos pitTrapPos = pitTrap == null ? null : tilesById[pitTrap.tileId()].pos();
+        // animaux non annulés du pré, puis de ceux de ses zones adjacentes à la fosse (voir Board.adjacentMeadow)
+        int[] counts = new int[ANIMAL_KINDS];
+        int[] adjacentCounts = new int[ANIMAL_KINDS];
+        for (Zone.Meadow zone : meadow.zones()) {
+            boolean adjacent = pitTrapPos != null && isAdjacent(tilesById[zone.tileId()].pos(), pitTrapPos);
+            for (Animal animal : zone.animals()) {
+                if (cancelledAnimals.contains(animal)) continue;
+                counts[animal.kind().ordinal()] += 1;
+                if (adjacent) adjacentCounts[animal.kind().ordinal()] += 1;
+            }
+        }
+
+        int tigers = meadow.zoneWithSpecialPower(Zone.SpecialPower.WILD_FIRE) == null
+                ? counts[Animal.Kind.TIGER.ordinal()]
+                : 0;
+        int eatenDeer = Math.min(tigers, counts[Animal.Kind.DEER.ordinal()]);
+
+        int[] points = new int[PLAYERS];
+        award(points, meadow, forMeadow(counts, eatenDeer));
+
+        if (pitTrap != null) {
+            // les cerfs hors de portée de la fosse sont dévorés en premier ; le pré adjacent a les mêmes occupants
+            // que le pré complet
+            int distantDeer = counts[Animal.Kind.DEER.ordinal()] - adjacentCounts[Animal.Kind.DEER.ordinal()];
+            award(points, meadow, forMeadow(adjacentCounts, Math.max(0, eatenDeer - distantDeer)));
+        }
+        return points;
+    }
+
+    /**
+     * retourne vrai ssi les deux positions données sont égales ou voisines, y compris en diagonale
+     */
+    private static boolean isAdjacent(Pos pos1, Pos pos2) {
+        return Math.abs(pos1.x() - pos2.x()) <= 1 && Math.abs(pos1.y() - pos2.y()) <= 1;
+    }
+
+    /**
+     * retourne les points que rapporteraient en fin de partie le réseau hydrographique donné et, s'il le
+     * contient, le radeau
+     * @param riverSystem le réseau hydrographique
+     * @return les points de chaque joueur, indexés par couleur
+     */
+    private static int[] riverSystemPoints(Area<Zone.Water> riverSystem) {
+        if (!riverSystem.isOccupied()) return NO_POINTS;
+
+        int[] points = new int[PLAYERS];
+        award(points, riverSystem, Points.forRiverSystem(Area.riverSystemFishCount(riverSystem)));
+        if (riverSystem.zoneWithSpecialPower(Zone.SpecialPower.RAFT) != null) {
+            award(points, riverSystem, Points.forRaft(Area.lakeCount(riverSystem)));
+        }
+        return points;
+    }
+
+    /**
+     * retourne les points rapportés par un pré contenant les animaux comptés donnés, sans les cerfs dévorés
+     */
+    private static int forMeadow(int[] counts, int eatenDeer) {
+        return Points.forMeadow(counts[Animal.Kind.MAMMOTH.ordinal()], counts[Animal.Kind.AUROCHS.ordinal()],
+                counts[Animal.Kind.DEER.ordinal()] - eatenDeer);
+    }
+
+    /**
+     * ajoute les points donnés à ceux de chacun des occupants majoritaires de l'aire donnée
+     */
+    private static void award(int[] points, Area<?> area, int earned) {
+        if (earned <= 0) return;
+        for (PlayerColor scorer : area.majorityOccupants()) {
+            points[scorer.ordinal()] += earned;
+        }
+    }
+
+    /**
+     * retourne les points que rapporteraient en fin de partie les prés et réseaux hydrographiques du plateau
+     * à chaque joueur, sans ceux qui n'en rapporteraient aucun
+     * @return la table (non modifiable) des points projetés
+     */
+    Map<PlayerColor, Integer> points() {
+        Map<PlayerColor, Integer> points = new EnumMap<>(PlayerColor.class);
+        for (PlayerColor player : PlayerColor.ALL) {
+            if (totals[player.ordinal()] > 0) points.put(player, totals[player.ordinal()]);
+        }
+        return Collections.unmodifiableMap(points);
+    }
+}
@@ -4,62 +4,286 @@ import java.util.*;
 
 /**
  * Tile
- * @param id
- * @param kind
- * @param n: Coté de la tuile du nord
- * @param e: Coté de la tuile de l'Est
- * @param s: Coté de la tuile du Sud
- * @param w: Coté de la tuile du West
+ *
+ * Les vues dérivées des côtés (liste des côtés, zones de bordure, zones, zones par sorte) sont calculées une
+ * seule fois à la construction, si bien que leurs accesseurs ne font aucune allocation.
  *
  * @author Rayan Berrada (378940)
  * @author Jens Cancio (379510)
  */
-public record Tile(int id, Kind kind, TileSide n, TileSide e, TileSide s, TileSide w) {
+public final class Tile {
     public enum Kind{
         START,
         NORMAL,
         MENHIR
     }
 
+    private final int id;
+    private final Kind kind;
+    private final TileSide n;
+    private final TileSide e;
+    private final TileSide s;
+    private final TileSide w;
+
+    // vues précalculées
+    private final List<TileSide> sides;
+    private final Set<Zone> sideZones;
+    private final Set<Zone> zones;
+    private final Set<Zone.Forest> forestZones;
+    private final Set<Zone.Meadow> meadowZones;
+    private final Set<Zone.River> riverZones;
+    private final Zone specialPowerZone;
+    // zones de la tuile indexées par leur identifiant local
+    private final Zone[] zonesByLocalId;
+    // nombre de côtés touchés par chaque zone (lacs compris, via leurs rivières), indexé par identifiant local
+    private final int[] sideCounts;
+    // signature des sortes de côtés (2 bits par direction), indexée par rotation
+    private final int[] sideSignatures;
+
+    /**
+     * Constructeur de Tile
+     * @param id identifiant de la tuile
+     * @param kind sorte de la tuile
+     * @param n: Coté de la tuile du nord
+     * @param e: Coté de la tuile de l'Est
+     * @param s: Coté de la tuile du Sud
+     * @param w: Coté de la tuile du West
+     */
+    public Tile(int id, Kind kind, TileSide n, TileSide e, TileSide s, TileSide w) {
+        this.id = id;
+        this.kind = kind;
+        this.n = n;
+        this.e = e;
+        this.s = s;
+        this.w = w;
+
+        this.sides = List.of(n, e, s, w);
+
+        Set<Zone> sideZoneSet = new HashSet<>();
+        Set<Zone> zoneSet = new HashSet<>();
+        int[] counts = new int[10];
+        for (TileSide side : sides) {
+            for (Zone zone : side.zones()) {
+                sideZoneSet.add(zone);
+                zoneSet.add(zone);
+                counts[zone.localId()] += 1;
+                if (zone instanceof Zone.River river && river.hasLake()) {
+                    zoneSet.add(river.lake());
+                    counts[river.lake().localId()] += 1;
+                }
+            }
+        }
+        this.sideZones = Set.copyOf(sideZoneSet);
+        this.zones = Set.copyOf(zoneSet);
+        this.sideCounts = counts;
+
+        Set<Zone.Forest> forests = new HashSet<>();
+        Set<Zone.Meadow> meadows = new HashSet<>();
+        Set<Zone.River> rivers = new HashSet<>();
+        Zone powerZone = null;
+        Zone[] byLocalId = new Zone[10];
+        for (Zone zone : zones) {
+            switch (zone) {
+                case Zone.Forest forest -> forests.add(forest);
+                case Zone.Meadow meadow -> meadows.add(meadow);
+                case Zone.River river -> rivers.add(river);
+                default -> { }
+            }
+            if (zone.specialPower() != null) {
+                powerZone = zone;
+            }
+            byLocalId[zone.localId()] = zone;
+        }
+        this.forestZones = Set.copyOf(forests);
+        this.meadowZones = Set.copyOf(meadows);
+        this.riverZones = Set.copyOf(rivers);
+        this.specialPowerZone = powerZone;
+        this.zonesByLocalId = byLocalId;
+
+        int[] signatures = new int[Rotation.COUNT];
+        for (Rotation rotation : Rotation.ALL) {
+            for (Direction direction : Direction.ALL) {
+                TileSide side = sides.get(direction.rotated(rotation.negated()).ordinal());
+                signatures[rotation.ordinal()] |= sideKindCode(side) << (2 * direction.ordinal());
+            }
+        }
+        this.sideSignatures = signatures;
+    }
+
+    /**
+     * retourne le code (sur 2 bits, jamais nul) de la sorte du côté donné
+     * @param side le côté
+     * @return 1 pour une forêt, 2 pour un pré, 3 pour une rivière
+     */
+    private static int sideKindCode(TileSide side) {
+        return switch (side) {
+            case TileSide.Forest _ -> 1;
+            case TileSide.Meadow _ -> 2;
+            case TileSide.River _ -> 3;
+        };
+    }
+
+    /**
+     * retourne l'identifiant de la tuile
+     * @return l'identifiant de la tuile
+     */
+    public int id() {
+        return id;
+    }
+
+    /**
+     * retourne la sorte de la tuile
+     * @return la sorte de la tuile
+     */
+    public Kind kind() {
+        return kind;
+    }
+
+    /**
+     * retourne le côté nord de la tuile
+     * @return le côté nord de la tuile
+     */
+    public TileSide n() {
+        return n;
+    }
+
+    /**
+     * retourne le côté est de la tuile
+     * @return le côté est de la tuile
+     */
+    public TileSide e() {
+        return e;
+    }
+
+    /**
+     * retourne le côté sud de la tuile
+     * @return le côté sud de la tuile
+     */
+    public TileSide s() {
+        return s;
+    }
+
+    /**
+     * retourne le côté ouest de la tuile
+     * @return le côté ouest de la tuile
+     */
+    public TileSide w() {
+        return w;
+    }
+
     /**
      * Retourne une liste contenant les 4 Tilesides de la tuile
-     * @return  une liste contenant les 4 Tilesides de la tuile
+     * @return  une liste (non modifiable) contenant les 4 Tilesides de la tuile
      */
     public List<TileSide> sides(){
-        return (new ArrayList<>(Arrays.asList(n,e,s,w)));
+        return sides;
     }
 
     /**
      * Retourne l'ensemble des zones de bordure de la tuile
-     * @return l'ensemble des zones de bordure de la tuile,
+     * @return l'ensemble (non modifiable) des zones de bordure de la tuile,
      */
     public Set<Zone> sideZones(){
-        Set<Zone> sideZone = new HashSet<>();
-        sideZone.addAll(n.zones());
-        sideZone.addAll(e.zones());
-        sideZone.addAll(w.zones());
-        sideZone.addAll(s.zones());
-        return sideZone;
+        return sideZones;
     }
 
     /**
      * Retourne l'ensemble de toutes les zones de la tuile, lacs compris.
-     * @return l'ensemble de toutes les zones de la tuile, lacs compris.
+     * @return l'ensemble (non modifiable) de toutes les zones de la tuile, lacs compris.
      */
     public Set<Zone> zones() {
-        Set<Zone> allZones = new HashSet<>();
+        return zones;
+    }
 
-        for(Zone zone: sideZones() ){
-            allZones.add(zone);
-            if (zone instanceof Zone.River river) {
-                if (((Zone.River) zone).hasLake()) {
-                    allZones.add(river.lake());
-                }
-            }
-        }
-        return allZones;
+    /**
+     * retourne l'ensemble, éventuellement vide, des zones forêts de la tuile
+     * @return l'ensemble (non modifiable) des zones forêts de la tuile
+     */
+    public Set<Zone.Forest> forestZones() {
+        return forestZones;
+    }
+
+    /**
+     * retourne l'ensemble, éventuellement vide, des zones prés de la tuile
+     * @return l'ensemble (non modifiable) des zones prés de la tuile
+     */
+    public Set<Zone.Meadow> meadowZones() {
+        return meadowZones;
     }
 
+    /**
+     * retourne l'ensemble, éventuellement vide, des zones rivières de la tuile
+     * @return l'ensemble (non modifiable) des zones rivières de la tuile
+     */
+    public Set<Zone.River> riverZones() {
+        return riverZones;
+    }
 
+    /**
+     * retourne la zone de la tuile ayant un pouvoir spécial, ou null s'il n'y en a aucune
+     * @return la zone de la tuile ayant un pouvoir spécial, ou null s'il n'y en a aucune
+     */
+    public Zone specialPowerZone() {
+        return specialPowerZone;
+    }
 
+    /**
+     * retourne la zone de la tuile ayant l'identifiant local donné, ou null s'il n'y en a aucune
+     * @param localId l'identifiant local (entre 0 et 9)
+     * @return la zone ayant cet identifiant local, ou null
+     */
+    Zone zoneWithLocalId(int localId) {
+        return (localId >= 0 && localId < zonesByLocalId.length) ? zonesByLocalId[localId] : null;
+    }
+
+    /**
+     * retourne le nombre de côtés de la tuile que touche la zone donnée ; un lac est compté une fois pour chaque
+     * côté touché par une rivière qui s'y jette
+     * @param zone la zone de la tuile
+     * @return le nombre de côtés touchés par la zone
+     */
+    int sideCount(Zone zone) {
+        return sideCounts[zone.localId()];
+    }
+
+    /**
+     * retourne la signature des sortes de côtés de la tuile tournée de la rotation donnée : le code de la sorte
+     * du côté situé dans la direction d occupe les bits 2d et 2d+1 (forêt 1, pré 2, rivière 3)
+     * @param rotation la rotation appliquée à la tuile
+     * @return la signature (sur 8 bits) des côtés de la tuile tournée
+     */
+    public int sideSignature(Rotation rotation) {
+        return sideSignatures[rotation.ordinal()];
+    }
+
+    /**
+     * redefinition de equals : deux tuiles sont égales ssi elles ont la même identité, la même sorte et les
+     * mêmes côtés
+     * @param o l'objet à comparer
+     * @return vrai ssi o est une tuile égale au récepteur
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        return o instanceof Tile that && id == that.id && kind == that.kind && n.equals(that.n)
+                && e.equals(that.e) && s.equals(that.s) && w.equals(that.w);
+    }
+
+    /**
+     * redefinition de hashCode pour Tile
+     * @return le hashCode de la tuile
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, kind, n, e, s, w);
+    }
+
+    /**
+     * redefinition de toString pour Tile
+     * @return la représentation textuelle de la tuile
+     */
+    @Override
+    public String toString() {
+        return "Tile[id=" + id + ", kind=" + kind + ", n=" + n + ", e=" + e + ", s=" + s + ", w=" + w + "]";
+    }
 }
@@ -1,7 +1,14 @@
 package ch.epfl.chacun;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.function.Predicate;
+import java.util.random.RandomGenerator;
 /**
  *  TileDecks :
  *  public et immuable
@@ -16,16 +23,135 @@ import java.util.function.Predicate;
  */
 public record TileDecks(List<Tile> startTiles,List<Tile> normalTiles,List<Tile> menhirTiles) {
     /**
-     * constructeur compact de TileDecks se charge de garantir l'immuabilité de la classe en copiant-au moyen de la méthode copyOf de List — chacune des trois listes reçues.
+     * constructeur compact de TileDecks se charge de garantir l'immuabilité de la classe en copiant chacune des trois
+     * listes reçues dans un tableau ; les tas déjà représentés ainsi (obtenus par tirage) sont partagés sans copie.
      * @param startTiles: tuiles de départ
      * @param normalTiles: tuiles normales
      * @param menhirTiles: tuiles menhir
      */
 
     public TileDecks{
-        startTiles = List.copyOf(startTiles);
-        normalTiles = List.copyOf(normalTiles);
-        menhirTiles = List.copyOf(menhirTiles);
+        startTiles = Deck.copyOf(startTiles);
+        normalTiles = Deck.copyOf(normalTiles);
+        menhirTiles = Deck.copyOf(menhirTiles);
+    }
+
+    /**
+     * Deck :
+     * tas immuable, vue sur la tranche [from, to[ d'un tableau de tuiles partagé et jamais modifié. Tirer des tuiles
+     * au sommet du tas se contente d'avancer le début de la tranche, en O(1) et sans copie.
+     */
+    private static final class Deck extends AbstractList<Tile> implements RandomAccess {
+        private final Tile[] tiles;
+        private final int from;
+        private final int to;
+
+        /**
+         * crée le tas formé des tuiles d'index from (inclus) à to (exclus) du tableau donné, qui ne doit plus être
+         * modifié
+         * @param tiles le tableau partagé
+         * @param from l'index de la tuile au sommet du tas
+         * @param to l'index suivant celui de la dernière tuile du tas
+         */
+        private Deck(Tile[] tiles, int from, int to) {
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * retourne un tas contenant les tuiles de la liste donnée, qui n'est copiée que si elle n'est pas déjà un tas
+         * @param tiles la liste de tuiles
+         * @return un tas immuable contenant ces tuiles
+         * @throws NullPointerException si la liste ou l'une de ses tuiles est nulle
+         */
+        private static Deck copyOf(List<Tile> tiles) {
+            if (tiles instanceof Deck deck) return deck;
+            Tile[] array = tiles.toArray(new Tile[0]);
+            for (Tile tile : array) Objects.requireNonNull(tile);
+            return new Deck(array, 0, array.length);
+        }
+
+        /**
+         * retourne le tas privé des count tuiles de son sommet, qui partage le tableau de celui-ci
+         * @param count le nombre de tuiles tirées
+         * @return le tas restant
+         */
+        private Deck withoutTop(int count) {
+            return count == 0 ? this : new Deck(tiles, from + count, to);
+        }
+
+        @Override
+        public Tile get(int index) {
+            return tiles[from + Objects.checkIndex(index, size())];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+    /**
+     * retourne les tas obtenus en mélangeant la totalité des tuiles du jeu (Tiles.TILES) au moyen du générateur
+     * donné, puis en les répartissant selon leur sorte. Les trois tas sont des tranches d'un unique tableau mélangé,
+     * dont l'ordre relatif des tuiles de chaque sorte est conservé.
+     * @param generator: le générateur aléatoire utilisé pour mélanger les tuiles
+     * @return les tas de tuiles mélangés
+     */
+    public static TileDecks shuffled(RandomGenerator generator) {
+        List<Tile> tilesToShuffle = new ArrayList<>(Tiles.TILES);
+        Collections.shuffle(tilesToShuffle, generator);
+
+        Tile[] tiles = new Tile[tilesToShuffle.size()];
+        int[] bounds = new int[Tile.Kind.values().length + 1];
+        for (Tile tile : tilesToShuffle) bounds[tile.kind().ordinal() + 1] += 1;
+        for (int i = 1; i < bounds.length; i += 1) bounds[i] += bounds[i - 1];
+        int[] next = Arrays.copyOf(bounds, bounds.length - 1);
+        for (Tile tile : tilesToShuffle) tiles[next[tile.kind().ordinal()]++] = tile;
+
+        return new TileDecks(
+                deckOf(tiles, bounds, Tile.Kind.START),
+                deckOf(tiles, bounds, Tile.Kind.NORMAL),
+                deckOf(tiles, bounds, Tile.Kind.MENHIR));
+    }
+
+    /**
+     * retourne le tas des tuiles de la sorte donnée dans le tableau donné, trié par sorte
+     * @param tiles le tableau de toutes les tuiles, trié par sorte
+     * @param bounds les index de début des tranches de chaque sorte, suivis de la taille du tableau
+     * @param kind la sorte de tuile
+     * @return le tas des tuiles de cette sorte
+     */
+    private static Deck deckOf(Tile[] tiles, int[] bounds, Tile.Kind kind) {
+        return new Deck(tiles, bounds[kind.ordinal()], bounds[kind.ordinal() + 1]);
+    }
+
+    /**
+     * retourne le tas contenant les tuiles de la sorte donnée
+     * @param kind: la sorte, le type d'une tuile
+     * @return le tas de cette sorte
+     */
+    private Deck deck(Tile.Kind kind) {
+        return (Deck) switch (kind) {
+            case START -> startTiles;
+            case NORMAL -> normalTiles;
+            case MENHIR -> menhirTiles;
+        };
+    }
+
+    /**
+     * retourne un triplet de tas égal au récepteur, si ce n'est que le tas de la sorte donnée est remplacé
+     * @param kind: la sorte du tas remplacé
+     * @param deck: le nouveau tas de cette sorte
+     * @return le nouveau triplet de tas
+     */
+    private TileDecks withDeck(Tile.Kind kind, Deck deck) {
+        return switch (kind) {
+            case START -> new TileDecks(deck, normalTiles, menhirTiles);
+            case NORMAL -> new TileDecks(startTiles, deck, menhirTiles);
+            case MENHIR -> new TileDecks(startTiles, normalTiles, deck);
+        };
     }
 
     /**
@@ -34,17 +160,7 @@ public record TileDecks(List<Tile> startTiles,List<Tile> normalTiles,List<Tile>
      * @return le nombre de tuiles disponibles dans le tas contenant les tuiles de la sorte donnée
      */
     public int deckSize(Tile.Kind kind){
-        switch (kind) {
-            case START -> {
-                return startTiles.size();
-            }
-            case NORMAL -> {
-                return normalTiles.size();
-            }
-            default -> {
-                return menhirTiles.size();
-            }
-        }
+        return deck(kind).size();
     }
 
     /**
@@ -53,20 +169,8 @@ public record TileDecks(List<Tile> startTiles,List<Tile> normalTiles,List<Tile>
      * @return: la tuile au sommet du tas contenant les tuiles de la sorte donnée, ou null si le tas est vide
      */
     public Tile topTile(Tile.Kind kind){
-        if (deckSize(kind)==0){
-            return null;
-        }
-        switch (kind) {
-            case START -> {
-                return startTiles.getFirst();
-            }
-            case NORMAL -> {
-                return normalTiles.getFirst();
-            }
-            default -> {
-                return menhirTiles.getFirst();
-            }
-        }
+        Deck deck = deck(kind);
+        return deck.isEmpty() ? null : deck.get(0);
     }
 
     /**
@@ -76,25 +180,8 @@ public record TileDecks(List<Tile> startTiles,List<Tile> normalTiles,List<Tile>
      * @throws IllegalArgumentException si le tas est vide
      */
     public TileDecks withTopTileDrawn(Tile.Kind kind) {
-        if (deckSize(kind) == 0) {
-            throw new IllegalArgumentException();
-        } else {
-            List<Tile> startTilesCopy = List.copyOf(startTiles);
-            List<Tile> normalTilesCopy = List.copyOf(normalTiles);
-            List<Tile> menhirTilesCopy = List.copyOf(menhirTiles);
-
-            switch (kind) {
-                case START -> {
-                    return new TileDecks(startTilesCopy.subList(1, startTilesCopy.size()), normalTiles, menhirTiles);
-                }
-                case NORMAL -> {
-                    return new TileDecks(startTiles, normalTilesCopy.subList(1, normalTilesCopy.size()), menhirTiles);
-                }
-                default -> {
-                    return new TileDecks(startTiles, normalTiles, menhirTilesCopy.subList(1, menhirTilesCopy.size()));
-                }
-            }
-        }
+        Preconditions.checkArgument(deckSize(kind) > 0);
+        return withDeck(kind, deck(kind).withoutTop(1));
     }
 
     /**
@@ -105,12 +192,12 @@ public record TileDecks(List<Tile> startTiles,List<Tile> normalTiles,List<Tile>
      */
 
    public TileDecks withTopTileDrawnUntil(Tile.Kind kind, Predicate<Tile> predicate) {
-        TileDecks temp = new TileDecks(startTiles, normalTiles, menhirTiles);
-        while ( temp.deckSize(kind)>0 && !predicate.test(temp.topTile(kind))){
-                temp = temp.withTopTileDrawn(kind);
+        Deck deck = deck(kind);
+        int drawn = 0;
+        while (drawn < deck.size() && !predicate.test(deck.get(drawn))) {
+            drawn += 1;
         }
-
-        return temp;
+        return drawn == 0 ? this : withDeck(kind, deck.withoutTop(drawn));
     }
 
 }
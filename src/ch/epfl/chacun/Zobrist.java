@@ -0,0 +1,96 @@
+package ch.epfl.chacun;
+
+/**
+ * Zobrist :
+ * clefs de Zobrist (64 bits) des éléments d'un état de jeu. La clef d'un état est le ou exclusif des clefs de
+ * ses éléments, ce qui permet de la mettre à jour en O(1) lors de l'ajout ou du retrait d'un élément.
+ * Les clefs sont obtenues en mélangeant l'identité de l'élément, ce qui évite toute table et accepte
+ * n'importe quelle position ou identifiant.
+ *
+ * @author Rayan Berrada (378940)
+ * @author Jens Cancio (379510)
+ */
+final class Zobrist {
+    // sortes d'éléments, mélangées avec leur identité pour que deux sortes ne partagent aucune clef
+    private static final int TILE = 1;
+    private static final int OCCUPANT = 2;
+    private static final int CANCELLED_ANIMAL = 3;
+    private static final int CURRENT_PLAYER = 4;
+    private static final int NEXT_ACTION = 5;
+
+    /**
+     * Constructeur vide (classe non instantiable)
+     */
+    private Zobrist() {}
+
+    /**
+     * retourne la clef de la tuile placée donnée (tuile, placeur, rotation et position, sans l'occupant)
+     * @param tile la tuile placée
+     * @return sa clef
+     */
+    static long tileKey(PlacedTile tile) {
+        int placer = tile.placer() == null ? 0 : tile.placer().ordinal() + 1;
+        long pos = ((long) tile.pos().x() << 32) | (tile.pos().y() & 0xFFFF_FFFFL);
+        return key(TILE, pos, ((long) tile.id() << 8) | ((long) placer << 2) | tile.rotation().ordinal());
+    }
+
+    /**
+     * retourne la clef de l'occupant donné
+     * @param occupant l'occupant
+     * @return sa clef
+     */
+    static long occupantKey(Occupant occupant) {
+        return key(OCCUPANT, occupant.zoneId(), occupant.kind().ordinal());
+    }
+
+    /**
+     * retourne la clef de l'animal annulé donné
+     * @param animal l'animal annulé
+     * @return sa clef
+     */
+    static long cancelledAnimalKey(Animal animal) {
+        return key(CANCELLED_ANIMAL, animal.id(), 0);
+    }
+
+    /**
+     * retourne la clef du joueur courant donné, ou 0 s'il n'y en a pas
+     * @param player le joueur courant, éventuellement null
+     * @return sa clef
+     */
+    static long currentPlayerKey(PlayerColor player) {
+        return player == null ? 0 : key(CURRENT_PLAYER, player.ordinal(), 0);
+    }
+
+    /**
+     * retourne la clef de la prochaine action donnée
+     * @param action la prochaine action
+     * @return sa clef
+     */
+    static long nextActionKey(GameState.Action action) {
+        return key(NEXT_ACTION, action.ordinal(), 0);
+    }
+
+    /**
+     * retourne la clef de l'élément de la sorte et de l'identité données
+     * @param kind la sorte d'élément
+     * @param a la première partie de l'identité
+     * @param b la seconde partie de l'identité
+     * @return la clef de l'élément
+     */
+    private static long key(int kind, long a, long b) {
+        return mix(mix(mix(kind) ^ a) ^ b);
+    }
+
+    /**
+     * fonction de mélange de SplitMix64 : bijection de 64 bits dont chaque bit de sortie dépend de tous les bits
+     * d'entrée
+     * @param z la valeur à mélanger
+     * @return la valeur mélangée
+     */
+    private static long mix(long z) {
+        z += 0x9E37_79B9_7F4A_7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58_476D_1CE4_E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D0_49BB_1331_11EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -3,21 +3,49 @@ package ch.epfl.chacun;
 import java.util.*;
 
 /**
- * Enregistrement ZonePartition: représente une partition de zones d'un type donné
+ * Classe ZonePartition: représente une partition de zones d'un type donné
+ *
+ * La partition est indexée par une structure union-find (ensembles disjoints) dont les éléments sont les
+ * identifiants des zones : chaque zone connaît son parent, et l'aire complète est stockée à la racine de
+ * son ensemble. areaContaining et les opérations du bâtisseur n'ont donc plus besoin de parcourir les aires.
+ * Les tableaux d'une partition ne sont jamais modifiés : le bâtisseur copie les blocs qu'il modifie.
  *
  *  @author Rayan Berrada (378940)
  *  @author Jens Cancio (379510)
  *
- * @param areas l'ensemble des aires formant la partition
+ * @param <Z> le type des zones de la partition
  */
-public record ZonePartition<Z extends Zone>(Set<Area<Z>> areas) {
+public final class ZonePartition<Z extends Zone> {
+
+    // valeur de parent pour un identifiant de zone n'appartenant pas à la partition
+    private static final int NO_ZONE = -1;
+    // les tableaux de la structure union-find sont découpés en blocs de 2^CHUNK_BITS identifiants,
+    // afin que le bâtisseur ne copie que les blocs qu'il modifie
+    private static final int CHUNK_BITS = 6;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    // tableau de blocs vide, point de départ de la construction d'une partition à partir de ses aires
+    private static final int[][] EMPTY_PARENTS = new int[0][];
+
+    // parent de chaque zone dans la structure union-find, indexé par identifiant de zone (par blocs)
+    private final int[][] parentChunks;
+    // aire de chaque racine de la structure union-find (null pour les zones qui ne sont pas racines)
+    private final Area<Z>[][] areaChunks;
+    // ensemble des aires, calculé au besoin à partir des racines
+    private Set<Area<Z>> areas;
 
     /**
-     * Constructeur compact de ZonePartition
+     * Constructeur de ZonePartition
      * @param areas l'ensemble des aires formant la partition
      */
-    public ZonePartition{
-        areas = Set.copyOf(areas);
+    public ZonePartition(Set<Area<Z>> areas) {
+        Builder<Z> builder = new Builder<>(EMPTY_PARENTS, newAreaChunkArray(0));
+        for (Area<Z> area : areas) {
+            builder.addArea(area);
+        }
+        this.parentChunks = builder.parentChunks;
+        this.areaChunks = builder.areaChunks;
+        this.areas = Set.copyOf(areas);
     }
 
     /**
@@ -28,6 +56,50 @@ public record ZonePartition<Z extends Zone>(Set<Area<Z>> areas) {
         this(new HashSet<>());
     }
 
+    /**
+     * constructeur privé utilisé par le bâtisseur, qui lui cède ses tableaux
+     * @param parentChunks le parent de chaque zone
+     * @param areaChunks l'aire de chaque racine
+     */
+    private ZonePartition(int[][] parentChunks, Area<Z>[][] areaChunks) {
+        this.parentChunks = parentChunks;
+        this.areaChunks = areaChunks;
+    }
+
+    /**
+     * retourne le parent de la zone d'identifiant donné, ou NO_ZONE si elle n'appartient pas à la partition
+     * @param parentChunks les blocs de parents
+     * @param id l'identifiant de zone
+     * @return le parent de la zone
+     */
+    private static int parent(int[][] parentChunks, int id) {
+        int chunk = id >>> CHUNK_BITS;
+        if (id < 0 || chunk >= parentChunks.length || parentChunks[chunk] == null) {
+            return NO_ZONE;
+        }
+        return parentChunks[chunk][id & CHUNK_MASK];
+    }
+
+    /**
+     * retourne l'ensemble des aires formant la partition
+     * @return l'ensemble (non modifiable) des aires formant la partition
+     */
+    public Set<Area<Z>> areas() {
+        if (areas == null) {
+            List<Area<Z>> rootAreaList = new ArrayList<>();
+            for (int chunk = 0; chunk < parentChunks.length; chunk++) {
+                if (parentChunks[chunk] == null) continue;
+                for (int i = 0; i < CHUNK_SIZE; i++) {
+                    if (parentChunks[chunk][i] == (chunk << CHUNK_BITS | i)) {
+                        rootAreaList.add(areaChunks[chunk][i]);
+                    }
+                }
+            }
+            areas = Set.copyOf(rootAreaList);
+        }
+        return areas;
+    }
+
     /**
      * retourne l'aire contenant la zone passée en argument
      * @param zone la zone en question
@@ -35,30 +107,194 @@ public record ZonePartition<Z extends Zone>(Set<Area<Z>> areas) {
      * @throws IllegalArgumentException si la zone n'appartient à aucune aire de la partition
      */
     public Area<Z> areaContaining(Z zone){
-        for(Area<Z> area: areas){
-            if (area.zones().contains(zone)){
-                return area;
-            }
+        int id = zone.id();
+        int parent = parent(parentChunks, id);
+        if (parent == NO_ZONE) {
+            throw new IllegalArgumentException();
         }
-        throw new IllegalArgumentException();
+        while (parent != id) {
+            id = parent;
+            parent = parent(parentChunks, id);
+        }
+        return areaChunks[id >>> CHUNK_BITS][id & CHUNK_MASK];
+    }
+
+    /**
+     * redefinition de equals : deux partitions sont égales ssi elles ont les mêmes aires
+     * @param o l'objet à comparer
+     * @return vrai ssi o est une partition ayant les mêmes aires que le récepteur
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        return o instanceof ZonePartition<?> that && areas().equals(that.areas());
+    }
+
+    /**
+     * redefinition de hashCode pour ZonePartition
+     * @return le hashCode de l'ensemble des aires
+     */
+    @Override
+    public int hashCode() {
+        return areas().hashCode();
+    }
+
+    /**
+     * redefinition de toString pour ZonePartition
+     * @return la représentation textuelle de la partition
+     */
+    @Override
+    public String toString() {
+        return "ZonePartition[areas=" + areas() + "]";
+    }
+
+    /**
+     * retourne un nouveau tableau de blocs d'aires de la taille donnée
+     * @param capacity le nombre de blocs
+     * @return le tableau de blocs d'aires
+     */
+    @SuppressWarnings("unchecked")
+    private static <Z extends Zone> Area<Z>[][] newAreaChunkArray(int capacity) {
+        return (Area<Z>[][]) new Area<?>[capacity][];
+    }
+
+    /**
+     * retourne un nouveau bloc d'aires
+     * @return le bloc d'aires
+     */
+    @SuppressWarnings("unchecked")
+    private static <Z extends Zone> Area<Z>[] newAreaChunk() {
+        return (Area<Z>[]) new Area<?>[CHUNK_SIZE];
     }
 
     /**
      * ZonePartition.Builder:
      * bâtisseur pour la classe ZonePartition
+     * Les blocs de la partition initiale sont partagés : seuls les blocs effectivement modifiés sont copiés,
+     * si bien que le coût d'une modification est proportionnel à ce qu'elle change.
      * @param <Z>
      */
     public final static class Builder <Z extends Zone> {
 
-        // ensemble d'aires
-        private HashSet<Area<Z>> areas = new HashSet<>();
+        // blocs de la structure union-find, éventuellement partagés avec une partition existante
+        private int[][] parentChunks;
+        private Area<Z>[][] areaChunks;
+        // blocs appartenant au bâtisseur (donc modifiables), ou null si aucun ne lui appartient
+        private boolean[] ownedChunks;
 
         /**
          * Constructeur pour ZonePartition.Builder
          * @param zonePartition partition existante
          */
         public Builder(ZonePartition<Z> zonePartition){
-            areas.addAll(zonePartition.areas);
+            this(zonePartition.parentChunks, zonePartition.areaChunks);
+        }
+
+        /**
+         * constructeur privé à partir de blocs partagés
+         * @param parentChunks les blocs de parents
+         * @param areaChunks les blocs d'aires
+         */
+        private Builder(int[][] parentChunks, Area<Z>[][] areaChunks) {
+            this.parentChunks = parentChunks;
+            this.areaChunks = areaChunks;
+        }
+
+        /**
+         * retourne l'index du bloc contenant l'identifiant donné, après s'être assuré que ce bloc
+         * appartient au bâtisseur (en le copiant ou le créant si nécessaire)
+         * @param id l'identifiant de zone qui va être modifié
+         * @return l'index du bloc, modifiable, contenant l'identifiant
+         */
+        private int writableChunk(int id) {
+            int chunk = id >>> CHUNK_BITS;
+            if (ownedChunks == null || chunk >= parentChunks.length) {
+                int capacity = Math.max(parentChunks.length, chunk + 1);
+                parentChunks = Arrays.copyOf(parentChunks, capacity);
+                areaChunks = Arrays.copyOf(areaChunks, capacity);
+                ownedChunks = ownedChunks == null ? new boolean[capacity] : Arrays.copyOf(ownedChunks, capacity);
+            }
+            if (!ownedChunks[chunk]) {
+                if (parentChunks[chunk] == null) {
+                    parentChunks[chunk] = new int[CHUNK_SIZE];
+                    Arrays.fill(parentChunks[chunk], NO_ZONE);
+                    areaChunks[chunk] = newAreaChunk();
+                } else {
+                    parentChunks[chunk] = parentChunks[chunk].clone();
+                    areaChunks[chunk] = areaChunks[chunk].clone();
+                }
+                ownedChunks[chunk] = true;
+            }
+            return chunk;
+        }
+
+        /**
+         * change le parent de la zone d'identifiant donné
+         * @param id l'identifiant de la zone
+         * @param parent son nouveau parent
+         */
+        private void setParent(int id, int parent) {
+            int chunk = writableChunk(id);
+            parentChunks[chunk][id & CHUNK_MASK] = parent;
+        }
+
+        /**
+         * retourne l'aire stockée à la racine donnée
+         * @param root la racine
+         * @return l'aire de la racine
+         */
+        private Area<Z> rootArea(int root) {
+            return areaChunks[root >>> CHUNK_BITS][root & CHUNK_MASK];
+        }
+
+        /**
+         * change l'aire stockée à la racine donnée
+         * @param root la racine
+         * @param area la nouvelle aire (null si la zone n'est plus une racine)
+         */
+        private void setRootArea(int root, Area<Z> area) {
+            int chunk = writableChunk(root);
+            areaChunks[chunk][root & CHUNK_MASK] = area;
+        }
+
+        /**
+         * retourne la racine de l'ensemble contenant la zone donnée, en compressant le chemin parcouru
+         * @param zone la zone donnée
+         * @return la racine de l'ensemble contenant la zone
+         * @throws IllegalArgumentException si la zone n'appartient pas à une aire de la partition
+         */
+        private int root(Z zone) {
+            int id = zone.id();
+            int parent = parent(parentChunks, id);
+            if (parent == NO_ZONE) {
+                throw new IllegalArgumentException();
+            }
+            while (parent != id) {
+                int grandParent = parent(parentChunks, parent);
+                if (grandParent != parent) {
+                    setParent(id, grandParent);
+                }
+                id = grandParent;
+                parent = parent(parentChunks, id);
+            }
+            return id;
+        }
+
+        /**
+         * ajoute une aire complète à la partition en cours de construction
+         * @param area l'aire à ajouter
+         */
+        private void addArea(Area<Z> area) {
+            int root = NO_ZONE;
+            for (Z zone : area.zones()) {
+                if (root == NO_ZONE) {
+                    root = zone.id();
+                }
+                setParent(zone.id(), root);
+            }
+            if (root != NO_ZONE) {
+                setRootArea(root, area);
+            }
         }
 
         /**
@@ -67,9 +303,7 @@ public record ZonePartition<Z extends Zone>(Set<Area<Z>> areas) {
          * @param openConnections le nombre de connexions ouvertes donné
          */
         public void addSingleton(Z zone, int openConnections){
-            Set<Z> singleZone = new HashSet<>();
-            singleZone.add(zone);
-            this.areas.add(new Area<>(singleZone, Collections.emptyList(),openConnections));
+            addArea(new Area<>(Set.of(zone), Collections.emptyList(), openConnections));
         }
 
         /**
@@ -80,15 +314,8 @@ public record ZonePartition<Z extends Zone>(Set<Area<Z>> areas) {
          *         ou si l'aire est déjà occupée
          */
         public void addInitialOccupant(Z zone, PlayerColor color){
-            for (Area<Z> area:areas){
-                if(area.zones().contains(zone)){
-                    Area<Z> areaWithInitialOccupant=area.withInitialOccupant(color);
-                    areas.remove(area);
-                    areas.add(areaWithInitialOccupant);
-                    return;
-                }
-            }
-            throw new IllegalArgumentException();
+            int root = root(zone);
+            setRootArea(root, rootArea(root).withInitialOccupant(color));
         }
 
         /**
@@ -99,15 +326,8 @@ public record ZonePartition<Z extends Zone>(Set<Area<Z>> areas) {
          *         ou si elle n'est pas occupée par au moins un occupant de la couleur donnée
          */
         public void removeOccupant(Z zone, PlayerColor color){
-            for (Area<Z> area:areas){
-                if(area.zones().contains(zone)){
-                    Area<Z> areaWithoutOccupant=area.withoutOccupant(color);
-                    areas.remove(area);
-                    areas.add(areaWithoutOccupant);
-                    return;
-                }
-            }
-            throw new IllegalArgumentException();
+            int root = root(zone);
+            setRootArea(root, rootArea(root).withoutOccupant(color));
         }
 
         /**
@@ -116,50 +336,52 @@ public record ZonePartition<Z extends Zone>(Set<Area<Z>> areas) {
          * @throws IllegalArgumentException si l'aire ne fait pas partie de la partition
          */
         public void removeAllOccupantsOf(Area<Z> area){
-            if (!this.areas.contains(area)){
+            if (area.zones().isEmpty()) {
+                throw new IllegalArgumentException();
+            }
+            int root = root(area.zones().iterator().next());
+            if (rootArea(root) != area && !rootArea(root).equals(area)) {
                 throw new IllegalArgumentException();
             }
-            this.areas.remove(area);
-            this.areas.add(area.withoutOccupants());
+            setRootArea(root, area.withoutOccupants());
         }
 
         /**
          * union: connecte entre elles les aires contenant les zones données pour en faire une aire plus grande
+         * (la plus petite des deux aires est rattachée à la racine de la plus grande)
          * @param zone1 la premiere zone donnée
          * @param zone2 la seconde zone donnée
          * @throws IllegalArgumentException si l'une des deux zones n'appartient pas à une aire de la partition
          */
         public void union(Z zone1, Z zone2){
-            Area<Z> area1 = null,area2=null;
+            int root1 = root(zone1);
+            int root2 = root(zone2);
 
-            for(Area<Z> area:areas){
-                if(area.zones().contains(zone1)) area1=area;
-                if(area.zones().contains(zone2)) area2=area;
-                if(area1!=null && area2!=null) break;
+            if (root1 == root2) {
+                setRootArea(root1, rootArea(root1).connectTo(rootArea(root1)));
+                return;
             }
 
-            if(area1==null || area2==null)throw new IllegalArgumentException();
-
-            Area<Z> newArea=area1.connectTo(area2);
-
-            if(newArea.equals(area1)) return; // area1 and area2 are the same area
-
-            areas.remove(area1);
-            areas.remove(area2);
-
-            areas.add(newArea);
+            Area<Z> newArea = rootArea(root1).connectTo(rootArea(root2));
+            if (rootArea(root1).zones().size() < rootArea(root2).zones().size()) {
+                int smallerRoot = root1;
+                root1 = root2;
+                root2 = smallerRoot;
+            }
+            setParent(root2, root1);
+            setRootArea(root2, null);
+            setRootArea(root1, newArea);
         }
 
         /**
          * construit la partition de zones
+         * (les blocs sont cédés à la partition, et seront copiés si le bâtisseur est encore modifié)
          * @return nouvelle ZonePartition
          */
         public ZonePartition<Z> build(){
-            return new ZonePartition<>(areas);
+            ownedChunks = null;
+            return new ZonePartition<>(parentChunks, areaChunks);
         }
     }
 
 }
-
-
-
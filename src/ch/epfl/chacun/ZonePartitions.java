@@ -22,7 +22,10 @@ public record ZonePartitions(ZonePartition<Zone.Forest> forests, ZonePartition<Z
      */
     public static final class Builder{
 
-        // quatre bâtisseurs de partitions de zones
+        // les quatre partitions initiales
+        private final ZonePartitions initial;
+        // quatre bâtisseurs de partitions de zones, créés uniquement lorsque la partition correspondante
+        // est modifiée (null tant qu'elle ne l'est pas)
         private ZonePartition.Builder<Zone.Forest> forestBuilder;
         private ZonePartition.Builder<Zone.Meadow> meadowBuilder;
         private ZonePartition.Builder<Zone.River> riverBuilder;
@@ -31,15 +34,47 @@ public record ZonePartitions(ZonePartition<Zone.Forest> forests, ZonePartition<Z
         /**
          * Constructeur de ZonePartitions.Builder
          * retourne un nouveau bâtisseur dont les quatre partitions sont initialement identiques à celles du
-         * groupe de quatre partitions donné
+         * groupe de quatre partitions donné (aucune partition n'est copiée avant d'être modifiée)
          * @param initial : ZonePartitions initial à utiliser
          */
         public Builder(ZonePartitions initial){
-            forestBuilder= new ZonePartition.Builder<>(initial.forests);
-            meadowBuilder= new ZonePartition.Builder<>(initial.meadows);
-            riverBuilder= new ZonePartition.Builder<>(initial.rivers);
-            waterBuilder= new ZonePartition.Builder<>(initial.riverSystems);
-            new ZonePartitions(initial.forests, initial.meadows, initial.rivers, initial.riverSystems);
+            this.initial = initial;
+        }
+
+        /**
+         * retourne le bâtisseur de la partition des forêts, en le créant si nécessaire
+         * @return le bâtisseur de la partition des forêts
+         */
+        private ZonePartition.Builder<Zone.Forest> forestBuilder() {
+            if (forestBuilder == null) forestBuilder = new ZonePartition.Builder<>(initial.forests);
+            return forestBuilder;
+        }
+
+        /**
+         * retourne le bâtisseur de la partition des prés, en le créant si nécessaire
+         * @return le bâtisseur de la partition des prés
+         */
+        private ZonePartition.Builder<Zone.Meadow> meadowBuilder() {
+            if (meadowBuilder == null) meadowBuilder = new ZonePartition.Builder<>(initial.meadows);
+            return meadowBuilder;
+        }
+
+        /**
+         * retourne le bâtisseur de la partition des rivières, en le créant si nécessaire
+         * @return le bâtisseur de la partition des rivières
+         */
+        private ZonePartition.Builder<Zone.River> riverBuilder() {
+            if (riverBuilder == null) riverBuilder = new ZonePartition.Builder<>(initial.rivers);
+            return riverBuilder;
+        }
+
+        /**
+         * retourne le bâtisseur de la partition des réseaux hydrographiques, en le créant si nécessaire
+         * @return le bâtisseur de la partition des réseaux hydrographiques
+         */
+        private ZonePartition.Builder<Zone.Water> waterBuilder() {
+            if (waterBuilder == null) waterBuilder = new ZonePartition.Builder<>(initial.riverSystems);
+            return waterBuilder;
         }
 
         /**
@@ -48,43 +83,29 @@ public record ZonePartitions(ZonePartition<Zone.Forest> forests, ZonePartition<Z
          */
         public void addTile(Tile tile){
 
-            int[] numberOfOpenConnections = new int[10];
-            for (TileSide side: tile.sides()) {
-                for (Zone tileSideZone : side.zones()) {
-                    numberOfOpenConnections[tileSideZone.localId()] += 1;
-                    if (tileSideZone instanceof Zone.River river && river.hasLake()) {
-                        numberOfOpenConnections[river.lake().localId()] += 1;
-                    }
-                }
-            }
-
             for (Zone zone: tile.zones()) {
+                int openConnections = tile.sideCount(zone);
                 switch (zone) {
                     case Zone.Forest forest ->
-                            forestBuilder.addSingleton(forest, numberOfOpenConnections[zone.localId()]);
+                            forestBuilder().addSingleton(forest, openConnections);
 
                     case Zone.Meadow meadow ->
-                            meadowBuilder.addSingleton(meadow,numberOfOpenConnections[zone.localId()]);
+                            meadowBuilder().addSingleton(meadow, openConnections);
 
                     case Zone.River river-> {
-                        if(river.hasLake()){
-                            numberOfOpenConnections[zone.localId()]+=1;
-                            riverBuilder.addSingleton(river, numberOfOpenConnections[zone.localId()]-1);
-                        } else {
-                            riverBuilder.addSingleton(river, numberOfOpenConnections[zone.localId()]);
-                        }
-                        waterBuilder.addSingleton(river, numberOfOpenConnections[zone.localId()]);
+                        riverBuilder().addSingleton(river, openConnections);
+                        waterBuilder().addSingleton(river, river.hasLake() ? openConnections + 1 : openConnections);
                     }
 
                     default ->
-                            waterBuilder.addSingleton((Zone.Water) zone, numberOfOpenConnections[zone.localId()]);
+                            waterBuilder().addSingleton((Zone.Water) zone, openConnections);
                 }
             }
 
             for(Zone zone: tile.zones()){
                 if(zone instanceof Zone.River river){
                     if(river.hasLake()){
-                        waterBuilder.union(river,river.lake());
+                        waterBuilder().union(river,river.lake());
                     }
                 }
             }
@@ -101,16 +122,16 @@ public record ZonePartitions(ZonePartition<Zone.Forest> forests, ZonePartition<Z
             switch (s1){
                 case TileSide.Meadow(Zone.Meadow m1)
                         when s2 instanceof TileSide.Meadow(Zone.Meadow m2) ->
-                        meadowBuilder.union(m1,m2);
+                        meadowBuilder().union(m1,m2);
                 case TileSide.Forest(Zone.Forest f1)
                         when s2 instanceof TileSide.Forest(Zone.Forest f2) ->
-                        forestBuilder.union(f1,f2);
+                        forestBuilder().union(f1,f2);
                 case TileSide.River(Zone.Meadow m1s1, Zone.River r1s1, Zone.Meadow m2s1)
                         when s2 instanceof TileSide.River(Zone.Meadow m1s2,Zone.River r1s2, Zone.Meadow m2s2) -> {
-                    meadowBuilder.union(m1s1, m2s2);
-                    riverBuilder.union(r1s1,r1s2);
-                    meadowBuilder.union(m2s1,m1s2);
-                    waterBuilder.union(r1s1,r1s2);
+                    meadowBuilder().union(m1s1, m2s2);
+                    riverBuilder().union(r1s1,r1s2);
+                    meadowBuilder().union(m2s1,m1s2);
+                    waterBuilder().union(r1s1,r1s2);
                 }
 
                 default -> throw new IllegalArgumentException();
@@ -132,24 +153,24 @@ public record ZonePartitions(ZonePartition<Zone.Forest> forests, ZonePartition<Z
                     if (occupantKind != Occupant.Kind.PAWN) {
                         throw new IllegalArgumentException();
                     }
-                    forestBuilder.addInitialOccupant(forest, player);
+                    forestBuilder().addInitialOccupant(forest, player);
                 }
                 case Zone.Meadow meadow -> {
                     if (occupantKind != Occupant.Kind.PAWN) {
                         throw new IllegalArgumentException();
                     }
-                    meadowBuilder.addInitialOccupant(meadow, player);
+                    meadowBuilder().addInitialOccupant(meadow, player);
                 }
                 case Zone.Water water -> {
                     if (occupantKind.equals(Occupant.Kind.PAWN)){
                         if (water instanceof Zone.River) {
-                            riverBuilder.addInitialOccupant((Zone.River) water, player);
+                            riverBuilder().addInitialOccupant((Zone.River) water, player);
                         } else {
                             throw new IllegalArgumentException();
                         }
                     }
                     else {
-                        waterBuilder.addInitialOccupant((Zone.Water) occupiedZone, player);
+                        waterBuilder().addInitialOccupant((Zone.Water) occupiedZone, player);
                     }
                 }
                 default -> throw new IllegalArgumentException();
@@ -165,9 +186,9 @@ public record ZonePartitions(ZonePartition<Zone.Forest> forests, ZonePartition<Z
          */
         public void removePawn(PlayerColor player, Zone occupiedZone){
             switch (occupiedZone) {
-                case Zone.Forest forest -> forestBuilder.removeOccupant(forest,player);
-                case Zone.Meadow meadow -> meadowBuilder.removeOccupant(meadow,player);
-                case Zone.River river -> riverBuilder.removeOccupant(river,player);
+                case Zone.Forest forest -> forestBuilder().removeOccupant(forest,player);
+                case Zone.Meadow meadow -> meadowBuilder().removeOccupant(meadow,player);
+                case Zone.River river -> riverBuilder().removeOccupant(river,player);
                 default -> throw new IllegalArgumentException();
             }
         }
@@ -177,7 +198,7 @@ public record ZonePartitions(ZonePartition<Zone.Forest> forests, ZonePartition<Z
          * @param forest la forêt donnée
          */
         public void clearGatherers(Area<Zone.Forest> forest){
-            forestBuilder.removeAllOccupantsOf(forest);
+            forestBuilder().removeAllOccupantsOf(forest);
         }
 
         /**
@@ -185,15 +206,20 @@ public record ZonePartitions(ZonePartition<Zone.Forest> forests, ZonePartition<Z
          * @param river la rivière donnée
          */
         public void clearFishers(Area<Zone.River> river){
-            riverBuilder.removeAllOccupantsOf(river);
+            riverBuilder().removeAllOccupantsOf(river);
         }
 
         /**
          * retourne le groupe de quatre partitions en cours de construction
+         * (les partitions qui n'ont pas été modifiées sont celles du groupe initial)
          * @return le groupe de quatre partitions en cours de construction
          */
         public ZonePartitions build(){
-            return new ZonePartitions(forestBuilder.build(),meadowBuilder.build(),riverBuilder.build(),waterBuilder.build());
+            return new ZonePartitions(
+                    forestBuilder == null ? initial.forests : forestBuilder.build(),
+                    meadowBuilder == null ? initial.meadows : meadowBuilder.build(),
+                    riverBuilder == null ? initial.rivers : riverBuilder.build(),
+                    waterBuilder == null ? initial.riverSystems : waterBuilder.build());
         }
     }
 }
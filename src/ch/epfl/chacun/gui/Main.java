@@ -14,7 +14,6 @@ import java.util.*;
 import java.util.function.Consumer;
 import java.util.random.RandomGenerator;
 import java.util.random.RandomGeneratorFactory;
-import java.util.stream.Collectors;
 
 import static ch.epfl.chacun.Occupant.Kind.PAWN;
 
@@ -161,16 +160,8 @@ public final class Main extends Application {
         } else {
             generator = randomGeneratorFactory.create();
         }
-        // mélanger les tuiles avec le générateur
-        List<Tile> tilesToShuffle = new ArrayList<>(List.copyOf(Tiles.TILES));
-        Collections.shuffle(tilesToShuffle,generator);
-        // créer les tas de tuiles
-        Map<Tile.Kind,List<Tile>> partitionedTiles = tilesToShuffle.stream()
-                .collect(Collectors.groupingBy(Tile::kind));
-        TileDecks tileDecks =  new TileDecks(
-                partitionedTiles.get(Tile.Kind.START),
-                partitionedTiles.getOrDefault(Tile.Kind.NORMAL, List.of()),
-                partitionedTiles.getOrDefault(Tile.Kind.MENHIR, List.of()));
+        // mélanger les tuiles avec le générateur et créer les tas de tuiles
+        TileDecks tileDecks = TileDecks.shuffled(generator);
 
         // etat de jeu initial
         gameStateP.setValue(GameState.initial(playerColors,tileDecks,new TextMakerFr(playerColorMap)));
@@ -0,0 +1,101 @@
+package ch.epfl.chacun.sim;
+
+import ch.epfl.chacun.GameState;
+import ch.epfl.chacun.Occupant;
+import ch.epfl.chacun.PlacedTile;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * MovePolicy :
+ * stratégie choisissant, parmi les coups légaux, celui que le joueur courant joue lors d'une partie simulée.
+ * Les listes de coups reçues ne sont jamais vides ; celles d'occupants contiennent null, qui signifie que le
+ * joueur renonce à poser (ou à reprendre) un occupant.
+ *
+ * @author Rayan Berrada (378940)
+ * @author Jens Cancio (379510)
+ */
+public interface MovePolicy {
+
+    /**
+     * stratégie jouant un coup légal tiré uniformément au hasard
+     */
+    MovePolicy RANDOM = new MovePolicy() {
+        @Override
+        public PlacedTile tileToPlace(GameState state, List<PlacedTile> placements, RandomGenerator random) {
+            return placements.get(random.nextInt(placements.size()));
+        }
+
+        @Override
+        public Occupant occupantToPlace(GameState state, List<Occupant> occupants, RandomGenerator random) {
+            return occupants.get(random.nextInt(occupants.size()));
+        }
+
+        @Override
+        public Occupant occupantToRemove(GameState state, List<Occupant> occupants, RandomGenerator random) {
+            return occupants.get(random.nextInt(occupants.size()));
+        }
+    };
+
+    /**
+     * stratégie déterministe jouant toujours le premier coup légal
+     */
+    MovePolicy FIRST = new MovePolicy() {
+        @Override
+        public PlacedTile tileToPlace(GameState state, List<PlacedTile> placements, RandomGenerator random) {
+            return placements.getFirst();
+        }
+
+        @Override
+        public Occupant occupantToPlace(GameState state, List<Occupant> occupants, RandomGenerator random) {
+            return occupants.getFirst();
+        }
+
+        @Override
+        public Occupant occupantToRemove(GameState state, List<Occupant> occupants, RandomGenerator random) {
+            return occupants.getFirst();
+        }
+    };
+
+    /**
+     * retourne la stratégie prédéfinie portant le nom donné ("random" ou "first")
+     * @param name le nom de la stratégie
+     * @return la stratégie portant ce nom
+     * @throws IllegalArgumentException si aucune stratégie ne porte ce nom
+     */
+    static MovePolicy named(String name) {
+        return switch (name) {
+            case "random" -> RANDOM;
+            case "first" -> FIRST;
+            default -> throw new IllegalArgumentException();
+        };
+    }
+
+    /**
+     * choisit la tuile placée à poser
+     * @param state l'état de jeu, dont la prochaine action est PLACE_TILE
+     * @param placements les placements légaux de la tuile à placer
+     * @param random le générateur aléatoire de la partie
+     * @return l'un des placements donnés
+     */
+    PlacedTile tileToPlace(GameState state, List<PlacedTile> placements, RandomGenerator random);
+
+    /**
+     * choisit l'occupant à poser sur la dernière tuile posée
+     * @param state l'état de jeu, dont la prochaine action est OCCUPY_TILE
+     * @param occupants les occupants pouvant être posés, null compris
+     * @param random le générateur aléatoire de la partie
+     * @return l'un des occupants donnés, éventuellement null
+     */
+    Occupant occupantToPlace(GameState state, List<Occupant> occupants, RandomGenerator random);
+
+    /**
+     * choisit le pion à reprendre grâce au chaman
+     * @param state l'état de jeu, dont la prochaine action est RETAKE_PAWN
+     * @param occupants les pions pouvant être repris, null compris
+     * @param random le générateur aléatoire de la partie
+     * @return l'un des pions donnés, éventuellement null
+     */
+    Occupant occupantToRemove(GameState state, List<Occupant> occupants, RandomGenerator random);
+}
@@ -0,0 +1,196 @@
+package ch.epfl.chacun.sim;
+
+import ch.epfl.chacun.ActionEncoder;
+import ch.epfl.chacun.GameState;
+import ch.epfl.chacun.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Replay :
+ * relecture d'une partie à partir de son état initial et de la liste de ses actions encodées en base32 (voir
+ * ActionEncoder), telle que celle enregistrée par l'interface graphique.
+ * L'état obtenu après chaque multiple de K actions est conservé ; atteindre n'importe quelle position ne demande
+ * donc de rejouer qu'au plus K actions depuis le point de contrôle qui la précède. Les états du segment courant
+ * (entre deux points de contrôle) sont en outre conservés au fur et à mesure qu'ils sont calculés, si bien que
+ * reculer d'une action ou parcourir ce segment dans un sens ou dans l'autre ne rejoue rien. Comme les états de
+ * jeu partagent toutes leurs parties non modifiées, les points de contrôle occupent peu de place.
+ * Des actions peuvent être ajoutées ou retirées en fin de partie, ce qui permet par exemple d'annuler des coups.
+ *
+ * @author Rayan Berrada (378940)
+ * @author Jens Cancio (379510)
+ */
+public final class Replay {
+    private final int checkpointInterval;
+    private final List<String> actions = new ArrayList<>();
+    // état après 0, K, 2K, ... actions
+    private final List<GameState> checkpoints = new ArrayList<>();
+    // état après la totalité des actions
+    private GameState lastState;
+
+    // états déjà calculés du segment courant : segment[i] est l'état après segmentStart + i actions
+    private final GameState[] segment;
+    private int segmentStart = 0;
+    private int segmentSize = 1;
+
+    private int position = 0;
+
+    /**
+     * crée une relecture de la partie dont l'état initial et les actions sont donnés, positionnée au début
+     * @param initialState l'état initial de la partie (p. ex. celui dont la tuile de départ vient d'être posée)
+     * @param actions les actions encodées en base32, dans l'ordre où elles ont été jouées
+     * @param checkpointInterval le nombre d'actions K entre deux points de contrôle
+     * @throws IllegalArgumentException si K n'est pas strictement positif, ou si l'une des actions est invalide
+     * @throws NullPointerException si l'état initial est nul
+     */
+    public Replay(GameState initialState, List<String> actions, int checkpointInterval) {
+        Preconditions.checkArgument(checkpointInterval > 0);
+        this.checkpointInterval = checkpointInterval;
+        this.lastState = Objects.requireNonNull(initialState);
+        this.checkpoints.add(initialState);
+        this.segment = new GameState[checkpointInterval];
+        this.segment[0] = initialState;
+        for (String action : actions) {
+            append(action);
+        }
+    }
+
+    /**
+     * crée une relecture de la partie dont les tuiles ont été mélangées au moyen de la graine donnée, comme le
+     * font Simulator et l'interface graphique, positionnée au début
+     * @param playerCount le nombre de joueurs (entre 2 et 5)
+     * @param seed la graine de la partie
+     * @param actions les actions encodées en base32, dans l'ordre où elles ont été jouées
+     * @param checkpointInterval le nombre d'actions K entre deux points de contrôle
+     * @return la relecture de la partie
+     * @throws IllegalArgumentException si le nombre de joueurs ou K sont invalides, ou si l'une des actions est
+     * invalide
+     */
+    public static Replay ofSeed(int playerCount, long seed, List<String> actions, int checkpointInterval) {
+        return new Replay(Simulator.initialState(playerCount, seed), actions, checkpointInterval);
+    }
+
+    /**
+     * retourne les actions de la partie
+     * @return la liste (non modifiable) des actions encodées en base32
+     */
+    public List<String> actions() {
+        return Collections.unmodifiableList(actions);
+    }
+
+    /**
+     * retourne le nombre d'actions de la partie
+     * @return le nombre d'actions
+     */
+    public int size() {
+        return actions.size();
+    }
+
+    /**
+     * retourne la position courante, c.-à-d. le nombre d'actions appliquées à l'état initial pour obtenir
+     * l'état courant
+     * @return la position courante, comprise entre 0 et size()
+     */
+    public int position() {
+        return position;
+    }
+
+    /**
+     * retourne l'état de jeu à la position courante
+     * @return l'état de jeu courant
+     */
+    public GameState gameState() {
+        return segment[position - segmentStart];
+    }
+
+    /**
+     * se place à la position donnée, en rejouant au plus K actions ; des appels successifs (p. ex. lors du
+     * déplacement d'un curseur) ne rejouent que les actions qui n'ont pas encore été rejouées dans le segment
+     * de la position
+     * @param position la nouvelle position, comprise entre 0 et size()
+     * @throws IllegalArgumentException si la position est invalide
+     */
+    public void seek(int position) {
+        Preconditions.checkArgument(position >= 0 && position <= actions.size());
+        int start = position - position % checkpointInterval;
+        if (start != segmentStart) {
+            segmentStart = start;
+            segment[0] = checkpoints.get(start / checkpointInterval);
+            segmentSize = 1;
+        }
+        while (segmentStart + segmentSize <= position) {
+            GameState previous = segment[segmentSize - 1];
+            segment[segmentSize] = apply(previous, actions.get(segmentStart + segmentSize - 1));
+            segmentSize += 1;
+        }
+        this.position = position;
+    }
+
+    /**
+     * avance d'une action
+     * @throws IllegalStateException si la position courante est la dernière
+     */
+    public void stepForward() {
+        if (position == actions.size()) {
+            throw new IllegalStateException();
+        }
+        seek(position + 1);
+    }
+
+    /**
+     * recule d'une action
+     * @throws IllegalStateException si la position courante est la première
+     */
+    public void stepBackward() {
+        if (position == 0) {
+            throw new IllegalStateException();
+        }
+        seek(position - 1);
+    }
+
+    /**
+     * ajoute l'action donnée à la fin de la partie, sans changer la position courante
+     * @param action l'action encodée en base32, qui doit pouvoir être appliquée à l'état final
+     * @throws IllegalArgumentException si l'action est invalide
+     */
+    public void append(String action) {
+        lastState = apply(lastState, action);
+        actions.add(action);
+        if (actions.size() % checkpointInterval == 0) {
+            checkpoints.add(lastState);
+        }
+    }
+
+    /**
+     * retire les actions suivant la position donnée, qui devient la dernière et la position courante ; les
+     * actions jouées ensuite avec append remplacent donc celles qui ont été annulées
+     * @param size le nouveau nombre d'actions, compris entre 0 et size()
+     * @throws IllegalArgumentException si le nombre d'actions est invalide
+     */
+    public void truncate(int size) {
+        seek(size);
+        lastState = gameState();
+        actions.subList(size, actions.size()).clear();
+        checkpoints.subList(size / checkpointInterval + 1, checkpoints.size()).clear();
+        // les états calculés au-delà de la nouvelle fin ne sont plus valables
+        Arrays.fill(segment, size - segmentStart + 1, segmentSize, null);
+        segmentSize = size - segmentStart + 1;
+    }
+
+    /**
+     * retourne l'état obtenu en appliquant l'action donnée à l'état donné
+     * @param state l'état de jeu
+     * @param action l'action encodée en base32
+     * @return l'état de jeu suivant
+     * @throws IllegalArgumentException si l'action est invalide
+     */
+    private static GameState apply(GameState state, String action) {
+        ActionEncoder.StateAction stateAction = ActionEncoder.decodeAndApply(state, action);
+        Preconditions.checkArgument(stateAction != null);
+        return stateAction.gameState();
+    }
+}
@@ -0,0 +1,1323 @@
+package ch.epfl.chacun.sim;
+
+import ch.epfl.chacun.*;
+
+import java.util.*;
+
+/**
+ * SearchState :
+ * état de jeu modifiable destiné à l'exploration d'arbres de coups (bots, évaluation de variantes).
+ * Les coups y sont joués sur place : les tuiles, les quatre partitions de zones (unir-trouver avec union par
+ * taille et sans compression de chemins), les occupants, les animaux annulés et les points sont stockés dans
+ * des tableaux, et chaque case modifiée est inscrite avec son ancienne valeur dans un journal. Annuler un coup
+ * restaure, en ordre inverse, les cases inscrites depuis son début : jouer puis annuler un coup coûte un temps
+ * proportionnel au nombre de cases modifiées (quelques dizaines), sans copier aucune structure.
+ * Les règles sont celles de GameState (pirogue, fosse à pieux, chaman, forêts à menhir, décompte final avec
+ * le feu, la grande fosse à pieux et le radeau), et les points de chaque joueur sont ceux de son tableau
+ * d'affichage. Les messages eux-mêmes ne sont pas construits : asGameState les obtient en rejouant, depuis
+ * l'état d'origine, les actions non annulées. Seul le plateau borné (Board.REACH) est représenté.
+ *
+ * @author Rayan Berrada (378940)
+ * @author Jens Cancio (379510)
+ */
+public final class SearchState {
+    private static final int WIDTH = 2 * Board.REACH + 1;
+    private static final int COLORS = PlayerColor.ALL.size();
+    private static final int OCCUPANT_KINDS = Occupant.Kind.values().length;
+    // identifiants locaux des zones d'une tuile, et des animaux d'une zone
+    private static final int ZONES_PER_TILE = 10;
+    private static final int ANIMALS_PER_ZONE = 10;
+    private static final GameState.Action[] ACTIONS = GameState.Action.values();
+    private static final int INITIAL_CAPACITY = 64;
+
+    // indices des partitions, dans l'ordre de ZonePartitions
+    private static final int FORESTS = 0;
+    private static final int MEADOWS = 1;
+    private static final int RIVERS = 2;
+    private static final int RIVER_SYSTEMS = 3;
+    private static final int PARTITIONS = 4;
+
+    // contrainte de côtés d'une case libre, codée comme dans Board : la sorte exigée de chaque côté (voir
+    // Tile.sideSignature) occupe les 8 bits de poids faible, le masque des côtés contraints les 8 suivants
+    private static final int SIDE_MASK = 0b11;
+    private static final int MASK_SHIFT = 8;
+
+    // indices des valeurs scalaires de l'état dans scalars et references
+    private static final int TURN = 0;
+    private static final int NEXT_ACTION = 1;
+    private static final int LAST_CELL = 2;
+    private static final int TILE_TO_PLACE = 0;
+    private static final int TILE_DECKS = 1;
+
+    /**
+     * action jouée sur l'état : pose de tuile (PLACE_TILE), reprise de pion (RETAKE_PAWN), pose d'occupant
+     * (OCCUPY_TILE) ou coup complet (action nulle, argument de type GameState.Move)
+     *
+     * @param action l'action, ou null pour un coup complet
+     * @param argument la tuile placée, l'occupant (éventuellement nul) ou le coup
+     */
+    private record Step(GameState.Action action, Object argument) {
+        /**
+         * retourne l'état obtenu en jouant cette action sur l'état donné, au moyen des transitions de GameState
+         * @param state l'état de jeu
+         * @return l'état suivant
+         */
+        GameState applyTo(GameState state) {
+            return switch (action) {
+                case null -> played(state, (GameState.Move) argument);
+                case PLACE_TILE -> state.withPlacedTile((PlacedTile) argument);
+                case RETAKE_PAWN -> state.withOccupantRemoved((Occupant) argument);
+                default -> state.withNewOccupant((Occupant) argument);
+            };
+        }
+    }
+
+    private GameState origin;
+    private List<PlayerColor> players;
+    private int zoneCapacity;
+
+    // tuiles par case (voir cellOf) et par identifiant, contraintes de côtés des cases libres
+    private PlacedTile[] cells;
+    private PlacedTile[] tilesById;
+    private int[] requirements;
+    // zones par identifiant ; une zone ne change jamais, elle n'est donc pas inscrite au journal
+    private Zone[] zones;
+    // pour chaque partition et chaque zone : parent (-1 si la zone n'est pas sur le plateau), zone suivante de
+    // la liste circulaire des zones de son aire, et, pour les racines, nombre de zones, connexions ouvertes et
+    // occupants de chaque couleur (indexés par zone * COLORS + PlayerColor.ordinal())
+    private int[][] parents;
+    private int[][] nexts;
+    private int[][] sizes;
+    private int[][] openConnections;
+    private int[][] occupants;
+    // 1 pour chaque animal annulé, indexé par identifiant
+    private int[] cancelledAnimals;
+    // occupants sur le plateau de chaque joueur, indexés par PlayerColor.ordinal() * OCCUPANT_KINDS + sorte
+    private int[] occupantCounts;
+    private int[] points;
+    private int[] scalars;
+    private Object[] references;
+
+    // journal : tableau modifié, indice et ancienne valeur de chaque case inscrite
+    private Object[] logArrays = new Object[INITIAL_CAPACITY];
+    private int[] logIndices = new int[INITIAL_CAPACITY];
+    private int[] logInts = new int[INITIAL_CAPACITY];
+    private Object[] logObjects = new Object[INITIAL_CAPACITY];
+    private int logSize;
+
+    // début dans le journal et action de chaque coup pouvant être annulé
+    private int[] marks = new int[INITIAL_CAPACITY];
+    private Step[] steps = new Step[INITIAL_CAPACITY];
+    private int depth;
+
+    // tableaux de travail servant à ne compter qu'une fois chaque tuile ou lac d'une aire
+    private int[] tileStamps;
+    private int[] zoneStamps;
+    private int stamp;
+    private final int[] sideCounts = new int[ZONES_PER_TILE];
+    private final int[] closedRoots = new int[ZONES_PER_TILE];
+
+    /**
+     * crée l'état de recherche correspondant à l'état de jeu donné
+     * @param gameState l'état de jeu
+     */
+    private SearchState(GameState gameState) {
+        load(gameState);
+    }
+
+    /**
+     * retourne un état de recherche égal à l'état de jeu donné, sans coup à annuler ; sa construction parcourt
+     * une fois les cases du plateau
+     * @param gameState l'état de jeu
+     * @return le nouvel état de recherche
+     * @throws IllegalArgumentException si la partie n'a pas commencé (START_GAME) ou si le plateau n'est pas borné
+     */
+    public static SearchState of(GameState gameState) {
+        return new SearchState(gameState);
+    }
+
+    /**
+     * retourne l'état de jeu égal à l'état courant ; il est obtenu en rejouant, à partir de l'état d'origine
+     * (celui donné à of ou reset), les actions non annulées, et coûte donc une transition de GameState par action
+     * @return l'état de jeu courant, immuable
+     */
+    public GameState asGameState() {
+        GameState state = origin;
+        for (int i = 0; i < depth; i += 1) {
+            state = steps[i].applyTo(state);
+        }
+        return state;
+    }
+
+    /**
+     * retourne le nombre de coups pouvant être annulés
+     * @return le nombre de coups joués depuis la création (ou le dernier reset)
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * retourne la prochaine action (voir GameState.nextAction)
+     * @return la prochaine action
+     */
+    public GameState.Action nextAction() {
+        return ACTIONS[scalars[NEXT_ACTION]];
+    }
+
+    /**
+     * retourne le joueur courant, ou null si la partie est terminée (voir GameState.currentPlayer)
+     * @return le joueur courant
+     */
+    public PlayerColor currentPlayer() {
+        return nextAction() == GameState.Action.END_GAME ? null : players.get(scalars[TURN]);
+    }
+
+    /**
+     * retourne la tuile à placer, ou null si la prochaine action n'est pas PLACE_TILE
+     * @return la tuile à placer
+     */
+    public Tile tileToPlace() {
+        return (Tile) references[TILE_TO_PLACE];
+    }
+
+    /**
+     * retourne la dernière tuile posée, avec son éventuel occupant
+     * @return la dernière tuile posée
+     */
+    public PlacedTile lastPlacedTile() {
+        return cells[scalars[LAST_CELL]];
+    }
+
+    /**
+     * retourne les points remportés jusqu'ici par le joueur donné, c.-à-d. ceux que lui attribuent les messages
+     * du tableau d'affichage de l'état de jeu correspondant
+     * @param player le joueur
+     * @return ses points
+     */
+    public int points(PlayerColor player) {
+        return points[player.ordinal()];
+    }
+
+    /**
+     * retourne le nombre d'occupants de la sorte donnée que le joueur donné a encore en main
+     * @param player le joueur
+     * @param kind la sorte d'occupant
+     * @return le nombre d'occupants libres
+     */
+    public int freeOccupantsCount(PlayerColor player, Occupant.Kind kind) {
+        return Occupant.occupantsCount(kind) - occupantCounts[player.ordinal() * OCCUPANT_KINDS + kind.ordinal()];
+    }
+
+    /**
+     * retourne l'ensemble des occupants que le joueur courant peut poser sur la dernière tuile posée
+     * (voir GameState.lastTilePotentialOccupants)
+     * @return l'ensemble des occupants potentiels
+     */
+    public Set<Occupant> lastTilePotentialOccupants() {
+        Set<Occupant> potentialOccupants = new HashSet<>();
+        potentialOccupants(potentialOccupants);
+        return potentialOccupants;
+    }
+
+    /**
+     * retourne tous les placements légaux de la tuile à placer, ordonnés comme ceux de GameState.legalPlacements
+     * @return la liste des placements légaux
+     * @throws IllegalArgumentException si la prochaine action n'est pas PLACE_TILE
+     */
+    public List<PlacedTile> legalPlacements() {
+        Preconditions.checkArgument(nextAction() == GameState.Action.PLACE_TILE);
+        Tile tile = tileToPlace();
+        List<PlacedTile> placements = new ArrayList<>();
+        for (int cell = 0; cell < cells.length; cell += 1) {
+            if (cells[cell] == null && requirements[cell] != 0) {
+                for (Rotation rotation : Rotation.ALL) {
+                    if (satisfies(requirements[cell], tile.sideSignature(rotation))) {
+                        placements.add(new PlacedTile(tile, currentPlayer(), rotation, posOf(cell)));
+                    }
+                }
+            }
+        }
+        return placements;
+    }
+
+    /**
+     * retourne les pions du joueur courant se trouvant sur le plateau, par identifiant de zone croissant
+     * (voir GameState.retakablePawns)
+     * @return la liste des pions du joueur courant
+     */
+    public List<Occupant> retakablePawns() {
+        List<Occupant> pawns = new ArrayList<>();
+        // une tuile porte au plus un occupant : l'ordre des tuiles est celui des zones
+        for (PlacedTile tile : tilesById) {
+            if (tile != null && tile.occupant() != null && tile.occupant().kind() == Occupant.Kind.PAWN
+                    && tile.placer() == currentPlayer()) {
+                pawns.add(tile.occupant());
+            }
+        }
+        return pawns;
+    }
+
+    /**
+     * retourne tous les coups légaux du joueur courant, c.-à-d. les mêmes que GameState.legalMoves, dans le même
+     * ordre si ce n'est que les occupants d'une même zone sont ordonnés par sorte. Ils sont obtenus en jouant
+     * puis en annulant sur place chaque placement et chaque reprise.
+     * @return la liste des coups légaux
+     * @throws IllegalArgumentException si la prochaine action n'est pas PLACE_TILE
+     */
+    public List<GameState.Move> legalMoves() {
+        List<GameState.Move> moves = new ArrayList<>();
+        for (PlacedTile placedTile : legalPlacements()) {
+            placeTile(placedTile);
+            if (nextAction() == GameState.Action.RETAKE_PAWN) {
+                List<Occupant> pawns = new ArrayList<>();
+                pawns.add(null);
+                pawns.addAll(retakablePawns());
+                for (Occupant pawn : pawns) {
+                    retakePawn(pawn);
+                    addMoves(moves, placedTile, pawn);
+                    undo();
+                }
+            } else {
+                addMoves(moves, placedTile, null);
+            }
+            undo();
+        }
+        return moves;
+    }
+
+    /**
+     * ajoute aux coups donnés ceux formés du placement et de la reprise donnés, qui viennent d'être joués :
+     * d'abord sans occupant, puis avec chacun des occupants possibles, par identifiant de zone puis par sorte
+     * @param moves les coups
+     * @param placedTile le placement
+     * @param retakenPawn le pion repris, ou null
+     */
+    private void addMoves(List<GameState.Move> moves, PlacedTile placedTile, Occupant retakenPawn) {
+        moves.add(new GameState.Move(placedTile, retakenPawn, null));
+        if (nextAction() == GameState.Action.OCCUPY_TILE) {
+            lastTilePotentialOccupants().stream()
+                    .sorted(Comparator.comparingInt(Occupant::zoneId).thenComparing(Occupant::kind))
+                    .forEach(occupant -> moves.add(new GameState.Move(placedTile, retakenPawn, occupant)));
+        }
+    }
+
+    /**
+     * pose la tuile donnée (voir GameState.withPlacedTile)
+     * @param tile la tuile à poser
+     * @throws IllegalArgumentException si la prochaine action n'est pas PLACE_TILE, si la tuile est occupée ou
+     * si elle ne peut pas être ajoutée au plateau ; l'état est alors inchangé
+     */
+    public void placeTile(PlacedTile tile) {
+        apply(new Step(GameState.Action.PLACE_TILE, tile));
+    }
+
+    /**
+     * pose l'occupant donné, ou aucun s'il est nul (voir GameState.withNewOccupant)
+     * @param occupant l'occupant à poser, ou null
+     * @throws IllegalArgumentException si la prochaine action n'est pas OCCUPY_TILE ou si l'occupant ne peut pas
+     * être posé ; l'état est alors inchangé
+     */
+    public void occupyTile(Occupant occupant) {
+        apply(new Step(GameState.Action.OCCUPY_TILE, occupant));
+    }
+
+    /**
+     * reprend le pion donné, ou aucun s'il est nul (voir GameState.withOccupantRemoved)
+     * @param occupant le pion à reprendre, ou null
+     * @throws IllegalArgumentException si la prochaine action n'est pas RETAKE_PAWN ou si l'occupant n'est pas
+     * un pion du plateau ; l'état est alors inchangé
+     */
+    public void retakePawn(Occupant occupant) {
+        apply(new Step(GameState.Action.RETAKE_PAWN, occupant));
+    }
+
+    /**
+     * joue le coup donné : pose sa tuile, reprend son pion (éventuellement nul) si la prochaine action est alors
+     * RETAKE_PAWN, puis, si la prochaine action est alors OCCUPY_TILE, pose son occupant (éventuellement nul).
+     * Le coup complet est annulé par un seul appel à undo.
+     * @param move le coup à jouer (voir GameState.legalMoves)
+     * @throws IllegalArgumentException si le coup n'est pas jouable, notamment s'il reprend un pion ou pose un
+     * occupant alors que l'action correspondante n'a pas lieu ; l'état est alors inchangé
+     */
+    public void play(GameState.Move move) {
+        apply(new Step(null, Objects.requireNonNull(move)));
+    }
+
+    /**
+     * annule le dernier coup joué (placeTile, occupyTile, retakePawn ou play)
+     * @throws IllegalStateException s'il n'y a aucun coup à annuler
+     */
+    public void undo() {
+        if (depth == 0) {
+            throw new IllegalStateException();
+        }
+        depth -= 1;
+        rollBack(marks[depth]);
+        steps[depth] = null;
+    }
+
+    /**
+     * remplace l'état courant par celui donné et oublie tous les coups joués
+     * @param gameState le nouvel état de jeu
+     * @throws IllegalArgumentException si la partie n'a pas commencé ou si le plateau n'est pas borné
+     */
+    public void reset(GameState gameState) {
+        load(gameState);
+    }
+
+    /**
+     * retourne l'état obtenu en jouant le coup donné sur l'état donné, au moyen des transitions de GameState
+     * @param state l'état de jeu
+     * @param move le coup
+     * @return l'état suivant
+     */
+    private static GameState played(GameState state, GameState.Move move) {
+        GameState next = state.withPlacedTile(move.placedTile());
+        if (next.nextAction() == GameState.Action.RETAKE_PAWN) {
+            next = next.withOccupantRemoved(move.retakenPawn());
+        } else {
+            Preconditions.checkArgument(move.retakenPawn() == null);
+        }
+        if (next.nextAction() == GameState.Action.OCCUPY_TILE) {
+            next = next.withNewOccupant(move.occupant());
+        } else {
+            Preconditions.checkArgument(move.occupant() == null);
+        }
+        return next;
+    }
+
+    /**
+     * joue l'action donnée sur place et la retient pour undo et asGameState ; si elle lève une exception, les
+     * cases déjà modifiées sont restaurées
+     * @param step l'action
+     */
+    private void apply(Step step) {
+        int mark = logSize;
+        try {
+            switch (step.action()) {
+                case null -> {
+                    GameState.Move move = (GameState.Move) step.argument();
+                    placeTileInPlace(move.placedTile());
+                    if (nextAction() == GameState.Action.RETAKE_PAWN) {
+                        retakePawnInPlace(move.retakenPawn());
+                    } else {
+                        Preconditions.checkArgument(move.retakenPawn() == null);
+                    }
+                    if (nextAction() == GameState.Action.OCCUPY_TILE) {
+                        occupyTileInPlace(move.occupant());
+                    } else {
+                        Preconditions.checkArgument(move.occupant() == null);
+                    }
+                }
+                case PLACE_TILE -> placeTileInPlace((PlacedTile) step.argument());
+                case RETAKE_PAWN -> retakePawnInPlace((Occupant) step.argument());
+                default -> occupyTileInPlace((Occupant) step.argument());
+            }
+        } catch (RuntimeException e) {
+            rollBack(mark);
+            throw e;
+        }
+        if (depth == marks.length) {
+            marks = Arrays.copyOf(marks, depth * 2);
+            steps = Arrays.copyOf(steps, depth * 2);
+        }
+        marks[depth] = mark;
+        steps[depth] = step;
+        depth += 1;
+    }
+
+    /**
+     * gère la transition depuis PLACE_TILE, comme GameState.withPlacedTile
+     * @param tile la tuile à poser
+     */
+    private void placeTileInPlace(PlacedTile tile) {
+        Preconditions.checkArgument(nextAction() == GameState.Action.PLACE_TILE && tile.occupant() == null);
+        Preconditions.checkArgument(canAddTile(tile));
+        PlayerColor player = currentPlayer();
+        addTile(tile);
+        set(references, TILE_TO_PLACE, null);
+
+        Zone powerZone = tile.specialPowerZone();
+        Zone.SpecialPower power = powerZone == null ? null : powerZone.specialPower();
+        if (power == Zone.SpecialPower.LOGBOAT) {
+            addPoints(1 << player.ordinal(), Points.forLogboat(lakeCount(root(RIVER_SYSTEMS, powerZone.id()))));
+        } else if (power == Zone.SpecialPower.HUNTING_TRAP) {
+            scoreHuntingTrap(tile, player);
+        }
+
+        if (power == Zone.SpecialPower.SHAMAN
+                && occupantCounts[tile.placer().ordinal() * OCCUPANT_KINDS + Occupant.Kind.PAWN.ordinal()] > 0) {
+            setNextAction(GameState.Action.RETAKE_PAWN);
+        } else if (potentialOccupants(null)) {
+            setNextAction(GameState.Action.OCCUPY_TILE);
+        } else {
+            finishTurn();
+        }
+    }
+
+    /**
+     * gère la transition depuis RETAKE_PAWN, comme GameState.withOccupantRemoved : la possibilité d'occuper la
+     * dernière tuile y est déterminée avant que le pion ne soit retiré
+     * @param pawn le pion à reprendre, ou null
+     */
+    private void retakePawnInPlace(Occupant pawn) {
+        Preconditions.checkArgument(nextAction() == GameState.Action.RETAKE_PAWN
+                && (pawn == null || pawn.kind() == Occupant.Kind.PAWN));
+        boolean canOccupy = potentialOccupants(null);
+        if (pawn != null) {
+            removeOccupant(pawn);
+        }
+        if (canOccupy) {
+            setNextAction(GameState.Action.OCCUPY_TILE);
+        } else {
+            finishTurn();
+        }
+    }
+
+    /**
+     * gère la transition depuis OCCUPY_TILE, comme GameState.withNewOccupant
+     * @param occupant l'occupant à poser, ou null
+     */
+    private void occupyTileInPlace(Occupant occupant) {
+        Preconditions.checkArgument(nextAction() == GameState.Action.OCCUPY_TILE);
+        if (occupant != null) {
+            addOccupant(occupant);
+        }
+        finishTurn();
+    }
+
+    /**
+     * termine le tour comme GameState : attribue les points des forêts et rivières fermées par la dernière
+     * tuile et en retire les pions, accorde un second tour si une forêt à menhir a été fermée au moyen d'une
+     * tuile normale, puis tire la prochaine tuile plaçable, ou procède au décompte final s'il n'y en a plus
+     */
+    private void finishTurn() {
+        PlacedTile lastTile = lastPlacedTile();
+        TileDecks tileDecks = (TileDecks) references[TILE_DECKS];
+
+        int closedForests = closedRoots(FORESTS, lastTile.tile().forestZones());
+        boolean menhirClosed = false;
+        for (int i = 0; i < closedForests; i += 1) {
+            int root = closedRoots[i];
+            scoreClosedArea(FORESTS, root);
+            menhirClosed |= hasMenhir(root);
+            removePawns(FORESTS, root);
+        }
+        int closedRivers = closedRoots(RIVERS, lastTile.tile().riverZones());
+        for (int i = 0; i < closedRivers; i += 1) {
+            scoreClosedArea(RIVERS, closedRoots[i]);
+            removePawns(RIVERS, closedRoots[i]);
+        }
+
+        boolean secondTurn = menhirClosed && lastTile.kind() == Tile.Kind.NORMAL
+                && !tileDecks.menhirTiles().isEmpty();
+        TileDecks newTileDecks = tileDecks;
+        Tile newTileToPlace = null;
+        if (secondTurn) {
+            newTileDecks = tileDecks.withTopTileDrawnUntil(Tile.Kind.MENHIR, this::couldPlaceTile);
+            if (newTileDecks.deckSize(Tile.Kind.MENHIR) > 0) {
+                newTileToPlace = newTileDecks.topTile(Tile.Kind.MENHIR);
+                newTileDecks = newTileDecks.withTopTileDrawn(Tile.Kind.MENHIR);
+            } else {
+                secondTurn = false;
+            }
+        }
+        if (!secondTurn && tileDecks.deckSize(Tile.Kind.NORMAL) > 0) {
+            newTileDecks = tileDecks.withTopTileDrawnUntil(Tile.Kind.NORMAL, this::couldPlaceTile);
+            if (newTileDecks.deckSize(Tile.Kind.NORMAL) > 0) {
+                newTileToPlace = newTileDecks.topTile(Tile.Kind.NORMAL);
+                newTileDecks = newTileDecks.withTopTileDrawn(Tile.Kind.NORMAL);
+            }
+        }
+
+        if (newTileToPlace == null) {
+            countFinalPoints();
+            return;
+        }
+        if (!secondTurn) {
+            set(scalars, TURN, (scalars[TURN] + 1) % players.size());
+        }
+        set(references, TILE_DECKS, newTileDecks);
+        set(references, TILE_TO_PLACE, newTileToPlace);
+        setNextAction(GameState.Action.PLACE_TILE);
+    }
+
+    /**
+     * procède au décompte final comme GameState : prés (feu et grande fosse à pieux compris) puis réseaux
+     * hydrographiques (radeau compris) ; la partie est alors terminée
+     */
+    private void countFinalPoints() {
+        for (int zoneId = 0; zoneId < zoneCapacity; zoneId += 1) {
+            if (parents[MEADOWS][zoneId] == zoneId) {
+                scoreMeadow(zoneId);
+            }
+            if (parents[RIVER_SYSTEMS][zoneId] == zoneId) {
+                scoreRiverSystem(zoneId);
+            }
+        }
+        set(references, TILE_TO_PLACE, null);
+        setNextAction(GameState.Action.END_GAME);
+    }
+
+    /**
+     * attribue au joueur donné les points de la fosse à pieux de la tuile donnée, qui vient d'être posée, puis
+     * annule tous les animaux du pré adjacent ; comme dans GameState, chaque tigre y annule un cerf, et les
+     * animaux sont comptés même s'ils étaient déjà annulés (seule la fosse à pieux en annule avant le décompte
+     * final)
+     * @param tile la tuile de la fosse à pieux
+     * @param player le joueur qui l'a posée
+     */
+    private void scoreHuntingTrap(PlacedTile tile, PlayerColor player) {
+        int[] next = nexts[MEADOWS];
+        int root = root(MEADOWS, tile.specialPowerZone().id());
+        int[] animalCounts = new int[Animal.Kind.values().length];
+        int zoneId = root;
+        do {
+            if (isAdjacent(zoneId, tile.pos())) {
+                for (Animal animal : ((Zone.Meadow) zones[zoneId]).animals()) {
+                    animalCounts[animal.kind().ordinal()] += 1;
+                }
+            }
+            zoneId = next[zoneId];
+        } while (zoneId != root);
+
+        int deerCount = animalCounts[Animal.Kind.DEER.ordinal()];
+        int huntingTrapPoints = Points.forMeadow(animalCounts[Animal.Kind.MAMMOTH.ordinal()],
+                animalCounts[Animal.Kind.AUROCHS.ordinal()],
+                deerCount - Math.min(animalCounts[Animal.Kind.TIGER.ordinal()], deerCount));
+        if (huntingTrapPoints > 0) {
+            addPoints(1 << player.ordinal(), huntingTrapPoints);
+        }
+
+        zoneId = root;
+        do {
+            if (isAdjacent(zoneId, tile.pos())) {
+                for (Animal animal : ((Zone.Meadow) zones[zoneId]).animals()) {
+                    set(cancelledAnimals, animal.id(), 1);
+                }
+            }
+            zoneId = next[zoneId];
+        } while (zoneId != root);
+    }
+
+    /**
+     * attribue aux occupants majoritaires du pré de racine donnée les points du décompte final : ceux du pré,
+     * où chaque tigre annule un cerf sauf en présence du feu, puis ceux de la grande fosse à pieux, dont le pré
+     * adjacent perd en dernier ses cerfs annulés
+     * @param root la racine du pré
+     */
+    private void scoreMeadow(int root) {
+        int majority = majorityOccupants(MEADOWS, root);
+        if (majority == 0) {
+            return;
+        }
+        int[] next = nexts[MEADOWS];
+        int[] animalCounts = new int[Animal.Kind.values().length];
+        boolean fire = false;
+        Zone.Meadow pitTrap = null;
+        int zoneId = root;
+        do {
+            Zone.Meadow meadow = (Zone.Meadow) zones[zoneId];
+            fire |= meadow.specialPower() == Zone.SpecialPower.WILD_FIRE;
+            if (meadow.specialPower() == Zone.SpecialPower.PIT_TRAP) {
+                pitTrap = meadow;
+            }
+            countAnimals(meadow, animalCounts);
+            zoneId = next[zoneId];
+        } while (zoneId != root);
+
+        int deerCount = animalCounts[Animal.Kind.DEER.ordinal()];
+        int cancelledDeer = fire ? 0 : Math.min(animalCounts[Animal.Kind.TIGER.ordinal()], deerCount);
+        int meadowPoints = Points.forMeadow(animalCounts[Animal.Kind.MAMMOTH.ordinal()],
+                animalCounts[Animal.Kind.AUROCHS.ordinal()], deerCount - cancelledDeer);
+        if (meadowPoints > 0) {
+            addPoints(majority, meadowPoints);
+        }
+
+        if (pitTrap != null) {
+            Pos pitTrapPos = tilesById[pitTrap.tileId()].pos();
+            int[] adjacentCounts = new int[Animal.Kind.values().length];
+            zoneId = root;
+            do {
+                if (isAdjacent(zoneId, pitTrapPos)) {
+                    countAnimals((Zone.Meadow) zones[zoneId], adjacentCounts);
+                }
+                zoneId = next[zoneId];
+            } while (zoneId != root);
+            int adjacentDeer = adjacentCounts[Animal.Kind.DEER.ordinal()];
+            int cancelledAdjacentDeer = Math.max(0, cancelledDeer - (deerCount - adjacentDeer));
+            int pitTrapPoints = Points.forMeadow(adjacentCounts[Animal.Kind.MAMMOTH.ordinal()],
+                    adjacentCounts[Animal.Kind.AUROCHS.ordinal()], adjacentDeer - cancelledAdjacentDeer);
+            if (pitTrapPoints > 0) {
+                addPoints(majority, pitTrapPoints);
+            }
+        }
+    }
+
+    /**
+     * attribue aux occupants majoritaires du réseau hydrographique de racine donnée les points du décompte
+     * final : ceux de ses poissons, puis ceux du radeau s'il le contient
+     * @param root la racine du réseau hydrographique
+     */
+    private void scoreRiverSystem(int root) {
+        int majority = majorityOccupants(RIVER_SYSTEMS, root);
+        if (majority == 0) {
+            return;
+        }
+        int[] next = nexts[RIVER_SYSTEMS];
+        int fishCount = 0;
+        boolean raft = false;
+        int zoneId = root;
+        do {
+            Zone.Water water = (Zone.Water) zones[zoneId];
+            fishCount += water.fishCount();
+            raft |= water.specialPower() == Zone.SpecialPower.RAFT;
+            zoneId = next[zoneId];
+        } while (zoneId != root);
+        if (fishCount > 0) {
+            addPoints(majority, Points.forRiverSystem(fishCount));
+        }
+        if (raft) {
+            addPoints(majority, Points.forRaft(lakeCount(root)));
+        }
+    }
+
+    /**
+     * attribue aux occupants majoritaires de la forêt ou de la rivière fermée de racine donnée les points de sa
+     * fermeture
+     * @param partition FORESTS ou RIVERS
+     * @param root la racine de l'aire
+     */
+    private void scoreClosedArea(int partition, int root) {
+        int majority = majorityOccupants(partition, root);
+        if (majority == 0) {
+            return;
+        }
+        int[] next = nexts[partition];
+        int tileStamp = newStamp();
+        int tileCount = 0;
+        int itemCount = 0;
+        int zoneId = root;
+        do {
+            if (tileStamps[Zone.tileId(zoneId)] != tileStamp) {
+                tileStamps[Zone.tileId(zoneId)] = tileStamp;
+                tileCount += 1;
+            }
+            switch (zones[zoneId]) {
+                case Zone.Forest forest -> {
+                    if (forest.kind() == Zone.Forest.Kind.WITH_MUSHROOMS) itemCount += 1;
+                }
+                case Zone.River river -> {
+                    itemCount += river.fishCount();
+                    // un lac aux extrémités de la rivière n'est compté qu'une fois
+                    if (river.hasLake() && zoneStamps[river.lake().id()] != tileStamp) {
+                        zoneStamps[river.lake().id()] = tileStamp;
+                        itemCount += river.lake().fishCount();
+                    }
+                }
+                default -> throw new IllegalArgumentException();
+            }
+            zoneId = next[zoneId];
+        } while (zoneId != root);
+        addPoints(majority, partition == FORESTS
+                ? Points.forClosedForest(tileCount, itemCount)
+                : Points.forClosedRiver(tileCount, itemCount));
+    }
+
+    /**
+     * retire du plateau les pions occupant une zone de l'aire de racine donnée, et vide l'aire de ses occupants
+     * @param partition FORESTS ou RIVERS
+     * @param root la racine de l'aire
+     */
+    private void removePawns(int partition, int root) {
+        int[] next = nexts[partition];
+        int zoneId = root;
+        do {
+            PlacedTile tile = tilesById[Zone.tileId(zoneId)];
+            Occupant occupant = tile.occupant();
+            if (occupant != null && occupant.zoneId() == zoneId && occupant.kind() == Occupant.Kind.PAWN) {
+                replaceTile(tile.withNoOccupant());
+                countOccupant(tile.placer(), Occupant.Kind.PAWN, -1);
+            }
+            zoneId = next[zoneId];
+        } while (zoneId != root);
+        for (int color = 0; color < COLORS; color += 1) {
+            set(occupants[partition], root * COLORS + color, 0);
+        }
+    }
+
+    /**
+     * place dans closedRoots les racines, sans doublon, des aires fermées contenant l'une des zones données
+     * @param partition la partition des zones
+     * @param zones les zones de la dernière tuile
+     * @return le nombre d'aires fermées
+     */
+    private int closedRoots(int partition, Set<? extends Zone> zones) {
+        int count = 0;
+        for (Zone zone : zones) {
+            int root = root(partition, zone.id());
+            if (openConnections[partition][root] == 0 && !contains(closedRoots, count, root)) {
+                closedRoots[count] = root;
+                count += 1;
+            }
+        }
+        return count;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i += 1) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    /**
+     * ajoute à l'ensemble donné, s'il n'est pas nul, les occupants que le joueur courant peut poser sur la
+     * dernière tuile posée (voir GameState.lastTilePotentialOccupants)
+     * @param potentialOccupants l'ensemble à remplir, ou null pour seulement savoir s'il en existe
+     * @return vrai ssi au moins un occupant peut être posé
+     */
+    private boolean potentialOccupants(Set<Occupant> potentialOccupants) {
+        PlayerColor player = currentPlayer();
+        boolean freePawn = freeOccupantsCount(player, Occupant.Kind.PAWN) > 0;
+        boolean freeHut = freeOccupantsCount(player, Occupant.Kind.HUT) > 0;
+        boolean found = false;
+        for (Zone zone : lastPlacedTile().tile().zones()) {
+            int zoneId = zone.id();
+            switch (zone) {
+                case Zone.Forest forest -> {
+                    if (freePawn && !isOccupied(FORESTS, zoneId)) found = add(potentialOccupants, Occupant.Kind.PAWN, zoneId);
+                }
+                case Zone.Meadow meadow -> {
+                    if (freePawn && !isOccupied(MEADOWS, zoneId)) found = add(potentialOccupants, Occupant.Kind.PAWN, zoneId);
+                }
+                case Zone.Water water -> {
+                    if (water instanceof Zone.River && freePawn && !isOccupied(RIVERS, zoneId)) {
+                        found = add(potentialOccupants, Occupant.Kind.PAWN, zoneId);
+                    }
+                    if (freeHut && !isOccupied(RIVER_SYSTEMS, zoneId)
+                            && !(water instanceof Zone.River river && river.hasLake())) {
+                        found = add(potentialOccupants, Occupant.Kind.HUT, zoneId);
+                    }
+                }
+            }
+            if (found && potentialOccupants == null) {
+                return true;
+            }
+        }
+        return found;
+    }
+
+    private static boolean add(Set<Occupant> occupants, Occupant.Kind kind, int zoneId) {
+        if (occupants != null) {
+            occupants.add(new Occupant(kind, zoneId));
+        }
+        return true;
+    }
+
+    /**
+     * pose l'occupant donné sur sa tuile, comme Board.withOccupant
+     * @param occupant l'occupant
+     * @throws IllegalArgumentException si sa tuile n'est pas sur le plateau ou est déjà occupée, ou si l'aire de
+     * sa zone est occupée ou ne peut pas recevoir un occupant de cette sorte
+     */
+    private void addOccupant(Occupant occupant) {
+        PlacedTile tile = tileWithId(Zone.tileId(occupant.zoneId()));
+        Preconditions.checkArgument(tile.occupant() == null);
+        int partition = partitionOf(tile.zoneWithId(occupant.zoneId()), occupant.kind());
+        int root = root(partition, occupant.zoneId());
+        Preconditions.checkArgument(!isOccupied(partition, root));
+        int slot = root * COLORS + tile.placer().ordinal();
+        set(occupants[partition], slot, occupants[partition][slot] + 1);
+        replaceTile(tile.withOccupant(occupant));
+        countOccupant(tile.placer(), occupant.kind(), 1);
+    }
+
+    /**
+     * retire le pion donné de sa tuile, comme Board.withoutOccupant
+     * @param pawn le pion
+     * @throws IllegalArgumentException si sa tuile n'est pas sur le plateau ou n'est pas occupée par ce pion
+     */
+    private void removeOccupant(Occupant pawn) {
+        PlacedTile tile = tileWithId(Zone.tileId(pawn.zoneId()));
+        Preconditions.checkArgument(pawn.equals(tile.occupant()));
+        int partition = partitionOf(tile.zoneWithId(pawn.zoneId()), pawn.kind());
+        int slot = root(partition, pawn.zoneId()) * COLORS + tile.placer().ordinal();
+        Preconditions.checkArgument(occupants[partition][slot] > 0);
+        set(occupants[partition], slot, occupants[partition][slot] - 1);
+        replaceTile(tile.withNoOccupant());
+        countOccupant(tile.placer(), pawn.kind(), -1);
+    }
+
+    /**
+     * retourne la partition dont une aire reçoit un occupant de la sorte donnée posé sur la zone donnée
+     * (voir ZonePartitions.Builder.addInitialOccupant)
+     * @param zone la zone
+     * @param kind la sorte de l'occupant
+     * @return l'indice de la partition
+     * @throws IllegalArgumentException si la zone ne peut pas être occupée par un occupant de cette sorte
+     */
+    private static int partitionOf(Zone zone, Occupant.Kind kind) {
+        boolean pawn = kind == Occupant.Kind.PAWN;
+        return switch (zone) {
+            case Zone.Forest forest when pawn -> FORESTS;
+            case Zone.Meadow meadow when pawn -> MEADOWS;
+            case Zone.River river when pawn -> RIVERS;
+            case Zone.Water water when !pawn -> RIVER_SYSTEMS;
+            default -> throw new IllegalArgumentException();
+        };
+    }
+
+    private PlacedTile tileWithId(int tileId) {
+        PlacedTile tile = tileId < tilesById.length ? tilesById[tileId] : null;
+        Preconditions.checkArgument(tile != null);
+        return tile;
+    }
+
+    /**
+     * remplace la tuile de même identifiant que la tuile donnée, dans les deux tables de tuiles
+     * @param tile la nouvelle tuile
+     */
+    private void replaceTile(PlacedTile tile) {
+        set(cells, cellOf(tile.pos().x(), tile.pos().y()), tile);
+        set(tilesById, tile.id(), tile);
+    }
+
+    private void countOccupant(PlayerColor placer, Occupant.Kind kind, int delta) {
+        if (placer != null) {
+            int slot = placer.ordinal() * OCCUPANT_KINDS + kind.ordinal();
+            set(occupantCounts, slot, occupantCounts[slot] + delta);
+        }
+    }
+
+    /**
+     * ajoute les points donnés à chacun des joueurs du masque donné
+     * @param players le masque des joueurs, indexé par PlayerColor.ordinal()
+     * @param earnedPoints les points remportés
+     */
+    private void addPoints(int players, int earnedPoints) {
+        for (int color = 0; color < COLORS; color += 1) {
+            if ((players & (1 << color)) != 0) {
+                set(points, color, points[color] + earnedPoints);
+            }
+        }
+    }
+
+    private void setNextAction(GameState.Action action) {
+        set(scalars, NEXT_ACTION, action.ordinal());
+    }
+
+
+    /**
+     * retourne la case de la position donnée, qui doit être à la portée du plateau borné
+     */
+    private static int cellOf(int x, int y) {
+        return (x + Board.REACH) * WIDTH + y + Board.REACH;
+    }
+
+    private static Pos posOf(int cell) {
+        return new Pos(cell / WIDTH - Board.REACH, cell % WIDTH - Board.REACH);
+    }
+
+    private static boolean inReach(int x, int y) {
+        return Math.abs(x) <= Board.REACH && Math.abs(y) <= Board.REACH;
+    }
+
+    private static boolean satisfies(int requirement, int signature) {
+        return (signature & (requirement >>> MASK_SHIFT)) == (requirement & 0xFF);
+    }
+
+    /**
+     * retourne vrai ssi la tuile placée donnée peut être ajoutée au plateau (voir Board.canAddTile)
+     */
+    private boolean canAddTile(PlacedTile tile) {
+        if (!inReach(tile.pos().x(), tile.pos().y())) {
+            return false;
+        }
+        int cell = cellOf(tile.pos().x(), tile.pos().y());
+        return cells[cell] == null && requirements[cell] != 0 && satisfies(requirements[cell], tile.sideSignature());
+    }
+
+    /**
+     * retourne vrai ssi la tuile donnée pourrait être posée sur l'une des cases de la frange, après une
+     * éventuelle rotation (voir Board.couldPlaceTile)
+     */
+    private boolean couldPlaceTile(Tile tile) {
+        for (int cell = 0; cell < cells.length; cell += 1) {
+            if (cells[cell] == null && requirements[cell] != 0) {
+                for (Rotation rotation : Rotation.ALL) {
+                    if (satisfies(requirements[cell], tile.sideSignature(rotation))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * retourne vrai ssi la zone donnée se trouve sur une tuile voisine (diagonales comprises) de la position
+     * donnée, ou à cette position (voir Board.adjacentMeadow)
+     */
+    private boolean isAdjacent(int zoneId, Pos pos) {
+        Pos zonePos = tilesById[Zone.tileId(zoneId)].pos();
+        return Math.abs(zonePos.x() - pos.x()) <= 1 && Math.abs(zonePos.y() - pos.y()) <= 1;
+    }
+
+    /**
+     * ajoute la tuile donnée au plateau : l'inscrit dans les tables de tuiles, ajoute ses zones aux partitions,
+     * les connecte à celles des tuiles voisines et contraint les cases libres voisines
+     * @param tile la tuile placée
+     */
+    private void addTile(PlacedTile tile) {
+        int packed = tile.pos().packed();
+        int cell = cellOf(tile.pos().x(), tile.pos().y());
+        set(cells, cell, tile);
+        set(tilesById, tile.id(), tile);
+        set(scalars, LAST_CELL, cell);
+        addZones(tile.tile());
+
+        int signature = tile.sideSignature();
+        for (Direction direction : Direction.ALL) {
+            int neighbor = Pos.packedNeighbor(packed, direction);
+            int x = Pos.packedX(neighbor);
+            int y = Pos.packedY(neighbor);
+            if (!inReach(x, y)) continue;
+            int neighborCell = cellOf(x, y);
+            PlacedTile neighborTile = cells[neighborCell];
+            if (neighborTile != null) {
+                connectSides(tile.side(direction), neighborTile.side(direction.opposite()));
+            } else {
+                int kindCode = (signature >>> (2 * direction.ordinal())) & SIDE_MASK;
+                int shift = 2 * direction.opposite().ordinal();
+                set(requirements, neighborCell, requirements[neighborCell]
+                        | (kindCode << shift) | (SIDE_MASK << (MASK_SHIFT + shift)));
+            }
+        }
+    }
+
+    /**
+     * ajoute aux partitions les aires formées des zones de la tuile donnée (voir ZonePartitions.Builder.addTile)
+     * @param tile la tuile
+     */
+    private void addZones(Tile tile) {
+        // un lac compte une connexion pour chaque côté touché par une rivière qui s'y jette
+        Arrays.fill(sideCounts, 0);
+        for (TileSide side : tile.sides()) {
+            for (Zone zone : side.zones()) {
+                sideCounts[zone.localId()] += 1;
+                if (zone instanceof Zone.River river && river.hasLake()) {
+                    sideCounts[river.lake().localId()] += 1;
+                }
+            }
+        }
+        for (Zone zone : tile.zones()) {
+            int open = sideCounts[zone.localId()];
+            switch (zone) {
+                case Zone.Forest forest -> addSingleton(FORESTS, forest, open);
+                case Zone.Meadow meadow -> addSingleton(MEADOWS, meadow, open);
+                case Zone.River river -> {
+                    addSingleton(RIVERS, river, open);
+                    addSingleton(RIVER_SYSTEMS, river, river.hasLake() ? open + 1 : open);
+                }
+                case Zone.Lake lake -> addSingleton(RIVER_SYSTEMS, lake, open);
+            }
+        }
+        for (Zone zone : tile.zones()) {
+            if (zone instanceof Zone.River river && river.hasLake()) {
+                union(RIVER_SYSTEMS, river.id(), river.lake().id());
+            }
+        }
+    }
+
+    /**
+     * connecte les deux bords donnés (voir ZonePartitions.Builder.connectSides)
+     * @throws IllegalArgumentException si les deux bords ne sont pas de la même sorte
+     */
+    private void connectSides(TileSide s1, TileSide s2) {
+        switch (s1) {
+            case TileSide.Meadow(Zone.Meadow m1)
+                    when s2 instanceof TileSide.Meadow(Zone.Meadow m2) -> union(MEADOWS, m1.id(), m2.id());
+            case TileSide.Forest(Zone.Forest f1)
+                    when s2 instanceof TileSide.Forest(Zone.Forest f2) -> union(FORESTS, f1.id(), f2.id());
+            case TileSide.River(Zone.Meadow m1s1, Zone.River r1, Zone.Meadow m2s1)
+                    when s2 instanceof TileSide.River(Zone.Meadow m1s2, Zone.River r2, Zone.Meadow m2s2) -> {
+                union(MEADOWS, m1s1.id(), m2s2.id());
+                union(RIVERS, r1.id(), r2.id());
+                union(MEADOWS, m2s1.id(), m1s2.id());
+                union(RIVER_SYSTEMS, r1.id(), r2.id());
+            }
+            default -> throw new IllegalArgumentException();
+        }
+    }
+
+
+    private void addSingleton(int partition, Zone zone, int open) {
+        int zoneId = zone.id();
+        zones[zoneId] = zone;
+        set(parents[partition], zoneId, zoneId);
+        set(nexts[partition], zoneId, zoneId);
+        set(sizes[partition], zoneId, 1);
+        set(openConnections[partition], zoneId, open);
+    }
+
+    private int root(int partition, int zoneId) {
+        int[] parent = parents[partition];
+        while (parent[zoneId] != zoneId) {
+            zoneId = parent[zoneId];
+        }
+        return zoneId;
+    }
+
+    /**
+     * unit les aires contenant les deux zones données, comme Area.connectTo : les connexions ouvertes
+     * diminuent de deux, et les occupants s'additionnent ; la plus petite aire est rattachée à la plus grande
+     */
+    private void union(int partition, int zoneId1, int zoneId2) {
+        int root1 = root(partition, zoneId1);
+        int root2 = root(partition, zoneId2);
+        int[] open = openConnections[partition];
+        if (root1 == root2) {
+            set(open, root1, open[root1] - 2);
+            return;
+        }
+        int[] size = sizes[partition];
+        if (size[root1] < size[root2]) {
+            int smallerRoot = root1;
+            root1 = root2;
+            root2 = smallerRoot;
+        }
+        set(parents[partition], root2, root1);
+        set(size, root1, size[root1] + size[root2]);
+        set(open, root1, open[root1] + open[root2] - 2);
+        int[] counts = occupants[partition];
+        for (int color = 0; color < COLORS; color += 1) {
+            int slot2 = root2 * COLORS + color;
+            if (counts[slot2] != 0) {
+                set(counts, root1 * COLORS + color, counts[root1 * COLORS + color] + counts[slot2]);
+                set(counts, slot2, 0);
+            }
+        }
+        // les deux listes circulaires de zones n'en forment plus qu'une
+        int[] next = nexts[partition];
+        int next1 = next[root1];
+        set(next, root1, next[root2]);
+        set(next, root2, next1);
+    }
+
+    private boolean isOccupied(int partition, int zoneId) {
+        int root = root(partition, zoneId);
+        for (int color = 0; color < COLORS; color += 1) {
+            if (occupants[partition][root * COLORS + color] > 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * retourne le masque (indexé par PlayerColor.ordinal()) des occupants majoritaires de l'aire de racine
+     * donnée, nul si elle est inoccupée
+     */
+    private int majorityOccupants(int partition, int root) {
+        int max = 0;
+        for (int color = 0; color < COLORS; color += 1) {
+            max = Math.max(max, occupants[partition][root * COLORS + color]);
+        }
+        int mask = 0;
+        for (int color = 0; max > 0 && color < COLORS; color += 1) {
+            if (occupants[partition][root * COLORS + color] == max) mask |= 1 << color;
+        }
+        return mask;
+    }
+
+    private int lakeCount(int root) {
+        int[] next = nexts[RIVER_SYSTEMS];
+        int lakeCount = 0;
+        int zoneId = root;
+        do {
+            if (zones[zoneId] instanceof Zone.Lake) lakeCount += 1;
+            zoneId = next[zoneId];
+        } while (zoneId != root);
+        return lakeCount;
+    }
+
+    private boolean hasMenhir(int root) {
+        int[] next = nexts[FORESTS];
+        int zoneId = root;
+        do {
+            if (((Zone.Forest) zones[zoneId]).kind() == Zone.Forest.Kind.WITH_MENHIR) return true;
+            zoneId = next[zoneId];
+        } while (zoneId != root);
+        return false;
+    }
+
+    /**
+     * ajoute aux compteurs donnés, indexés par sorte, les animaux non annulés du pré donné
+     */
+    private void countAnimals(Zone.Meadow meadow, int[] animalCounts) {
+        for (Animal animal : meadow.animals()) {
+            if (cancelledAnimals[animal.id()] == 0) {
+                animalCounts[animal.kind().ordinal()] += 1;
+            }
+        }
+    }
+
+    private int newStamp() {
+        stamp += 1;
+        return stamp;
+    }
+
+
+    private void set(int[] array, int index, int value) {
+        if (array[index] != value) {
+            log(array, index, array[index], null);
+            array[index] = value;
+        }
+    }
+
+    private void set(Object[] array, int index, Object value) {
+        if (array[index] != value) {
+            log(array, index, 0, array[index]);
+            array[index] = value;
+        }
+    }
+
+    private void log(Object array, int index, int oldInt, Object oldObject) {
+        if (logSize == logArrays.length) {
+            logArrays = Arrays.copyOf(logArrays, logSize * 2);
+            logIndices = Arrays.copyOf(logIndices, logSize * 2);
+            logInts = Arrays.copyOf(logInts, logSize * 2);
+            logObjects = Arrays.copyOf(logObjects, logSize * 2);
+        }
+        logArrays[logSize] = array;
+        logIndices[logSize] = index;
+        logInts[logSize] = oldInt;
+        logObjects[logSize] = oldObject;
+        logSize += 1;
+    }
+
+    /**
+     * restaure, du plus récent au plus ancien, les cases inscrites au journal depuis la position donnée
+     * @param mark la position du journal à retrouver
+     */
+    private void rollBack(int mark) {
+        while (logSize > mark) {
+            logSize -= 1;
+            if (logArrays[logSize] instanceof int[] ints) {
+                ints[logIndices[logSize]] = logInts[logSize];
+            } else {
+                ((Object[]) logArrays[logSize])[logIndices[logSize]] = logObjects[logSize];
+            }
+            logArrays[logSize] = null;
+            logObjects[logSize] = null;
+        }
+    }
+
+
+    /**
+     * remplace tout l'état par celui de l'état de jeu donné, en reconstruisant les partitions à partir des
+     * tuiles du plateau, et vide le journal
+     * @param gameState l'état de jeu
+     */
+    private void load(GameState gameState) {
+        Preconditions.checkArgument(gameState.nextAction() != GameState.Action.START_GAME);
+        Board board = gameState.board();
+        List<PlacedTile> placedTiles = new ArrayList<>();
+        for (int cell = 0; cell < WIDTH * WIDTH; cell += 1) {
+            PlacedTile tile = board.tileAt(posOf(cell));
+            if (tile != null) placedTiles.add(tile);
+        }
+
+        int tileCapacity = 0;
+        TileDecks tileDecks = gameState.tileDecks();
+        for (List<Tile> deck : List.of(tileDecks.startTiles(), tileDecks.normalTiles(), tileDecks.menhirTiles())) {
+            for (Tile tile : deck) tileCapacity = Math.max(tileCapacity, tile.id() + 1);
+        }
+        for (PlacedTile tile : placedTiles) tileCapacity = Math.max(tileCapacity, tile.id() + 1);
+        if (gameState.tileToPlace() != null) tileCapacity = Math.max(tileCapacity, gameState.tileToPlace().id() + 1);
+
+        origin = gameState;
+        players = gameState.players();
+        zoneCapacity = tileCapacity * ZONES_PER_TILE;
+        cells = new PlacedTile[WIDTH * WIDTH];
+        tilesById = new PlacedTile[tileCapacity];
+        requirements = new int[WIDTH * WIDTH];
+        zones = new Zone[zoneCapacity];
+        parents = new int[PARTITIONS][zoneCapacity];
+        nexts = new int[PARTITIONS][zoneCapacity];
+        sizes = new int[PARTITIONS][zoneCapacity];
+        openConnections = new int[PARTITIONS][zoneCapacity];
+        occupants = new int[PARTITIONS][zoneCapacity * COLORS];
+        for (int[] parent : parents) Arrays.fill(parent, -1);
+        cancelledAnimals = new int[zoneCapacity * ANIMALS_PER_ZONE];
+        occupantCounts = new int[COLORS * OCCUPANT_KINDS];
+        points = new int[COLORS];
+        scalars = new int[3];
+        references = new Object[2];
+        tileStamps = new int[tileCapacity];
+        zoneStamps = new int[zoneCapacity];
+
+        // les tuiles sont ajoutées dans l'ordre des cases ; le résultat ne dépend pas de l'ordre de pose
+        for (PlacedTile tile : placedTiles) {
+            int packed = tile.pos().packed();
+            cells[cellOf(tile.pos().x(), tile.pos().y())] = tile;
+            tilesById[tile.id()] = tile;
+            addZones(tile.tile());
+            for (Direction direction : List.of(Direction.N, Direction.W)) {
+                int neighbor = Pos.packedNeighbor(packed, direction);
+                PlacedTile neighborTile = inReach(Pos.packedX(neighbor), Pos.packedY(neighbor))
+                        ? cells[cellOf(Pos.packedX(neighbor), Pos.packedY(neighbor))]
+                        : null;
+                if (neighborTile != null) {
+                    connectSides(tile.side(direction), neighborTile.side(direction.opposite()));
+                }
+            }
+        }
+        for (PlacedTile tile : placedTiles) {
+            int signature = tile.sideSignature();
+            for (Direction direction : Direction.ALL) {
+                int neighbor = Pos.packedNeighbor(tile.pos().packed(), direction);
+                int x = Pos.packedX(neighbor);
+                int y = Pos.packedY(neighbor);
+                if (inReach(x, y) && cells[cellOf(x, y)] == null) {
+                    int shift = 2 * direction.opposite().ordinal();
+                    requirements[cellOf(x, y)] |= (((signature >>> (2 * direction.ordinal())) & SIDE_MASK) << shift)
+                            | (SIDE_MASK << (MASK_SHIFT + shift));
+                }
+            }
+            Occupant occupant = tile.occupant();
+            if (occupant != null) {
+                int partition = partitionOf(tile.zoneWithId(occupant.zoneId()), occupant.kind());
+                occupants[partition][root(partition, occupant.zoneId()) * COLORS + tile.placer().ordinal()] += 1;
+            }
+        }
+
+        // un plateau non borné a une frange différente, même si toutes ses tuiles sont à portée
+        Set<Pos> fringe = new HashSet<>();
+        for (int cell = 0; cell < cells.length; cell += 1) {
+            if (cells[cell] == null && requirements[cell] != 0) fringe.add(posOf(cell));
+        }
+        Preconditions.checkArgument(fringe.equals(board.insertionPositions()));
+
+        for (PlayerColor color : PlayerColor.ALL) {
+            for (Occupant.Kind kind : Occupant.Kind.values()) {
+                occupantCounts[color.ordinal() * OCCUPANT_KINDS + kind.ordinal()] = board.occupantCount(color, kind);
+            }
+        }
+        for (Animal animal : board.cancelledAnimals()) {
+            cancelledAnimals[animal.id()] = 1;
+        }
+        gameState.messageBoard().points().forEach((player, p) -> points[player.ordinal()] = p);
+        scalars[NEXT_ACTION] = gameState.nextAction().ordinal();
+        scalars[LAST_CELL] = cellOf(board.lastPlacedTile().pos().x(), board.lastPlacedTile().pos().y());
+        references[TILE_TO_PLACE] = gameState.tileToPlace();
+        references[TILE_DECKS] = tileDecks;
+
+        // la reconstruction n'est pas annulable
+        Arrays.fill(logArrays, 0, logSize, null);
+        Arrays.fill(logObjects, 0, logSize, null);
+        logSize = 0;
+        Arrays.fill(steps, 0, depth, null);
+        depth = 0;
+    }
+}
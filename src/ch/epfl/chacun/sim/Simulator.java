@@ -0,0 +1,302 @@
+package ch.epfl.chacun.sim;
+
+import ch.epfl.chacun.*;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+import java.util.stream.LongStream;
+
+/**
+ * Simulator :
+ * moteur de parties sans interface graphique. Joue des parties complètes, de la même manière que
+ * ch.epfl.chacun.gui.Main (mêmes tas de tuiles pour une même graine), en passant par GameState et
+ * ActionEncoder, et en répartissant les graines sur plusieurs fils d'exécution.
+ *
+ * Utilisation : {@code Simulator --players=3 --seeds=0..999 --policy=random --threads=8}
+ *
+ * @author Rayan Berrada (378940)
+ * @author Jens Cancio (379510)
+ */
+public final class Simulator {
+
+    private static final int NANOS_PER_SECOND = 1_000_000_000;
+    private static final int NANOS_PER_MILLI = 1_000_000;
+
+    /**
+     * Constructeur vide (classe non instantiable)
+     */
+    private Simulator() {}
+
+    /**
+     * GameResult :
+     * résultat d'une partie simulée
+     * @param seed la graine de la partie
+     * @param turns le nombre de tuiles posées (hors tuile de départ)
+     * @param phaseNanos le temps passé dans chaque action, en nanosecondes
+     * @param points les points finaux de chaque joueur ayant marqué
+     * @param actions les actions jouées, encodées en base32, dans l'ordre
+     */
+    public record GameResult(long seed, int turns, Map<GameState.Action, Long> phaseNanos,
+                             Map<PlayerColor, Integer> points, List<String> actions) {
+        /**
+         * Constructeur compact, garantit l'immuabilité
+         */
+        public GameResult {
+            phaseNanos = Map.copyOf(phaseNanos);
+            points = Map.copyOf(points);
+            actions = List.copyOf(actions);
+        }
+    }
+
+    /**
+     * Report :
+     * statistiques agrégées d'une série de parties simulées
+     * @param games le nombre de parties jouées
+     * @param turns le nombre total de tuiles posées
+     * @param phaseNanos le temps total passé dans chaque action, en nanosecondes (somme sur tous les fils)
+     * @param totalPoints la somme des points finaux de tous les joueurs de toutes les parties
+     * @param wallNanos la durée réelle de la série, en nanosecondes
+     */
+    public record Report(int games, long turns, Map<GameState.Action, Long> phaseNanos, long totalPoints,
+                         long wallNanos) {
+        /**
+         * Constructeur compact, garantit l'immuabilité
+         */
+        public Report {
+            phaseNanos = Map.copyOf(phaseNanos);
+        }
+
+        /**
+         * retourne le nombre de parties jouées par seconde
+         * @return le nombre de parties par seconde
+         */
+        public double gamesPerSecond() {
+            return games * (double) NANOS_PER_SECOND / Math.max(1, wallNanos);
+        }
+
+        /**
+         * retourne le nombre de tuiles posées par seconde
+         * @return le nombre de tours par seconde
+         */
+        public double turnsPerSecond() {
+            return turns * (double) NANOS_PER_SECOND / Math.max(1, wallNanos);
+        }
+
+        /**
+         * retourne le rapport sous forme textuelle, une statistique par ligne
+         * @return le rapport sous forme textuelle
+         */
+        public String format() {
+            StringJoiner joiner = new StringJoiner("\n");
+            joiner.add(String.format("games      : %d", games));
+            joiner.add(String.format("turns      : %d", turns));
+            joiner.add(String.format("wall time  : %.1f ms", wallNanos / (double) NANOS_PER_MILLI));
+            joiner.add(String.format("games/sec  : %.1f", gamesPerSecond()));
+            joiner.add(String.format("turns/sec  : %.1f", turnsPerSecond()));
+            joiner.add(String.format("avg points : %.2f", games == 0 ? 0 : totalPoints / (double) games));
+            for (GameState.Action action : GameState.Action.values()) {
+                if (action == GameState.Action.END_GAME) continue;
+                long nanos = phaseNanos.getOrDefault(action, 0L);
+                joiner.add(String.format("%-11s: %.1f ms (%.2f us/game)", action, nanos / (double) NANOS_PER_MILLI,
+                        games == 0 ? 0 : nanos / 1_000d / games));
+            }
+            return joiner.toString();
+        }
+    }
+
+    /**
+     * retourne l'état d'une partie dont la tuile de départ vient d'être posée, avec les tas de tuiles que
+     * Main utiliserait pour la graine donnée ; rejouer le journal d'actions d'une partie simulée avec la même
+     * graine à partir de cet état redonne la même partie
+     * @param playerCount le nombre de joueurs (entre 2 et 5)
+     * @param seed la graine de la partie
+     * @return l'état de jeu dont la prochaine action est PLACE_TILE
+     * @throws IllegalArgumentException si le nombre de joueurs est invalide
+     */
+    public static GameState initialState(int playerCount, long seed) {
+        return initialState(playerCount, RandomGeneratorFactory.getDefault().create(seed));
+    }
+
+    /**
+     * retourne l'état d'une partie dont la tuile de départ vient d'être posée, les tuiles étant mélangées au
+     * moyen du générateur donné
+     * @param playerCount le nombre de joueurs (entre 2 et 5)
+     * @param generator le générateur de la partie
+     * @return l'état de jeu dont la prochaine action est PLACE_TILE
+     */
+    private static GameState initialState(int playerCount, RandomGenerator generator) {
+        Preconditions.checkArgument(playerCount >= 2 && playerCount <= PlayerColor.ALL.size());
+        List<PlayerColor> players = PlayerColor.ALL.subList(0, playerCount);
+        Map<PlayerColor, String> playerNames = new EnumMap<>(PlayerColor.class);
+        for (PlayerColor player : players) {
+            playerNames.put(player, player.name());
+        }
+        return GameState.initial(players, TileDecks.shuffled(generator), new TextMakerFr(playerNames))
+                .withStartingTilePlaced();
+    }
+
+    /**
+     * joue une partie complète
+     * @param playerCount le nombre de joueurs (entre 2 et 5)
+     * @param seed la graine, qui détermine les tas de tuiles et les choix aléatoires de la stratégie
+     * @param policy la stratégie de tous les joueurs
+     * @return le résultat de la partie
+     * @throws IllegalArgumentException si le nombre de joueurs est invalide
+     */
+    public static GameResult playGame(int playerCount, long seed, MovePolicy policy) {
+        long[] phaseNanos = new long[GameState.Action.values().length];
+        List<String> actions = new ArrayList<>();
+        int turns = 0;
+
+        long start = System.nanoTime();
+        RandomGenerator generator = RandomGeneratorFactory.getDefault().create(seed);
+        GameState state = initialState(playerCount, generator);
+        phaseNanos[GameState.Action.START_GAME.ordinal()] += System.nanoTime() - start;
+
+        while (state.nextAction() != GameState.Action.END_GAME) {
+            GameState.Action action = state.nextAction();
+            long actionStart = System.nanoTime();
+            ActionEncoder.StateAction stateAction = switch (action) {
+                case PLACE_TILE -> {
+                    turns += 1;
+                    yield ActionEncoder.withPlacedTile(state,
+                            policy.tileToPlace(state, state.legalPlacements().toList(), generator));
+                }
+                case OCCUPY_TILE -> ActionEncoder.withNewOccupant(state,
+                        policy.occupantToPlace(state, occupantsToPlace(state), generator));
+                case RETAKE_PAWN -> ActionEncoder.withOccupantRemoved(state,
+                        policy.occupantToRemove(state, pawnsToRemove(state), generator));
+                default -> throw new IllegalStateException();
+            };
+            phaseNanos[action.ordinal()] += System.nanoTime() - actionStart;
+            actions.add(stateAction.base32Action());
+            state = stateAction.gameState();
+        }
+
+        Map<GameState.Action, Long> phases = new EnumMap<>(GameState.Action.class);
+        for (GameState.Action action : GameState.Action.values()) {
+            phases.put(action, phaseNanos[action.ordinal()]);
+        }
+        return new GameResult(seed, turns, phases, state.messageBoard().points(), actions);
+    }
+
+    /**
+     * joue une partie pour chaque graine de l'intervalle donné, en parallèle
+     * @param playerCount le nombre de joueurs de chaque partie
+     * @param firstSeed la première graine (incluse)
+     * @param lastSeed la dernière graine (incluse)
+     * @param policy la stratégie de tous les joueurs
+     * @param threads le nombre de fils d'exécution
+     * @return les statistiques agrégées des parties
+     * @throws IllegalArgumentException si l'intervalle est vide ou le nombre de fils n'est pas strictement positif
+     */
+    public static Report run(int playerCount, long firstSeed, long lastSeed, MovePolicy policy, int threads) {
+        Preconditions.checkArgument(firstSeed <= lastSeed && threads > 0);
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            Report report = pool.submit(() -> LongStream.rangeClosed(firstSeed, lastSeed)
+                    .parallel()
+                    .mapToObj(seed -> reportOf(playGame(playerCount, seed, policy)))
+                    .reduce(Simulator::merged)
+                    .orElseThrow()).join();
+            return new Report(report.games(), report.turns(), report.phaseNanos(), report.totalPoints(),
+                    System.nanoTime() - start);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * retourne le rapport correspondant à une seule partie (sans durée réelle)
+     * @param result le résultat de la partie
+     * @return le rapport de cette partie
+     */
+    private static Report reportOf(GameResult result) {
+        long points = 0;
+        for (int p : result.points().values()) {
+            points += p;
+        }
+        return new Report(1, result.turns(), result.phaseNanos(), points, 0);
+    }
+
+    /**
+     * retourne la fusion des deux rapports donnés (sans durée réelle)
+     * @param r1 le premier rapport
+     * @param r2 le second rapport
+     * @return la fusion des rapports
+     */
+    private static Report merged(Report r1, Report r2) {
+        Map<GameState.Action, Long> phases = new EnumMap<>(GameState.Action.class);
+        phases.putAll(r1.phaseNanos());
+        r2.phaseNanos().forEach((action, nanos) -> phases.merge(action, nanos, Long::sum));
+        return new Report(r1.games() + r2.games(), r1.turns() + r2.turns(), phases,
+                r1.totalPoints() + r2.totalPoints(), 0);
+    }
+
+    /**
+     * retourne les occupants pouvant être posés sur la dernière tuile, triés par zone, précédés de null
+     * @param state l'état de jeu, dont la prochaine action est OCCUPY_TILE
+     * @return les occupants pouvant être posés, null compris
+     */
+    private static List<Occupant> occupantsToPlace(GameState state) {
+        List<Occupant> occupants = new ArrayList<>();
+        occupants.add(null);
+        state.lastTilePotentialOccupants().stream()
+                .sorted(Comparator.comparingInt(Occupant::zoneId))
+                .forEach(occupants::add);
+        return occupants;
+    }
+
+    /**
+     * retourne les pions du joueur courant pouvant être repris, triés par zone, précédés de null
+     * @param state l'état de jeu, dont la prochaine action est RETAKE_PAWN
+     * @return les pions pouvant être repris, null compris
+     */
+    private static List<Occupant> pawnsToRemove(GameState state) {
+        List<Occupant> occupants = new ArrayList<>();
+        occupants.add(null);
+        occupants.addAll(state.retakablePawns());
+        return occupants;
+    }
+
+    /**
+     * point d'entrée : joue une série de parties et affiche le rapport.
+     * Arguments nommés (tous facultatifs) : --players=2, --seeds=0..99, --policy=random,
+     * --threads=(nombre de processeurs)
+     * @param args les arguments de la ligne de commande
+     * @throws IllegalArgumentException si un argument est invalide
+     */
+    public static void main(String[] args) {
+        int playerCount = 2;
+        long firstSeed = 0;
+        long lastSeed = 99;
+        MovePolicy policy = MovePolicy.RANDOM;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (String arg : args) {
+            Preconditions.checkArgument(arg.startsWith("--") && arg.contains("="));
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "players" -> playerCount = Integer.parseInt(value);
+                case "seeds" -> {
+                    int separator = value.indexOf("..");
+                    if (separator < 0) {
+                        firstSeed = lastSeed = Long.parseLong(value);
+                    } else {
+                        firstSeed = Long.parseLong(value.substring(0, separator));
+                        lastSeed = Long.parseLong(value.substring(separator + 2));
+                    }
+                }
+                case "policy" -> policy = MovePolicy.named(value);
+                case "threads" -> threads = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException();
+            }
+        }
+
+        System.out.println(run(playerCount, firstSeed, lastSeed, policy, threads).format());
+    }
+}
@@ -1,5 +1,7 @@
 package ch.epfl.chacun;
 
+import ch.epfl.chacun.sim.MovePolicy;
+import ch.epfl.chacun.sim.Simulator;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
@@ -48,6 +50,82 @@ class BoardTest {
         assertEquals(t27, board.tileWithId(27));
     }
 
+    @Test
+    void boardTileWithIdWorksOutsideOfTheTileCatalogue() {
+        var allTiles = allTiles();
+        var t56 = new PlacedTile(allTiles.get(56), null, Rotation.NONE, new Pos(0, 0));
+        var t17 = allTiles.get(17);
+        var t117 = new PlacedTile(new Tile(117, t17.kind(), t17.n(), t17.e(), t17.s(), t17.w()),
+                PlayerColor.RED, Rotation.NONE, new Pos(-1, 0));
+
+        var board = Board.EMPTY.withNewTile(t56);
+        var boardWith117 = board.withNewTile(t117);
+        assertEquals(t117, boardWith117.tileWithId(117));
+        assertEquals(t56, boardWith117.tileWithId(56));
+        for (int tileId : new int[]{-1, 95, 117, 1000}) {
+            assertThrows(IllegalArgumentException.class, () -> board.tileWithId(tileId));
+        }
+        assertThrows(IllegalArgumentException.class, () -> boardWith117.tileWithId(118));
+    }
+
+    @Test
+    void boardUnboundedAcceptsTilesBeyondTheReach() {
+        var allTiles = allTiles();
+        var far = new Pos(1_000, -2_000);
+        var t56 = new PlacedTile(allTiles.get(56), null, Rotation.NONE, far);
+
+        assertThrows(IllegalArgumentException.class, () -> Board.EMPTY.withNewTile(t56));
+        var board = Board.EMPTY_UNBOUNDED.withNewTile(t56);
+        assertEquals(t56, board.tileAt(far));
+        assertEquals(t56, board.tileWithId(56));
+        assertEquals(t56, board.lastPlacedTile());
+        assertEquals(Set.of(far.neighbor(Direction.N), far.neighbor(Direction.E),
+                far.neighbor(Direction.S), far.neighbor(Direction.W)), board.insertionPositions());
+        assertNull(board.tileAt(new Pos(0, 0)));
+        assertNotEquals(Board.EMPTY, Board.EMPTY_UNBOUNDED);
+    }
+
+    @Test
+    void boardUnboundedBehavesLikeBoundedBoardAwayFromItsEdges() {
+        var offset = new Pos(40, -30);
+        for (var seed : List.of(6L, 7L)) {
+            var actions = Simulator.playGame(3, seed, MovePolicy.RANDOM).actions();
+            var state = Simulator.initialState(3, seed);
+            // tuiles dans l'ordre de pose, la première action posant la tuile de départ puis la première tuile
+            var placedTiles = new ArrayList<PlacedTile>();
+            for (var action : actions) {
+                state = ActionEncoder.decodeAndApply(state, action).gameState();
+                var last = state.board().lastPlacedTile();
+                if (placedTiles.isEmpty()) placedTiles.add(state.board().tileAt(new Pos(0, 0)));
+                if (last.id() != placedTiles.getLast().id()) placedTiles.add(last.withNoOccupant());
+            }
+            var bounded = Board.EMPTY;
+            var unbounded = Board.EMPTY_UNBOUNDED;
+            for (var tile : placedTiles) {
+                var pos = tile.pos();
+                bounded = bounded.withNewTile(tile);
+                unbounded = unbounded.withNewTile(new PlacedTile(tile.tile(), tile.placer(), tile.rotation(),
+                        new Pos(pos.x() + offset.x(), pos.y() + offset.y())));
+
+                assertEquals(bounded.meadowAreas(), unbounded.meadowAreas());
+                assertEquals(bounded.riverSystemAreas(), unbounded.riverSystemAreas());
+                for (var fringePos : bounded.insertionPositions()) {
+                    assertTrue(unbounded.insertionPositions()
+                            .contains(new Pos(fringePos.x() + offset.x(), fringePos.y() + offset.y())));
+                }
+                for (int x = -Board.REACH; x <= Board.REACH; x += 1) {
+                    for (int y = -Board.REACH; y <= Board.REACH; y += 1) {
+                        var boundedTile = bounded.tileAt(new Pos(x, y));
+                        var unboundedTile = unbounded.tileAt(new Pos(x + offset.x(), y + offset.y()));
+                        assertEquals(boundedTile == null, unboundedTile == null);
+                        if (boundedTile != null) assertEquals(boundedTile.id(), unboundedTile.id());
+                    }
+                }
+            }
+            assertTrue(placedTiles.size() > 2);
+        }
+    }
+
     @Test
     void boardTileWithIdThrowsWithUnplacedTile() {
         var allTiles = allTiles();
@@ -426,6 +504,80 @@ class BoardTest {
         assertEquals(expectedInsertionPositions, board.insertionPositions());
     }
 
+    @Test
+    void boardInsertionPositionsIsUnmodifiableAndNotSharedWithPreviousBoard() {
+        var allTiles = allTiles();
+
+        var t56 = new PlacedTile(allTiles.get(56), null, Rotation.NONE, new Pos(0, 0));
+        var t42 = new PlacedTile(allTiles.get(42), PlayerColor.RED, Rotation.LEFT, new Pos(1, 0));
+
+        var board1 = Board.EMPTY.withNewTile(t56);
+        var board2 = board1.withNewTile(t42);
+
+        assertEquals(Set.of(), Board.EMPTY.insertionPositions());
+        assertEquals(Set.of(new Pos(1, 0), new Pos(-1, 0), new Pos(0, 1), new Pos(0, -1)),
+                board1.insertionPositions());
+        assertEquals(Set.of(new Pos(-1, 0), new Pos(0, 1), new Pos(0, -1),
+                        new Pos(2, 0), new Pos(1, 1), new Pos(1, -1)),
+                board2.insertionPositions());
+        assertThrows(UnsupportedOperationException.class, () -> board2.insertionPositions().clear());
+    }
+
+    @Test
+    void boardOrderedInsertionPositionsAreSortedByXThenY() {
+        var byXThenY = Comparator.comparingInt(Pos::x).thenComparingInt(Pos::y);
+        for (var seed : List.of(8L, 9L)) {
+            var actions = Simulator.playGame(2, seed, MovePolicy.RANDOM).actions();
+            var state = Simulator.initialState(2, seed);
+            for (var action : actions) {
+                state = ActionEncoder.decodeAndApply(state, action).gameState();
+                var board = state.board();
+                var expected = board.insertionPositions().stream().sorted(byXThenY).toList();
+                assertEquals(expected, board.orderedInsertionPositions());
+                assertSame(board.orderedInsertionPositions(), board.orderedInsertionPositions());
+                assertEquals(expected, new ArrayList<>(board.insertionPositions()));
+                assertEquals(expected.size(), board.insertionPositions().size());
+                for (var pos : expected) {
+                    assertTrue(board.insertionPositions().contains(pos));
+                    assertNull(board.tileAt(pos));
+                }
+            }
+        }
+
+        var t56 = allTiles().get(56);
+        var corner = Board.EMPTY.withNewTile(new PlacedTile(t56, null, Rotation.NONE, new Pos(12, -12)));
+        assertEquals(List.of(new Pos(11, -12), new Pos(12, -11)), corner.orderedInsertionPositions());
+        assertEquals(Set.of(new Pos(11, -12), new Pos(12, -11)), corner.insertionPositions());
+        assertFalse(corner.insertionPositions().contains(new Pos(13, -12)));
+        var unboundedCorner = Board.EMPTY_UNBOUNDED
+                .withNewTile(new PlacedTile(t56, null, Rotation.NONE, new Pos(12, -12)));
+        assertEquals(List.of(new Pos(11, -12), new Pos(12, -13), new Pos(12, -11), new Pos(13, -12)),
+                unboundedCorner.orderedInsertionPositions());
+    }
+
+    @Test
+    void boardPackedOverloadsAgreeWithPositions() {
+        for (var emptyBoard : List.of(Board.EMPTY, Board.EMPTY_UNBOUNDED)) {
+            var actions = Simulator.playGame(2, 10L, MovePolicy.RANDOM).actions();
+            var state = Simulator.initialState(2, 10L);
+            var board = emptyBoard;
+            for (var action : actions) {
+                state = ActionEncoder.decodeAndApply(state, action).gameState();
+                var last = state.board().lastPlacedTile();
+                if (board.lastPlacedTile() == null) board = board.withNewTile(state.board().tileAt(Pos.ORIGIN));
+                if (last.id() != board.lastPlacedTile().id()) board = board.withNewTile(last.withNoOccupant());
+
+                var packed = board.packedInsertionPositions();
+                assertEquals(board.orderedInsertionPositions(), Arrays.stream(packed).mapToObj(Pos::unpacked).toList());
+                for (int x = -Board.REACH - 1; x <= Board.REACH + 1; x += 1) {
+                    for (int y = -Board.REACH - 1; y <= Board.REACH + 1; y += 1) {
+                        assertEquals(board.tileAt(new Pos(x, y)), board.tileAt(Pos.pack(x, y)));
+                    }
+                }
+            }
+        }
+    }
+
     @Test
     void boardLastPlacedTileWorks() {
         var allTiles = allTiles();
@@ -590,6 +742,32 @@ class BoardTest {
         assertEquals(Set.of(expectedRiver), board.riversClosedByLastTile());
     }
 
+    @Test
+    void boardRiversClosedByLastTileFollowOccupantChanges() {
+        var allTiles = allTiles();
+
+        var t56 = new PlacedTile(allTiles.get(56), PlayerColor.RED, Rotation.NONE, new Pos(0, 0));
+        var t53 = new PlacedTile(allTiles.get(53), PlayerColor.RED, Rotation.NONE, new Pos(-1, 0));
+        var t86 = new PlacedTile(allTiles.get(86), PlayerColor.RED, Rotation.NONE, new Pos(-2, 0));
+
+        var board = Board.EMPTY
+                .withNewTile(t56)
+                .withNewTile(t53)
+                .withNewTile(t86)
+                .withOccupant(new Occupant(Occupant.Kind.PAWN, 86_3));
+
+        var rivers = Set.of(
+                (Zone.River) t56.zoneWithId(56_3),
+                (Zone.River) t53.zoneWithId(53_1),
+                (Zone.River) t86.zoneWithId(86_3));
+        assertEquals(Set.of(new Area<>(rivers, List.of(PlayerColor.RED), 0)), board.riversClosedByLastTile());
+        assertEquals(Set.of(), board.forestsClosedByLastTile());
+
+        board = board.withoutGatherersOrFishersIn(Set.of(), board.riversClosedByLastTile());
+        assertEquals(Set.of(new Area<>(rivers, List.of(), 0)), board.riversClosedByLastTile());
+        assertNull(board.tileWithId(86).occupant());
+    }
+
     @Test
     void boardRiversClosedByLastTileWorksWithOneRiverLoop() {
         var allTiles = allTiles();
@@ -761,6 +939,31 @@ class BoardTest {
         }
     }
 
+    @Test
+    void boardCanAddTileAgreesWithSideBySideComparison() {
+        var allTiles = allTiles();
+        var board = Board.EMPTY.withNewTile(new PlacedTile(allTiles.get(56), null, Rotation.NONE, new Pos(0, 0)));
+
+        for (var tileToPlace : allTiles.subList(0, 30)) {
+            PlacedTile placed = null;
+            for (var pos : board.insertionPositions()) {
+                for (var rotation : Rotation.ALL) {
+                    var candidate = new PlacedTile(tileToPlace, PlayerColor.RED, rotation, pos);
+                    var expected = true;
+                    for (var direction : Direction.ALL) {
+                        var neighbor = board.tileAt(pos.neighbor(direction));
+                        if (neighbor != null && !neighbor.side(direction.opposite()).isSameKindAs(candidate.side(direction)))
+                            expected = false;
+                    }
+                    assertEquals(expected, board.canAddTile(candidate));
+                    if (expected && placed == null) placed = candidate;
+                }
+            }
+            assertEquals(placed != null, board.couldPlaceTile(tileToPlace));
+            if (placed != null) board = board.withNewTile(placed);
+        }
+    }
+
     // No explicit test for `withNewTile`, which is used extensively by other tests
 
     @Test
@@ -789,6 +992,65 @@ class BoardTest {
         assertEquals(occupant27, board.tileWithId(27).occupant());
     }
 
+    @Test
+    void boardZobristKeyIsMaintainedIncrementally() {
+        var allTiles = allTiles();
+        var t56 = new PlacedTile(allTiles.get(56), null, Rotation.NONE, new Pos(0, 0));
+        var t17 = new PlacedTile(allTiles.get(17), PlayerColor.BLUE, Rotation.NONE, new Pos(-1, 0));
+        var t27 = new PlacedTile(allTiles.get(27), PlayerColor.GREEN, Rotation.NONE, new Pos(1, 0));
+        var occupant17 = new Occupant(Occupant.Kind.PAWN, 17_0);
+        var deer = new Animal(17_0_0, Animal.Kind.DEER);
+
+        var b1 = Board.EMPTY.withNewTile(t56).withNewTile(t17).withNewTile(t27);
+        var b2 = Board.EMPTY.withNewTile(t56).withNewTile(t27).withNewTile(t17);
+        assertEquals(0, Board.EMPTY.zobristKey());
+        assertEquals(b1.zobristKey(), b2.zobristKey());
+        assertNotEquals(Board.EMPTY.withNewTile(t56).zobristKey(), b1.zobristKey());
+
+        var occupied = b1.withOccupant(occupant17);
+        assertNotEquals(b1.zobristKey(), occupied.zobristKey());
+        assertEquals(b1.zobristKey(), occupied.withoutOccupant(occupant17).zobristKey());
+        assertEquals(b1, occupied.withoutOccupant(occupant17));
+        assertEquals(b1.hashCode(), occupied.withoutOccupant(occupant17).hashCode());
+
+        var cancelled = b1.withMoreCancelledAnimals(Set.of(deer));
+        assertNotEquals(b1.zobristKey(), cancelled.zobristKey());
+        assertEquals(cancelled.zobristKey(), cancelled.withMoreCancelledAnimals(Set.of(deer)).zobristKey());
+
+        var rotated = Board.EMPTY.withNewTile(t56)
+                .withNewTile(new PlacedTile(t17.tile(), t17.placer(), Rotation.HALF_TURN, t17.pos()));
+        assertNotEquals(Board.EMPTY.withNewTile(t56).withNewTile(t17).zobristKey(), rotated.zobristKey());
+    }
+
+    @Test
+    void boardOccupantsAndCountsAgreeWithTilesDuringGames() {
+        for (var seed : List.of(4L, 5L)) {
+            var actions = Simulator.playGame(4, seed, MovePolicy.RANDOM).actions();
+            var state = Simulator.initialState(4, seed);
+            for (var action : actions) {
+                state = ActionEncoder.decodeAndApply(state, action).gameState();
+                var board = state.board();
+                var expectedOccupants = new HashSet<Occupant>();
+                var expectedCounts = new HashMap<List<Object>, Integer>();
+                for (int x = -Board.REACH; x <= Board.REACH; x += 1) {
+                    for (int y = -Board.REACH; y <= Board.REACH; y += 1) {
+                        var tile = board.tileAt(new Pos(x, y));
+                        if (tile == null || tile.occupant() == null) continue;
+                        expectedOccupants.add(tile.occupant());
+                        expectedCounts.merge(List.of(tile.placer(), tile.occupant().kind()), 1, Integer::sum);
+                    }
+                }
+                assertEquals(expectedOccupants, board.occupants());
+                for (var player : PlayerColor.ALL) {
+                    for (var kind : Occupant.Kind.values()) {
+                        assertEquals(expectedCounts.getOrDefault(List.of(player, kind), 0),
+                                board.occupantCount(player, kind));
+                    }
+                }
+            }
+        }
+    }
+
     @Test
     void boardWithoutOccupantRemovesOccupantFromBoardAndPartition() {
         var allTiles = allTiles();
@@ -853,6 +1115,34 @@ class BoardTest {
         assertEquals(List.of(PlayerColor.GREEN), board1.meadowArea(meadow42).occupants());
     }
 
+    @Test
+    void boardWithoutGatherersOrFishersInKeepsHutsAndOtherPawns() {
+        var allTiles = allTiles();
+
+        var t56 = new PlacedTile(allTiles.get(56), null, Rotation.NONE, new Pos(0, 0));
+        var t53 = new PlacedTile(allTiles.get(53), PlayerColor.GREEN, Rotation.NONE, new Pos(-1, 0));
+        var t86 = new PlacedTile(allTiles.get(86), PlayerColor.RED, Rotation.NONE, new Pos(-2, 0));
+        var hut = new Occupant(Occupant.Kind.HUT, 53_1);
+        var fisher = new Occupant(Occupant.Kind.PAWN, 86_3);
+
+        var board = Board.EMPTY
+                .withNewTile(t56)
+                .withNewTile(t53)
+                .withOccupant(hut)
+                .withNewTile(t86)
+                .withOccupant(fisher);
+        var river = board.riverArea((Zone.River) t86.zoneWithId(86_3));
+
+        var cleared = board.withoutGatherersOrFishersIn(Set.of(), Set.of(river));
+        assertEquals(Set.of(hut), cleared.occupants());
+        assertEquals(hut, cleared.tileWithId(53).occupant());
+        assertNull(cleared.tileWithId(86).occupant());
+        assertEquals(0, cleared.occupantCount(PlayerColor.RED, Occupant.Kind.PAWN));
+        assertEquals(1, cleared.occupantCount(PlayerColor.GREEN, Occupant.Kind.HUT));
+        assertEquals(board.withoutOccupant(fisher), cleared);
+        assertEquals(board, board.withoutGatherersOrFishersIn(Set.of(), Set.of()));
+    }
+
     @Test
     void boardWithMoreCancelledAnimalsWorks() {
         var allTiles = allTiles();
@@ -7,6 +7,9 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import ch.epfl.chacun.sim.MovePolicy;
+import ch.epfl.chacun.sim.Simulator;
+
 import static ch.epfl.chacun.GameState.Action;
 import static ch.epfl.chacun.GameState.initial;
 import static org.junit.jupiter.api.Assertions.*;
@@ -2162,4 +2165,138 @@ class GameStateTest {
         return Collections.unmodifiableList(tiles);
     }
     //</editor-fold>
-}
\ No newline at end of file
+
+    @Test
+    void gameStateLegalMovesAgreeWithTransitions() {
+        for (var seed : List.of(1L, 2L, 3L, 8L)) {
+            var actions = Simulator.playGame(3, seed, MovePolicy.RANDOM).actions();
+            var state = Simulator.initialState(3, seed);
+            for (var action : actions) {
+                if (state.nextAction() == Action.PLACE_TILE) {
+                    var expectedPlacements = new HashSet<PlacedTile>();
+                    for (var pos : state.board().insertionPositions()) {
+                        for (var rotation : Rotation.ALL) {
+                            var placedTile = new PlacedTile(state.tileToPlace(), state.currentPlayer(), rotation, pos);
+                            if (state.board().canAddTile(placedTile)) expectedPlacements.add(placedTile);
+                        }
+                    }
+                    var placements = state.legalPlacements().toList();
+                    assertEquals(expectedPlacements.size(), placements.size());
+                    assertEquals(expectedPlacements, new HashSet<>(placements));
+
+                    var moveCount = 0;
+                    for (var placedTile : placements) {
+                        var next = state.withPlacedTile(placedTile);
+                        var expectedOccupants = next.nextAction() == Action.OCCUPY_TILE
+                                || next.nextAction() == Action.RETAKE_PAWN
+                                ? next.lastTilePotentialOccupants()
+                                : Set.<Occupant>of();
+                        var occupants = state.legalOccupants(placedTile);
+                        assertEquals(expectedOccupants, occupants);
+                        moveCount += 1 + occupants.size();
+                        if (next.nextAction() == Action.RETAKE_PAWN) {
+                            for (var pawn : state.retakablePawns()) {
+                                var retaken = next.withOccupantRemoved(pawn);
+                                moveCount += retaken.nextAction() == Action.OCCUPY_TILE
+                                        ? 1 + retaken.lastTilePotentialOccupants().size()
+                                        : 1;
+                            }
+                        }
+                    }
+                    assertEquals(moveCount, state.legalMoves().count());
+                }
+                state = ActionEncoder.decodeAndApply(state, action).gameState();
+            }
+        }
+    }
+
+    @Test
+    void gameStateLegalMovesIncludeShamanRetakes() {
+        var retakeMoves = 0;
+        // parties dans lesquelles la tuile du chaman est posée alors que son placeur a des pions sur le plateau
+        for (var seed : List.of(8L, 19L)) {
+            var actions = Simulator.playGame(3, seed, MovePolicy.RANDOM).actions();
+            var state = Simulator.initialState(3, seed);
+            for (var action : actions) {
+                if (state.nextAction() == Action.PLACE_TILE
+                        && state.tileToPlace().specialPowerZone() != null
+                        && state.tileToPlace().specialPowerZone().specialPower() == Zone.SpecialPower.SHAMAN
+                        && !state.retakablePawns().isEmpty()) {
+                    var moves = state.legalMoves().toList();
+                    assertEquals(moves.size(), new HashSet<>(moves).size());
+                    for (var move : moves) {
+                        if (move.retakenPawn() == null) continue;
+                        retakeMoves += 1;
+                        assertTrue(state.retakablePawns().contains(move.retakenPawn()));
+                        var retaken = state.withPlacedTile(move.placedTile()).withOccupantRemoved(move.retakenPawn());
+                        assertFalse(retaken.board().occupants().contains(move.retakenPawn()));
+                        if (move.occupant() != null) {
+                            assertEquals(Action.OCCUPY_TILE, retaken.nextAction());
+                            assertTrue(retaken.lastTilePotentialOccupants().contains(move.occupant()));
+                        }
+                    }
+                }
+                state = ActionEncoder.decodeAndApply(state, action).gameState();
+            }
+        }
+        assertTrue(retakeMoves > 0);
+    }
+
+    @Test
+    void gameStateMoveRejectsRetakingAHut() {
+        var state = Simulator.initialState(2, 0);
+        var placedTile = state.legalPlacements().findFirst().orElseThrow();
+        assertThrows(IllegalArgumentException.class,
+                () -> new GameState.Move(placedTile, new Occupant(Occupant.Kind.HUT, 10), null));
+        assertNull(new GameState.Move(placedTile, null).retakenPawn());
+    }
+
+    @Test
+    void gameStateLegalMovesThrowWhenNoTileHasToBePlaced() {
+        var state = Simulator.initialState(2, 0);
+        var startState = GameState.initial(state.players(), state.tileDecks(), state.messageBoard().textMaker());
+        assertThrows(IllegalArgumentException.class, startState::legalPlacements);
+        assertThrows(IllegalArgumentException.class, startState::legalMoves);
+        assertThrows(IllegalArgumentException.class, () -> state.legalOccupants(
+                new PlacedTile(state.tileToPlace(), state.currentPlayer(), Rotation.NONE, new Pos(5, 5))));
+    }
+
+    @Test
+    void gameStateZobristKeyDependsOnBoardPlayerAndAction() {
+        var state = Simulator.initialState(2, 3);
+        var next = state.withPlacedTile(state.legalPlacements().findFirst().orElseThrow());
+        var sameBoardOtherAction = new GameState(state.players(), state.tileDecks(), null, state.board(),
+                Action.END_GAME, state.messageBoard());
+        var sameBoardOtherPlayer = new GameState(state.players().reversed(), state.tileDecks(), state.tileToPlace(),
+                state.board(), Action.PLACE_TILE, state.messageBoard());
+
+        assertEquals(state.zobristKey(), Simulator.initialState(2, 3).zobristKey());
+        assertNotEquals(state.zobristKey(), next.zobristKey());
+        assertNotEquals(state.zobristKey(), sameBoardOtherAction.zobristKey());
+        assertNotEquals(state.zobristKey(), sameBoardOtherPlayer.zobristKey());
+    }
+
+    @Test
+    void gameStateProjectedPointsMatchFinalCount() {
+        for (var seed = 0L; seed < 12; seed += 1) {
+            var playerCount = 2 + (int) (seed % 4);
+            var actions = Simulator.playGame(playerCount, seed, MovePolicy.RANDOM).actions();
+            var state = Simulator.initialState(playerCount, seed);
+            for (var action : actions) {
+                state = ActionEncoder.decodeAndApply(state, action).gameState();
+                if (state.nextAction() == Action.OCCUPY_TILE
+                        && state.board().forestsClosedByLastTile().isEmpty()
+                        && state.board().riversClosedByLastTile().isEmpty()) {
+                    // sans tuile restante, le tour se termine par le décompte final
+                    var lastTurn = new GameState(state.players(),
+                            new TileDecks(state.tileDecks().startTiles(), List.of(), List.of()), null,
+                            state.board(), Action.OCCUPY_TILE, state.messageBoard());
+                    var end = lastTurn.withNewOccupant(null);
+                    assertEquals(Action.END_GAME, end.nextAction());
+                    assertEquals(end.messageBoard().points(), lastTurn.projectedPoints());
+                    assertEquals(end.messageBoard().points(), end.projectedPoints());
+                }
+            }
+        }
+    }
+}
@@ -7,7 +7,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class Jenss_AreaTest {
 
@@ -45,4 +45,117 @@ class Jenss_AreaTest {
         Area myAreaWithoutRed = myarea.withoutOccupant(PlayerColor.RED);
         assertEquals(occupantListWithoutRed,myAreaWithoutRed.occupants());
     }
-}
\ No newline at end of file
+
+    @Test
+    void checkZonesBehaveLikeAnOrdinarySetOfZones() {
+        var deer = new Animal(1_0_0, Animal.Kind.DEER);
+        var m10 = new Zone.Meadow(1_0, List.of(deer), null);
+        var m12 = new Zone.Meadow(1_2, List.of(), null);
+        var m70 = new Zone.Meadow(7_0, List.of(), null);
+        var m73 = new Zone.Meadow(7_3, List.of(), null);
+        var area1 = new Area<>(Set.of(m10, m12), List.of(), 2);
+        var area2 = new Area<>(new HashSet<>(List.of(m70, m73)), List.of(PlayerColor.RED), 2);
+
+        var connected = area1.connectTo(area2);
+        assertEquals(Set.of(m10, m12, m70, m73), connected.zones());
+        assertEquals(connected.zones(), Set.of(m10, m12, m70, m73));
+        assertEquals(Set.of(m10, m12, m70, m73).hashCode(), connected.zones().hashCode());
+        assertEquals(new Area<>(Set.of(m73, m70, m12, m10), List.of(PlayerColor.RED), 2), connected);
+        assertTrue(connected.zones().contains(new Zone.Meadow(1_0, List.of(deer), null)));
+        assertFalse(connected.zones().contains(new Zone.Meadow(1_0, List.of(), null)));
+        assertFalse(connected.zones().contains(new Zone.Meadow(1_1, List.of(), null)));
+        assertFalse(connected.zones().contains("1_0"));
+        assertEquals(Set.of(1, 7), connected.tileIds());
+        assertThrows(UnsupportedOperationException.class, () -> connected.zones().clear());
+        assertThrows(UnsupportedOperationException.class, () -> {
+            var iterator = connected.zones().iterator();
+            iterator.next();
+            iterator.remove();
+        });
+    }
+
+    @Test
+    void checkZonesAcceptOverlappingAndLargeIdentifiers() {
+        var f10 = new Zone.Forest(1_0, Zone.Forest.Kind.PLAIN);
+        var f11 = new Zone.Forest(1_1, Zone.Forest.Kind.PLAIN);
+        var f20 = new Zone.Forest(2_0, Zone.Forest.Kind.WITH_MENHIR);
+        var overlapping = new Area<>(Set.of(f10, f11), List.of(), 2)
+                .connectTo(new Area<>(Set.of(f11, f20), List.of(), 2));
+        assertEquals(Set.of(f10, f11, f20), overlapping.zones());
+        assertEquals(3, overlapping.zones().size());
+
+        var large = new Zone.Forest(1_000_000_0, Zone.Forest.Kind.PLAIN);
+        var withLarge = overlapping.connectTo(new Area<>(Set.of(large), List.of(), 1));
+        assertEquals(Set.of(f10, f11, f20, large), withLarge.zones());
+        assertEquals(Set.of(1, 2, 1_000_000), withLarge.tileIds());
+
+        var sameIdDifferentKind = new Zone.Forest(1_0, Zone.Forest.Kind.WITH_MUSHROOMS);
+        var conflicting = new Area<>(Set.of(f10, sameIdDifferentKind), List.of(), 0);
+        assertEquals(Set.of(f10, sameIdDifferentKind), conflicting.zones());
+        assertEquals(Set.of(1), conflicting.tileIds());
+    }
+
+    @Test
+    void checkOccupantsStaySortedThroughConnectionsAndRemovals() {
+        var r1 = new Area<>(Set.of(new Zone.River(1_1, 0, null)), List.of(PlayerColor.YELLOW, PlayerColor.RED), 1);
+        var r2 = new Area<>(Set.of(new Zone.River(2_1, 0, null)), new ArrayList<>(List.of(PlayerColor.RED)), 1);
+        var connected = r1.connectTo(r2);
+        var expected = List.of(PlayerColor.RED, PlayerColor.RED, PlayerColor.YELLOW);
+        assertEquals(expected, connected.occupants());
+        assertEquals(connected.occupants(), expected);
+        assertEquals(expected.hashCode(), connected.occupants().hashCode());
+        assertEquals(PlayerColor.YELLOW, connected.occupants().get(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> connected.occupants().get(3));
+        assertThrows(UnsupportedOperationException.class, () -> connected.occupants().add(PlayerColor.BLUE));
+        assertEquals(Set.of(PlayerColor.RED), connected.majorityOccupants());
+
+        var withoutRed = connected.withoutOccupant(PlayerColor.RED);
+        assertEquals(List.of(PlayerColor.RED, PlayerColor.YELLOW), withoutRed.occupants());
+        assertEquals(Set.of(PlayerColor.RED, PlayerColor.YELLOW), withoutRed.majorityOccupants());
+        assertThrows(IllegalArgumentException.class, () -> withoutRed.withoutOccupant(PlayerColor.BLUE));
+        assertEquals(Set.of(), withoutRed.withoutOccupants().majorityOccupants());
+        assertFalse(withoutRed.withoutOccupants().isOccupied());
+        assertEquals(List.of(PlayerColor.GREEN),
+                withoutRed.withoutOccupants().withInitialOccupant(PlayerColor.GREEN).occupants());
+    }
+
+    @Test
+    void checkStatisticsAreMergedByConnectTo() {
+        var lake = new Zone.Lake(1_8, 5, null);
+        var otherLake = new Zone.Lake(3_8, 7, null);
+        var r11 = new Zone.River(1_1, 2, lake);
+        var r21 = new Zone.River(2_1, 1, lake);
+        var r31 = new Zone.River(3_1, 0, otherLake);
+        var rivers1 = new Area<>(Set.of(r11), List.of(), 1);
+        var rivers2 = new Area<>(Set.of(r21), List.of(), 2);
+        var rivers3 = new Area<>(Set.of(r31), List.of(), 1);
+        var rivers = rivers1.connectTo(rivers2).connectTo(rivers3);
+        // la rivière 1_1 et la rivière 2_1 se jettent dans le même lac, compté une seule fois
+        assertEquals(2 + 1 + 0 + 5 + 7, Area.riverFishCount(rivers));
+        assertEquals(Area.riverFishCount(new Area<>(new HashSet<>(List.of(r11, r21, r31)), List.of(), 1)),
+                Area.riverFishCount(rivers));
+
+        var waters = new Area<Zone.Water>(Set.of(r11, lake), List.of(), 1)
+                .connectTo(new Area<>(Set.of(r31, otherLake), List.of(), 1));
+        assertEquals(2 + 5 + 0 + 7, Area.riverSystemFishCount(waters));
+        assertEquals(2, Area.lakeCount(waters));
+
+        var mushrooms = new Zone.Forest(4_0, Zone.Forest.Kind.WITH_MUSHROOMS);
+        var menhir = new Zone.Forest(5_0, Zone.Forest.Kind.WITH_MENHIR);
+        var plain = new Zone.Forest(6_0, Zone.Forest.Kind.PLAIN);
+        var plainForest = new Area<>(Set.of(plain), List.of(), 1);
+        assertFalse(Area.hasMenhir(plainForest));
+        var forest = plainForest.connectTo(new Area<>(Set.of(mushrooms, menhir), List.of(), 1));
+        assertTrue(Area.hasMenhir(forest));
+        assertEquals(1, Area.mushroomGroupCount(forest));
+        assertEquals(Set.of(4, 5, 6), forest.tileIds());
+
+        var deer = new Animal(7_0_0, Animal.Kind.DEER);
+        var tiger = new Animal(8_0_0, Animal.Kind.TIGER);
+        var meadow = new Area<>(Set.of(new Zone.Meadow(7_0, List.of(deer), null)), List.of(), 1)
+                .connectTo(new Area<>(Set.of(new Zone.Meadow(8_0, List.of(tiger), null)), List.of(), 1));
+        assertEquals(Set.of(deer, tiger), Area.animals(meadow, Set.of()));
+        assertEquals(Set.of(tiger), Area.animals(meadow, Set.of(deer)));
+        assertEquals(Set.of(deer, tiger), Area.animals(meadow, Set.of()));
+    }
+}
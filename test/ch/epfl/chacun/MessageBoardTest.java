@@ -2,6 +2,7 @@ package ch.epfl.chacun;
 
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Proxy;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -92,6 +93,88 @@ class MessageBoardTest {
         assertEquals(0, points.getOrDefault(YELLOW, 0));
     }
 
+    @Test
+    void messageBoardBranchesDoNotShareAppendedMessages() {
+        var forestArea = new Area<>(Set.of(new Forest(10, Kind.PLAIN), new Forest(20, Kind.PLAIN)), List.of(RED), 0);
+        var riverArea = new Area<>(Set.of(new Zone.River(30, 3, null), new Zone.River(40, 0, null)), List.of(BLUE), 0);
+        var mb = new MessageBoard(new BasicTextMaker(), List.of(emptyMessage(1, GREEN)));
+        for (int i = 0; i < 40; i += 1) mb = mb.withScoredForest(forestArea);
+
+        var withForest = mb.withScoredForest(forestArea);
+        var withRiver = mb.withScoredRiver(riverArea);
+        assertEquals(41, mb.messages().size());
+        assertEquals(mb.messages(), withForest.messages().subList(0, 41));
+        assertEquals(mb.messages(), withRiver.messages().subList(0, 41));
+        assertNotEquals(withForest.messages().getLast(), withRiver.messages().getLast());
+
+        assertEquals(Map.of(GREEN, 1, RED, 164), withForest.points());
+        assertEquals(Map.of(GREEN, 1, RED, 160, BLUE, 5), withRiver.points());
+        assertEquals(new MessageBoard(new BasicTextMaker(), new ArrayList<>(withRiver.messages())).points(),
+                withRiver.points());
+    }
+
+    @Test
+    void messageBoardFormatsMessageTextOnlyWhenAsked() {
+        var calls = new int[1];
+        var basicTextMaker = new BasicTextMaker();
+        var countingTextMaker = (TextMaker) Proxy.newProxyInstance(
+                TextMaker.class.getClassLoader(),
+                new Class<?>[]{TextMaker.class},
+                (proxy, method, args) -> {
+                    calls[0] += 1;
+                    return method.invoke(basicTextMaker, args);
+                });
+        var forestArea = new Area<>(Set.of(new Forest(10, Kind.PLAIN), new Forest(20, Kind.WITH_MUSHROOMS)),
+                List.of(RED), 0);
+        var mb = new MessageBoard(countingTextMaker, List.of())
+                .withScoredForest(forestArea)
+                .withClosedForestWithMenhir(BLUE, forestArea)
+                .withWinners(Set.of(RED), 7);
+        assertEquals(0, calls[0]);
+        assertEquals(Map.of(RED, 7), mb.points());
+        assertEquals(new MessageBoard.Event.PlayersScoredForest(Set.of(RED), 7, 1, 2),
+                mb.messages().getFirst().event());
+        assertEquals(0, calls[0]);
+
+        assertEquals("{RED}|7|1|2", mb.messages().getFirst().text());
+        assertEquals("{RED}|7|1|2", mb.messages().getFirst().text());
+        assertEquals(1, calls[0]);
+        assertEquals(new MessageBoard.Message("{RED}|7|1|2", 7, Set.of(RED), Set.of(1, 2)),
+                mb.messages().getFirst());
+        assertNull(new MessageBoard.Message("", 0, Set.of(), Set.of()).event());
+    }
+
+    @Test
+    void messageBoardEqualityDoesNotFormatEventMessages() {
+        var calls = new int[1];
+        var basicTextMaker = new BasicTextMaker();
+        var countingTextMaker = (TextMaker) Proxy.newProxyInstance(
+                TextMaker.class.getClassLoader(),
+                new Class<?>[]{TextMaker.class},
+                (proxy, method, args) -> {
+                    calls[0] += 1;
+                    return method.invoke(basicTextMaker, args);
+                });
+        var forestArea = new Area<>(Set.of(new Forest(10, Kind.PLAIN), new Forest(20, Kind.WITH_MUSHROOMS)),
+                List.of(RED), 0);
+        var otherForestArea = new Area<>(Set.of(new Forest(10, Kind.PLAIN), new Forest(20, Kind.PLAIN)),
+                List.of(RED), 0);
+        var mb1 = new MessageBoard(countingTextMaker, List.of()).withScoredForest(forestArea);
+        var mb2 = new MessageBoard(countingTextMaker, List.of()).withScoredForest(forestArea);
+        var mb3 = new MessageBoard(countingTextMaker, List.of()).withScoredForest(otherForestArea);
+
+        assertEquals(mb1.messages(), mb2.messages());
+        assertEquals(mb1.messages().hashCode(), mb2.messages().hashCode());
+        assertEquals(Set.of(mb1.messages().getFirst()), Set.of(mb2.messages().getFirst()));
+        // mêmes points, joueurs et tuiles, mais pas le même nombre de champignons
+        assertNotEquals(mb1.messages().getFirst(), mb3.messages().getFirst());
+        assertEquals(0, calls[0]);
+
+        var textMessage = new MessageBoard.Message("{RED}|7|1|2", 7, Set.of(RED), Set.of(1, 2));
+        assertEquals(textMessage, mb1.messages().getFirst());
+        assertEquals(textMessage.hashCode(), mb1.messages().getFirst().hashCode());
+    }
+
     @Test
     void messageBoardWithScoredForestWorksWithUnoccupiedForest() {
         var f1 = new Forest(10, Kind.PLAIN);
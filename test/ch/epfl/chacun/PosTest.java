@@ -2,7 +2,10 @@ package ch.epfl.chacun;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class PosTest {
     @Test
@@ -39,4 +42,37 @@ class PosTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void posPackedRoundTripsAndKeepsTheOrderOfPositions() {
+        var coordinates = new int[]{-32767, -1000, -13, -1, 0, 1, 12, 999, 32767};
+        var positions = new ArrayList<Pos>();
+        for (int x : coordinates) {
+            for (int y : coordinates) {
+                var pos = new Pos(x, y);
+                int packed = pos.packed();
+                assertEquals(Pos.pack(x, y), packed);
+                assertEquals(x, Pos.packedX(packed));
+                assertEquals(y, Pos.packedY(packed));
+                assertEquals(pos, Pos.unpacked(packed));
+                positions.add(pos);
+            }
+        }
+        for (int i = 1; i < positions.size(); i += 1) {
+            assertTrue(positions.get(i - 1).packed() < positions.get(i).packed());
+        }
+    }
+
+    @Test
+    void posPackedNeighborWorks() {
+        for (int x = -10; x <= 10; x += 1) {
+            for (int y = -10; y <= 10; y += 1) {
+                var pos = new Pos(x, y);
+                for (var direction : Direction.ALL) {
+                    assertEquals(pos.neighbor(direction),
+                            Pos.unpacked(Pos.packedNeighbor(pos.packed(), direction)));
+                }
+            }
+        }
+    }
+}
@@ -3,7 +3,9 @@ package ch.epfl.chacun;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 import java.util.function.Predicate;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -192,6 +194,42 @@ class TileDecksTest {
                 decks.withTopTileDrawnUntil(Tile.Kind.MENHIR, falsePredicate).menhirTiles());
     }
 
+    @Test
+    void tileDecksDrawnDecksBehaveLikeImmutableLists() {
+        var dN = List.of(
+                getTile(0, Tile.Kind.NORMAL),
+                getTile(1, Tile.Kind.NORMAL),
+                getTile(2, Tile.Kind.NORMAL));
+        var decks = new TileDecks(List.of(), dN, List.of());
+
+        var drawn = decks.withTopTileDrawnUntil(Tile.Kind.NORMAL, t -> t.id() == 2);
+        assertEquals(dN.subList(2, 3), drawn.normalTiles());
+        assertEquals(dN.subList(2, 3).hashCode(), drawn.normalTiles().hashCode());
+        assertEquals(new TileDecks(List.of(), dN.subList(2, 3), List.of()), drawn);
+        assertThrows(UnsupportedOperationException.class, () -> drawn.normalTiles().removeFirst());
+        assertThrows(IndexOutOfBoundsException.class, () -> drawn.normalTiles().get(1));
+        assertSame(decks, decks.withTopTileDrawnUntil(Tile.Kind.NORMAL, t -> true));
+        assertEquals(dN, decks.normalTiles());
+    }
+
+    @Test
+    void tileDecksShuffledSplitsAllTilesByKind() {
+        var decks = TileDecks.shuffled(new Random(2024));
+        var all = new ArrayList<Tile>();
+        for (var kind : Tile.Kind.values()) {
+            var deck = switch (kind) {
+                case START -> decks.startTiles();
+                case NORMAL -> decks.normalTiles();
+                case MENHIR -> decks.menhirTiles();
+            };
+            assertTrue(deck.stream().allMatch(t -> t.kind() == kind));
+            assertEquals(deck.size(), decks.deckSize(kind));
+            all.addAll(deck);
+        }
+        all.sort(Comparator.comparingInt(Tile::id));
+        assertEquals(Tiles.TILES, all);
+    }
+
     record ConstantPredicate(boolean b) implements Predicate<Tile> {
         @Override
         public boolean test(Tile tile) {
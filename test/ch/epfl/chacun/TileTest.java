@@ -5,7 +5,7 @@ import org.junit.jupiter.api.Test;
 import java.util.List;
 import java.util.Set;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class TileTest {
     @Test
@@ -63,4 +63,27 @@ class TileTest {
 
         assertEquals(Set.of(z0, z1, z2, z3, z4, z5, l0), tile.zones());
     }
-}
\ No newline at end of file
+
+    @Test
+    void tileZoneViewsAreComputedOnceAndUnmodifiable() {
+        var l0 = new Zone.Lake(5_8, 1, null);
+        var z0 = new Zone.Meadow(5_0, List.of(), null);
+        var z1 = new Zone.River(5_1, 0, l0);
+        var z2 = new Zone.Meadow(5_2, List.of(), null);
+        var z3 = new Zone.Forest(5_3, Zone.Forest.Kind.PLAIN);
+        var sN = new TileSide.River(z0, z1, z2);
+        var sE = new TileSide.Forest(z3);
+        var sS = new TileSide.Forest(z3);
+        var sW = new TileSide.Meadow(z0);
+        var tile = new Tile(5, Tile.Kind.NORMAL, sN, sE, sS, sW);
+
+        assertSame(tile.sides(), tile.sides());
+        assertSame(tile.zones(), tile.zones());
+        assertEquals(Set.of(z3), tile.forestZones());
+        assertEquals(Set.of(z0, z2), tile.meadowZones());
+        assertEquals(Set.of(z1), tile.riverZones());
+        assertThrows(UnsupportedOperationException.class, () -> tile.zones().add(z3));
+        assertThrows(UnsupportedOperationException.class, () -> tile.sides().set(0, sE));
+        assertThrows(UnsupportedOperationException.class, () -> tile.forestZones().clear());
+    }
+}
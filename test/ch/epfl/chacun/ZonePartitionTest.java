@@ -0,0 +1,59 @@
+package ch.epfl.chacun;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZonePartitionTest {
+    private static Zone.Forest forest(int id) {
+        return new Zone.Forest(id, Zone.Forest.Kind.PLAIN);
+    }
+
+    @Test
+    void zonePartitionAreaContainingWorksAfterManyUnions() {
+        var builder = new ZonePartition.Builder<>(new ZonePartition<Zone.Forest>());
+        for (int i = 0; i < 20; i += 1)
+            builder.addSingleton(forest(i * 10), 2);
+        for (int i = 1; i < 20; i += 1)
+            builder.union(forest((i - 1) * 10), forest(i * 10));
+        var partition = builder.build();
+
+        assertEquals(1, partition.areas().size());
+        var area = partition.areas().iterator().next();
+        assertEquals(20, area.zones().size());
+        assertEquals(2, area.openConnections());
+        for (int i = 0; i < 20; i += 1)
+            assertSame(area, partition.areaContaining(forest(i * 10)));
+    }
+
+    @Test
+    void zonePartitionAreaContainingThrowsForUnknownZone() {
+        var partition = new ZonePartition<>(Set.of(new Area<>(Set.of(forest(10)), List.of(), 1)));
+        assertThrows(IllegalArgumentException.class, () -> partition.areaContaining(forest(20)));
+        assertThrows(IllegalArgumentException.class, () -> partition.areaContaining(forest(12_345)));
+    }
+
+    @Test
+    void zonePartitionBuilderDoesNotModifyInitialPartition() {
+        var f1 = forest(10);
+        var f2 = forest(20);
+        var initial = new ZonePartition<>(Set.of(
+                new Area<>(Set.of(f1), List.of(), 2),
+                new Area<>(Set.of(f2), List.of(), 2)));
+
+        var builder = new ZonePartition.Builder<>(initial);
+        builder.union(f1, f2);
+        builder.addInitialOccupant(f1, PlayerColor.RED);
+        var first = builder.build();
+        builder.removeOccupant(f2, PlayerColor.RED);
+        var second = builder.build();
+
+        assertEquals(new Area<>(Set.of(f1), List.of(), 2), initial.areaContaining(f1));
+        assertEquals(new Area<>(Set.of(f2), List.of(), 2), initial.areaContaining(f2));
+        assertEquals(Set.of(new Area<>(Set.of(f1, f2), List.of(PlayerColor.RED), 2)), first.areas());
+        assertEquals(Set.of(new Area<>(Set.of(f1, f2), List.of(), 2)), second.areas());
+    }
+}
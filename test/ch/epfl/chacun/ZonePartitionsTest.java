@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class ZonePartitionsTest {
@@ -17,6 +18,28 @@ class ZonePartitionsTest {
         assertEquals(Set.of(), ZonePartitions.EMPTY.riverSystems().areas());
     }
 
+    @Test
+    void zonePartitionsBuilderSharesUnmodifiedPartitions() {
+        var f1 = new Zone.Forest(10, Zone.Forest.Kind.PLAIN);
+        var m1 = new Zone.Meadow(11, List.of(), null);
+        var initial = new ZonePartitions(
+                new ZonePartition<>(Set.of(new Area<>(Set.of(f1), List.of(), 1))),
+                new ZonePartition<>(Set.of(new Area<>(Set.of(m1), List.of(), 1))),
+                new ZonePartition<>(),
+                new ZonePartition<>());
+
+        var b = new ZonePartitions.Builder(initial);
+        assertEquals(initial, b.build());
+        b.addInitialOccupant(PlayerColor.RED, Occupant.Kind.PAWN, f1);
+        var partitions = b.build();
+
+        assertSame(initial.meadows(), partitions.meadows());
+        assertSame(initial.rivers(), partitions.rivers());
+        assertSame(initial.riverSystems(), partitions.riverSystems());
+        assertEquals(Set.of(new Area<>(Set.of(f1), List.of(PlayerColor.RED), 1)), partitions.forests().areas());
+        assertEquals(Set.of(new Area<>(Set.of(f1), List.of(), 1)), initial.forests().areas());
+    }
+
     @Test
     void zonePartitionsBuilderAddTileWorksWithOneMeadowAndOneForest() {
         // Tile 32
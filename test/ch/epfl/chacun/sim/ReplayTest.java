@@ -0,0 +1,117 @@
+package ch.epfl.chacun.sim;
+
+import ch.epfl.chacun.ActionEncoder;
+import ch.epfl.chacun.GameState;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGeneratorFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayTest {
+    private static List<GameState> sequentialStates(GameState initial, List<String> actions) {
+        var states = new ArrayList<GameState>();
+        states.add(initial);
+        for (var action : actions) {
+            states.add(ActionEncoder.decodeAndApply(states.getLast(), action).gameState());
+        }
+        return states;
+    }
+
+    @Test
+    void replaySeekReachesTheSameStatesAsSequentialReplay() {
+        var actions = Simulator.playGame(3, 5, MovePolicy.RANDOM).actions();
+        var initial = Simulator.initialState(3, 5);
+        var states = sequentialStates(initial, actions);
+        var random = RandomGeneratorFactory.getDefault().create(5);
+
+        for (var interval : List.of(1, 7, 1000)) {
+            var replay = new Replay(initial, actions, interval);
+            assertEquals(actions.size(), replay.size());
+            assertEquals(0, replay.position());
+            assertSame(initial, replay.gameState());
+            for (var i = 0; i < 200; i += 1) {
+                var position = random.nextInt(actions.size() + 1);
+                replay.seek(position);
+                assertEquals(position, replay.position());
+                assertEquals(states.get(position), replay.gameState());
+            }
+            replay.seek(actions.size());
+            assertEquals(GameState.Action.END_GAME, replay.gameState().nextAction());
+        }
+    }
+
+    @Test
+    void replayStepsForwardAndBackward() {
+        var actions = Simulator.playGame(2, 8, MovePolicy.RANDOM).actions();
+        var initial = Simulator.initialState(2, 8);
+        var replay = new Replay(initial, actions, 10);
+        var states = sequentialStates(initial, actions);
+
+        assertThrows(IllegalStateException.class, replay::stepBackward);
+        for (var position = 1; position <= actions.size(); position += 1) {
+            replay.stepForward();
+            assertEquals(states.get(position), replay.gameState());
+        }
+        assertThrows(IllegalStateException.class, replay::stepForward);
+        for (var position = actions.size() - 1; position >= 0; position -= 1) {
+            replay.stepBackward();
+            assertEquals(states.get(position), replay.gameState());
+        }
+    }
+
+    @Test
+    void replayTruncateAndAppendReplaceUndoneActions() {
+        var actions = Simulator.playGame(2, 4, MovePolicy.RANDOM).actions();
+        var initial = Simulator.initialState(2, 4);
+        var states = sequentialStates(initial, actions);
+        var replay = new Replay(initial, actions, 6);
+
+        replay.seek(actions.size() - 1);
+        replay.truncate(13);
+        assertEquals(13, replay.size());
+        assertEquals(13, replay.position());
+        assertEquals(actions.subList(0, 13), replay.actions());
+        assertEquals(states.get(13), replay.gameState());
+
+        for (var action : actions.subList(13, actions.size())) {
+            replay.append(action);
+        }
+        assertEquals(13, replay.position());
+        replay.seek(actions.size());
+        assertEquals(states.getLast(), replay.gameState());
+        replay.seek(20);
+        assertEquals(states.get(20), replay.gameState());
+    }
+
+    @Test
+    void replayOfSeedReplaysTheGameOfThatSeed() {
+        var actions = Simulator.playGame(4, 9, MovePolicy.RANDOM).actions();
+        var states = sequentialStates(Simulator.initialState(4, 9), actions);
+        var replay = Replay.ofSeed(4, 9, actions, 16);
+
+        for (var position : List.of(actions.size(), 0, 17, 16, 15)) {
+            replay.seek(position);
+            assertEquals(states.get(position).zobristKey(), replay.gameState().zobristKey());
+            assertEquals(states.get(position).messageBoard().points(), replay.gameState().messageBoard().points());
+        }
+    }
+
+    @Test
+    void replayThrowsOnInvalidArguments() {
+        var actions = Simulator.playGame(2, 1, MovePolicy.RANDOM).actions();
+        var initial = Simulator.initialState(2, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> new Replay(initial, actions, 0));
+        assertThrows(IllegalArgumentException.class, () -> new Replay(initial, List.of("!!"), 4));
+        assertThrows(IllegalArgumentException.class, () -> new Replay(initial, actions.subList(1, 2), 4));
+
+        var replay = new Replay(initial, actions, 4);
+        assertThrows(IllegalArgumentException.class, () -> replay.seek(-1));
+        assertThrows(IllegalArgumentException.class, () -> replay.seek(actions.size() + 1));
+        assertThrows(IllegalArgumentException.class, () -> replay.truncate(actions.size() + 1));
+        assertThrows(IllegalArgumentException.class, () -> replay.append(actions.getFirst()));
+    }
+}
@@ -0,0 +1,167 @@
+package ch.epfl.chacun.sim;
+
+import ch.epfl.chacun.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchStateTest {
+    /**
+     * stratégie jouant au hasard comme MovePolicy.RANDOM, qui joue chacun de ses choix sur un état de recherche
+     * et vérifie, avant chaque choix, que cet état correspond à celui de la partie
+     */
+    private static final class MirroringPolicy implements MovePolicy {
+        private SearchState search;
+        private final List<Snapshot> snapshots = new ArrayList<>();
+        private int retakes = 0;
+
+        private void check(GameState state) {
+            if (search == null) search = SearchState.of(state);
+            assertMatches(state, search);
+            snapshots.add(Snapshot.of(search));
+        }
+
+        @Override
+        public PlacedTile tileToPlace(GameState state, List<PlacedTile> placements, RandomGenerator random) {
+            check(state);
+            assertEquals(placements, search.legalPlacements());
+            var moves = state.legalMoves().toList();
+            var searchMoves = search.legalMoves();
+            assertEquals(moves.size(), searchMoves.size());
+            assertEquals(new HashSet<>(moves), new HashSet<>(searchMoves));
+            var placedTile = RANDOM.tileToPlace(state, placements, random);
+            search.placeTile(placedTile);
+            return placedTile;
+        }
+
+        @Override
+        public Occupant occupantToPlace(GameState state, List<Occupant> occupants, RandomGenerator random) {
+            check(state);
+            assertEquals(state.lastTilePotentialOccupants(), search.lastTilePotentialOccupants());
+            var occupant = RANDOM.occupantToPlace(state, occupants, random);
+            search.occupyTile(occupant);
+            return occupant;
+        }
+
+        @Override
+        public Occupant occupantToRemove(GameState state, List<Occupant> occupants, RandomGenerator random) {
+            check(state);
+            assertEquals(state.retakablePawns(), search.retakablePawns());
+            var pawn = RANDOM.occupantToRemove(state, occupants, random);
+            if (pawn != null) retakes += 1;
+            search.retakePawn(pawn);
+            return pawn;
+        }
+    }
+
+    private record Snapshot(GameState.Action nextAction, PlayerColor currentPlayer, Tile tileToPlace,
+                            PlacedTile lastPlacedTile, List<Integer> points, List<Occupant> pawns) {
+        static Snapshot of(SearchState search) {
+            return new Snapshot(search.nextAction(), search.currentPlayer(), search.tileToPlace(),
+                    search.lastPlacedTile(),
+                    PlayerColor.ALL.stream().map(search::points).toList(),
+                    search.nextAction() == GameState.Action.END_GAME ? List.of() : search.retakablePawns());
+        }
+    }
+
+    private static void assertMatches(GameState state, SearchState search) {
+        assertEquals(state.nextAction(), search.nextAction());
+        assertEquals(state.currentPlayer(), search.currentPlayer());
+        assertEquals(state.tileToPlace(), search.tileToPlace());
+        assertEquals(state.board().lastPlacedTile(), search.lastPlacedTile());
+        for (var player : PlayerColor.ALL) {
+            assertEquals(state.messageBoard().points().getOrDefault(player, 0), search.points(player));
+            for (var kind : Occupant.Kind.values()) {
+                assertEquals(state.freeOccupantsCount(player, kind), search.freeOccupantsCount(player, kind));
+            }
+        }
+    }
+
+    @Test
+    void searchStateFollowsSimulatedGamesAndUndoesThem() {
+        var retakes = 0;
+        // les parties à 3 joueurs de graines 8 et 19 posent le chaman alors que son placeur a des pions en jeu
+        for (var game : List.of(new long[]{2, 1}, new long[]{3, 8}, new long[]{3, 19}, new long[]{4, 2},
+                new long[]{5, 3})) {
+            var policy = new MirroringPolicy();
+            var result = Simulator.playGame((int) game[0], game[1], policy);
+            var search = policy.search;
+            retakes += policy.retakes;
+
+            assertEquals(GameState.Action.END_GAME, search.nextAction());
+            for (var player : PlayerColor.ALL) {
+                assertEquals(result.points().getOrDefault(player, 0), search.points(player));
+            }
+            var finalState = search.asGameState();
+            assertEquals(result.points(), finalState.messageBoard().points());
+            assertEquals(policy.snapshots.size(), search.depth());
+
+            for (var i = policy.snapshots.size() - 1; i >= 0; i -= 1) {
+                search.undo();
+                assertEquals(policy.snapshots.get(i), Snapshot.of(search));
+            }
+            assertMatches(Simulator.initialState((int) game[0], game[1]), search);
+            assertThrows(IllegalStateException.class, search::undo);
+        }
+        assertTrue(retakes > 0);
+    }
+
+    @Test
+    void searchStatePlayIsUndoneInOneStep() {
+        var initial = Simulator.initialState(2, 5);
+        var search = SearchState.of(initial);
+        var before = Snapshot.of(search);
+        for (var move : initial.legalMoves().toList()) {
+            search.play(move);
+            assertEquals(1, search.depth());
+            assertNotEquals(GameState.Action.OCCUPY_TILE, search.nextAction());
+            var played = initial.withPlacedTile(move.placedTile());
+            if (played.nextAction() == GameState.Action.OCCUPY_TILE) played = played.withNewOccupant(move.occupant());
+            assertMatches(played, search);
+            assertEquals(played, search.asGameState());
+            search.undo();
+            assertEquals(before, Snapshot.of(search));
+            assertSame(initial, search.asGameState());
+        }
+    }
+
+    @Test
+    void searchStateRejectedMoveLeavesStateUnchanged() {
+        var initial = Simulator.initialState(2, 5);
+        var search = SearchState.of(initial);
+        var before = Snapshot.of(search);
+        var placedTile = initial.legalPlacements().findFirst().orElseThrow();
+        // la tuile est posée avant que le pion, qui serait sur une tuile inexistante, ne soit refusé
+        var move = new GameState.Move(placedTile, new Occupant(Occupant.Kind.PAWN, 990));
+        assertThrows(IllegalArgumentException.class, () -> search.play(move));
+        assertEquals(0, search.depth());
+        assertEquals(before, Snapshot.of(search));
+        assertEquals(new HashSet<>(initial.legalMoves().toList()), new HashSet<>(search.legalMoves()));
+        assertThrows(IllegalArgumentException.class, () -> search.occupyTile(null));
+    }
+
+    @Test
+    void searchStateResetForgetsHistory() {
+        var initial = Simulator.initialState(2, 5);
+        var search = SearchState.of(initial);
+        search.play(initial.legalMoves().findFirst().orElseThrow());
+        var played = search.asGameState();
+        search.reset(played);
+        assertEquals(0, search.depth());
+        assertSame(played, search.asGameState());
+        assertMatches(played, search);
+        assertThrows(IllegalStateException.class, search::undo);
+    }
+
+    @Test
+    void searchStateRejectsGamesThatHaveNotStarted() {
+        var state = Simulator.initialState(2, 0);
+        var startState = GameState.initial(state.players(), state.tileDecks(), state.messageBoard().textMaker());
+        assertThrows(IllegalArgumentException.class, () -> SearchState.of(startState));
+    }
+}
@@ -0,0 +1,56 @@
+package ch.epfl.chacun.sim;
+
+import ch.epfl.chacun.ActionEncoder;
+import ch.epfl.chacun.GameState;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatorTest {
+    @Test
+    void simulatorPlayGameIsDeterministicForAGivenSeed() {
+        for (var policy : List.of(MovePolicy.RANDOM, MovePolicy.FIRST)) {
+            var r1 = Simulator.playGame(3, 2024, policy);
+            var r2 = Simulator.playGame(3, 2024, policy);
+            assertEquals(r1.actions(), r2.actions());
+            assertEquals(r1.points(), r2.points());
+            assertEquals(r1.turns(), r2.turns());
+            assertTrue(r1.turns() > 0);
+        }
+    }
+
+    @Test
+    void simulatorPlayGameActionsCanBeReplayed() {
+        var result = Simulator.playGame(4, 7, MovePolicy.RANDOM);
+
+        var state = Simulator.initialState(4, 7);
+        for (var action : result.actions()) {
+            var stateAction = ActionEncoder.decodeAndApply(state, action);
+            assertNotNull(stateAction);
+            state = stateAction.gameState();
+        }
+        assertEquals(GameState.Action.END_GAME, state.nextAction());
+        assertEquals(result.points(), state.messageBoard().points());
+    }
+
+    @Test
+    void simulatorRunAggregatesAllGames() {
+        var report = Simulator.run(2, 0, 9, MovePolicy.RANDOM, 4);
+        var turns = 0L;
+        for (var seed = 0; seed <= 9; seed += 1)
+            turns += Simulator.playGame(2, seed, MovePolicy.RANDOM).turns();
+
+        assertEquals(10, report.games());
+        assertEquals(turns, report.turns());
+        assertTrue(report.wallNanos() > 0);
+    }
+
+    @Test
+    void simulatorRunThrowsOnInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> Simulator.run(2, 5, 4, MovePolicy.RANDOM, 1));
+        assertThrows(IllegalArgumentException.class, () -> Simulator.run(2, 0, 4, MovePolicy.RANDOM, 0));
+        assertThrows(IllegalArgumentException.class, () -> Simulator.playGame(1, 0, MovePolicy.RANDOM));
+    }
+}